@@ -1,6 +1,7 @@
 package edu.bsu.cs.sorting.buis.generic;
 
 import static edu.bsu.cs.sorting.buis.generic.GenericHelpers.greaterThan;
+import static edu.bsu.cs.sorting.buis.generic.GenericHelpers.lessThan;
 
 // static methods for implementing the HeapSort algorithm
 // on an array of integers
@@ -10,6 +11,10 @@ public class HeapSort {
 	private HeapSort() {
 	}
 
+	// children of a node in a d-ary heap are stored next to each other,
+	// so 16 compressed references span 64 bytes, a typical cache line
+	public static final int CACHE_LINE_ARITY = 16;
+
 	public static <T extends Comparable<? super T>> void sort(T[] array) {
 		sort(array, 0, array.length);
 	}
@@ -18,16 +23,61 @@ public class HeapSort {
 		int length = iEnd - iStart;
 		int heapSize = length;
 		buildMaxHeap(array, iStart, iEnd);
-		for (int iSubrange = length - 1; iSubrange >= 2; iSubrange--) {
+		for (int iSubrange = length - 1; iSubrange > 0; iSubrange--) {
 			T temp = array[iStart];
 			array[iStart] = array[iSubrange + iStart];
 			array[iSubrange + iStart] = temp;
 			heapSize--;
-			maxHeapify(array, iStart, iEnd, iStart, heapSize);
+			maxHeapify(array, iStart, iEnd, 0, heapSize);
 		}
 	}
 
-	private static <T extends Comparable<? super T>> void buildMaxHeap(final T[] array, final int iStart,
+	public static <T extends Comparable<? super T>> void sort(T[] array,
+			int arity, boolean bottomUp) {
+		sort(array, 0, array.length, arity, bottomUp);
+	}
+
+	/**
+	 * Sorts array[iStart..iEnd) using a heap where each node has arity
+	 * children rather than 2. A wider heap is shallower, so fewer levels
+	 * (and fewer cache misses) are visited per sift, at the price of more
+	 * comparisons per level.
+	 * 
+	 * When bottomUp is true, the sift used during the extraction phase is
+	 * Floyd's (Wegener's) variant: the hole left at the root is walked all
+	 * the way down to a leaf along the path of largest children, and the
+	 * displaced element is then sifted back up from there. Since that
+	 * element came from the bottom of the heap it rarely climbs far, so
+	 * about half the comparisons of the top-down sift are saved. This
+	 * matters more here than for int[] since compareTo is not cheap.
+	 */
+	public static <T extends Comparable<? super T>> void sort(T[] array,
+			int iStart, int iEnd, int arity, boolean bottomUp) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+		int length = iEnd - iStart;
+		if (length < 2) {
+			return; // (length - 2) / arity would truncate to 0
+		}
+		// variables with "Subrange" must have iStart added to them before
+		// they can be used as index to array
+		for (int iSubrange = (length - 2) / arity; iSubrange >= 0; iSubrange--) {
+			siftDown(array, iStart, iSubrange, length, arity);
+		}
+		for (int heapSize = length - 1; heapSize > 0; heapSize--) {
+			T temp = array[iStart + heapSize];
+			array[iStart + heapSize] = array[iStart];
+			if (bottomUp) {
+				siftDownBottomUp(array, iStart, temp, heapSize, arity);
+			} else {
+				array[iStart] = temp;
+				siftDown(array, iStart, 0, heapSize, arity);
+			}
+		}
+	}
+
+	static <T extends Comparable<? super T>> void buildMaxHeap(final T[] array, final int iStart,
 			final int iEnd) {
 		final int length = iEnd - iStart;
 		final int heapSize = length;
@@ -38,19 +88,19 @@ public class HeapSort {
 		}
 	}
 
-	private static <T extends Comparable<? super T>> void maxHeapify(final T[] array, final int iStart,
+	static <T extends Comparable<? super T>> void maxHeapify(final T[] array, final int iStart,
 			final int iEnd, int iSubrange, final int heapSize) {
 		int iSubrangeLeft = 2 * iSubrange + 1;
 		int iSubrangeRight = 2 * iSubrange + 2;
 		int iSubrangeLargest;
-		while (iSubrangeRight < heapSize) {
-			if (iSubrangeLeft < heapSize && // left child exists
-					greaterThan(array, iSubrangeLeft + iStart, iSubrange + iStart)) {
+		while (iSubrangeLeft < heapSize) {
+			if (greaterThan(array, iSubrangeLeft + iStart, iSubrange + iStart)) {
 				iSubrangeLargest = iSubrangeLeft;
 			} else {
 				iSubrangeLargest = iSubrange;
 			}
-			if (greaterThan(array, iSubrangeRight + iStart, iSubrangeLargest+ iStart)) {
+			if (iSubrangeRight < heapSize && // right child exists
+					greaterThan(array, iSubrangeRight + iStart, iSubrangeLargest+ iStart)) {
 				iSubrangeLargest = iSubrangeRight;
 			}
 			if (iSubrangeLargest != iSubrange) {
@@ -67,4 +117,63 @@ public class HeapSort {
 		}
 	}
 
+	// index (within the subrange) of the largest of the children of
+	// iSubrange, or -1 if iSubrange is a leaf
+	private static <T extends Comparable<? super T>> int largestChild(
+			final T[] array, final int iStart, final int iSubrange,
+			final int heapSize, final int arity) {
+		int iSubrangeChild = arity * iSubrange + 1;
+		if (iSubrangeChild >= heapSize) {
+			return -1;
+		}
+		int iSubrangeEnd = Math.min(iSubrangeChild + arity, heapSize);
+		int iSubrangeLargest = iSubrangeChild;
+		T largest = array[iSubrangeChild + iStart];
+		for (int i = iSubrangeChild + 1; i < iSubrangeEnd; i++) {
+			if (greaterThan(array[i + iStart], largest)) {
+				largest = array[i + iStart];
+				iSubrangeLargest = i;
+			}
+		}
+		return iSubrangeLargest;
+	}
+
+	// classic top-down sift, moving a hole instead of swapping
+	private static <T extends Comparable<? super T>> void siftDown(
+			final T[] array, final int iStart, int iSubrange,
+			final int heapSize, final int arity) {
+		T value = array[iSubrange + iStart];
+		int iSubrangeLargest;
+		while ((iSubrangeLargest = largestChild(array, iStart, iSubrange,
+				heapSize, arity)) >= 0
+				&& greaterThan(array[iSubrangeLargest + iStart], value)) {
+			array[iSubrange + iStart] = array[iSubrangeLargest + iStart];
+			iSubrange = iSubrangeLargest;
+		}
+		array[iSubrange + iStart] = value;
+	}
+
+	// places value into a heap whose root slot is a hole: walk the hole
+	// down to a leaf, then sift value up from there
+	private static <T extends Comparable<? super T>> void siftDownBottomUp(
+			final T[] array, final int iStart, final T value,
+			final int heapSize, final int arity) {
+		int iSubrange = 0;
+		int iSubrangeLargest;
+		while ((iSubrangeLargest = largestChild(array, iStart, iSubrange,
+				heapSize, arity)) >= 0) {
+			array[iSubrange + iStart] = array[iSubrangeLargest + iStart];
+			iSubrange = iSubrangeLargest;
+		}
+		while (iSubrange > 0) {
+			int iSubrangeParent = (iSubrange - 1) / arity;
+			if (!lessThan(array[iSubrangeParent + iStart], value)) {
+				break;
+			}
+			array[iSubrange + iStart] = array[iSubrangeParent + iStart];
+			iSubrange = iSubrangeParent;
+		}
+		array[iSubrange + iStart] = value;
+	}
+
 }
@@ -17,6 +17,11 @@ public class IntroSort {
 		sort(array, 0, array.length, 8*log2(array.length));
 	}	
 	
+	// sorts with a tuned replacement for INSERTION_SORT_THRESHOLD
+	public static <T extends Comparable<? super T>> void sort(T[] array, int insertionSortThreshold) {
+		sort(array, 0, array.length, 8*log2(array.length), insertionSortThreshold);
+	}	
+	
 	/**
 	 * 
 	 * @param n
@@ -34,7 +39,7 @@ public class IntroSort {
 		return iStart;
 	}
 	
-	private static <T extends Comparable<? super T>> int partition(T[] array, int iStart, int iEnd, int pivotIndex) {
+	static <T extends Comparable<? super T>> int partition(T[] array, int iStart, int iEnd, int pivotIndex) {
 		iEnd--;
 		T pivotValue = array[pivotIndex];
 		// swap to store pivotValue in last valid slot in sub-array
@@ -57,9 +62,14 @@ public class IntroSort {
 	}
 	
 	public static <T extends Comparable<? super T>> void sort(T[] array, int iStart, int iEnd, int depthThreshold) {
+		sort(array, iStart, iEnd, depthThreshold, INSERTION_SORT_THRESHOLD);
+	}
+	
+	private static <T extends Comparable<? super T>> void sort(T[] array, int iStart, int iEnd, int depthThreshold,
+			int insertionSortThreshold) {
 		int length= iEnd - iStart;
 		
-		while (length > INSERTION_SORT_THRESHOLD) {
+		while (length > insertionSortThreshold) {
 			if (--depthThreshold <= 0) {
 				HeapSort.sort(array, iStart, iEnd);
 				return;
@@ -68,11 +78,11 @@ public class IntroSort {
 			iPivot = partition(array, iStart, iEnd, iPivot);
 			if ((iPivot - iStart) /* right length */ < 
 				(iEnd - (iPivot+1)) /* left length */) {
-				sort(array, iStart, iPivot, depthThreshold);
+				sort(array, iStart, iPivot, depthThreshold, insertionSortThreshold);
 				iStart = iPivot + 1;
 			}
 			else {
-				sort(array, iPivot+1, iEnd, depthThreshold);
+				sort(array, iPivot+1, iEnd, depthThreshold, insertionSortThreshold);
 				iEnd = iPivot;
 			}
 			length = iEnd - iStart;
@@ -0,0 +1,215 @@
+package edu.bsu.cs.sorting.buis.generic;
+
+import static edu.bsu.cs.sorting.buis.generic.GenericHelpers.lessThan;
+import static edu.bsu.cs.sorting.buis.generic.GenericHelpers.swap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.bsu.cs.sorting.javautil.generic.BinarySort;
+
+// static methods for finding the k smallest elements of an array of
+// Comparables, or just the kth, without paying for a full sort
+public class Selection {
+
+	// prevent instantiation
+	private Selection() {
+	}
+
+	// same as IntroSort
+	private static final int INSERTION_SORT_THRESHOLD = 47;
+
+	private static final int MIN_PARALLEL_CHUNK = 1 << 13;
+
+	public static <T extends Comparable<? super T>> void select(T[] array,
+			int k) {
+		select(array, 0, array.length, k);
+	}
+
+	/**
+	 * Rearranges array[iStart..iEnd) so that array[k] holds the value it
+	 * would hold if the subrange were sorted, with nothing greater before
+	 * it and nothing smaller after it (C++'s nth_element).
+	 *
+	 * This is introselect: quickselect using a median-of-3 pivot and
+	 * IntroSort's partition, switching to median-of-medians pivots, which
+	 * guarantee a linear number of compareTo calls, once 2 log2(n)
+	 * partitions have not found k.
+	 */
+	public static <T extends Comparable<? super T>> void select(T[] array,
+			int iStart, int iEnd, int k) {
+		if (k < iStart || k >= iEnd) {
+			throw new ArrayIndexOutOfBoundsException("k(" + k
+					+ ") not in [" + iStart + ", " + iEnd + ")");
+		}
+		int budget = 2 * (32 - Integer.numberOfLeadingZeros(iEnd - iStart));
+		while (iEnd - iStart > INSERTION_SORT_THRESHOLD) {
+			int iPivot = (--budget > 0) ? med3(array, iStart,
+					(iStart + iEnd) >>> 1, iEnd - 1) : medianOfMedians(array,
+					iStart, iEnd);
+			iPivot = IntroSort.partition(array, iStart, iEnd, iPivot);
+			if (k < iPivot) {
+				iEnd = iPivot;
+			} else if (k == iPivot) {
+				return;
+			} else {
+				// the partition leaves copies of the pivot on its right;
+				// gather them next to it, so duplicates can't stall us
+				int iEqualEnd = gatherEqual(array, iPivot + 1, iEnd,
+						array[iPivot]);
+				if (k < iEqualEnd) {
+					return;
+				}
+				iStart = iEqualEnd;
+			}
+		}
+		BinarySort.sort(array, iStart, iEnd);
+	}
+
+	// index of the median of the three indexed values
+	private static <T extends Comparable<? super T>> int med3(T[] x, int a,
+			int b, int c) {
+		return lessThan(x[a], x[b]) ? (lessThan(x[b], x[c]) ? b : lessThan(
+				x[a], x[c]) ? c : a) : (lessThan(x[c], x[b]) ? b : lessThan(
+				x[c], x[a]) ? c : a);
+	}
+
+	// moves the values equal to value in array[iStart..iEnd) to its front,
+	// returning the index just past them
+	private static <T extends Comparable<? super T>> int gatherEqual(
+			T[] array, int iStart, int iEnd, T value) {
+		int iEqualEnd = iStart;
+		for (int i = iStart; i < iEnd; i++) {
+			if (array[i].compareTo(value) == 0) {
+				swap(array, i, iEqualEnd++);
+			}
+		}
+		return iEqualEnd;
+	}
+
+	// index of a pivot with at least 3/10 of array[iStart..iEnd) on each
+	// side: the median of the medians of groups of 5, which are gathered
+	// at the front of the subrange to find it
+	private static <T extends Comparable<? super T>> int medianOfMedians(
+			T[] array, int iStart, int iEnd) {
+		int groups = 0;
+		for (int i = iStart; i < iEnd; i += 5) {
+			int groupEnd = Math.min(i + 5, iEnd);
+			BinarySort.sort(array, i, groupEnd);
+			swap(array, (i + groupEnd - 1) >>> 1, iStart + groups++);
+		}
+		int iMedian = iStart + groups / 2;
+		select(array, iStart, iStart + groups, iMedian);
+		return iMedian;
+	}
+
+	/**
+	 * Puts the k smallest values of array, in order, in array[0..k); the
+	 * rest are left in no particular order.
+	 */
+	public static <T extends Comparable<? super T>> void partialSort(
+			T[] array, int k) {
+		int n = array.length;
+		if (k <= 0) {
+			return;
+		}
+		if (k >= n) {
+			IntroSort.sort(array);
+			return;
+		}
+		select(array, 0, n, k - 1);
+		IntroSort.sort(array, 0, k - 1, 8 * (31 - Integer
+				.numberOfLeadingZeros(k)));
+	}
+
+	/**
+	 * @return the k smallest values of array, in order, found with a max
+	 *         heap of k elements; array is not changed
+	 */
+	public static <T extends Comparable<? super T>> T[] topK(T[] array, int k) {
+		k = Math.max(0, Math.min(k, array.length));
+		if (k == 0) {
+			return Arrays.copyOf(array, 0);
+		}
+		T[] heap = heapOf(array, 0, array.length, k);
+		HeapSort.sort(heap);
+		return heap;
+	}
+
+	public static <T extends Comparable<? super T>> T[] parallelTopK(
+			T[] array, int k) {
+		return parallelTopK(array, k, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Like topK, but each task of pool builds a heap of the k smallest
+	 * values in its chunk, and the heaps are merged pairwise.
+	 */
+	public static <T extends Comparable<? super T>> T[] parallelTopK(
+			T[] array, int k, ForkJoinPool pool) {
+		int n = array.length;
+		k = Math.max(0, Math.min(k, n));
+		int gran = Math.max(Math.max(k, MIN_PARALLEL_CHUNK), n
+				/ (pool.getParallelism() << 2));
+		if (k == 0 || n < 2 * gran) {
+			return topK(array, k);
+		}
+		T[] heap = pool.invoke(new TopK<T>(array, 0, n, k, gran));
+		HeapSort.sort(heap);
+		return heap;
+	}
+
+	// a max heap of the k smallest values of array[iStart..iEnd), which
+	// must hold at least k
+	private static <T extends Comparable<? super T>> T[] heapOf(T[] array,
+			int iStart, int iEnd, int k) {
+		T[] heap = Arrays.copyOfRange(array, iStart, iStart + k);
+		HeapSort.buildMaxHeap(heap, 0, k);
+		offer(heap, array, iStart + k, iEnd);
+		return heap;
+	}
+
+	// keeps in heap the smallest heap.length of its values and those of
+	// array[iStart..iEnd)
+	private static <T extends Comparable<? super T>> void offer(T[] heap,
+			T[] array, int iStart, int iEnd) {
+		int k = heap.length;
+		for (int i = iStart; i < iEnd; i++) {
+			if (lessThan(array[i], heap[0])) {
+				heap[0] = array[i];
+				HeapSort.maxHeapify(heap, 0, k, 0, k);
+			}
+		}
+	}
+
+	static final class TopK<T extends Comparable<? super T>> extends
+			RecursiveTask<T[]> {
+		private static final long serialVersionUID = 1L;
+		final T[] array;
+		final int iStart, iEnd, k, gran;
+
+		TopK(T[] array, int iStart, int iEnd, int k, int gran) {
+			this.array = array;
+			this.iStart = iStart;
+			this.iEnd = iEnd;
+			this.k = k;
+			this.gran = gran;
+		}
+
+		@Override
+		protected T[] compute() {
+			// every chunk holds at least gran >= k values
+			if (iEnd - iStart < 2 * gran) {
+				return heapOf(array, iStart, iEnd, k);
+			}
+			int iMiddle = (iStart + iEnd) >>> 1;
+			TopK<T> left = new TopK<T>(array, iStart, iMiddle, k, gran);
+			left.fork();
+			T[] right = new TopK<T>(array, iMiddle, iEnd, k, gran).compute();
+			T[] heap = left.join();
+			offer(heap, right, 0, k);
+			return heap;
+		}
+	}
+}
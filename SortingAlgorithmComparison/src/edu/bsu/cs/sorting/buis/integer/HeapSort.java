@@ -8,6 +8,10 @@ public class HeapSort {
 	private HeapSort() {
 	}
 
+	// children of a node in a d-ary heap are stored next to each other,
+	// so 16 int children span 64 bytes, a typical cache line
+	public static final int CACHE_LINE_ARITY = 16;
+
 	public static void sort(int[] array) {
 		sort(array, 0, array.length);
 	}
@@ -22,11 +26,54 @@ public class HeapSort {
 			array[iStart] = array[iSubrange + iStart];
 			array[iSubrange + iStart] = temp;
 			heapSize--;
-			maxHeapify(array, iStart, iEnd, iStart, heapSize);
+			maxHeapify(array, iStart, iEnd, 0, heapSize);
 		}
 	}
 
-	private static void buildMaxHeap(final int[] array, final int iStart,
+	public static void sort(int[] array, int arity, boolean bottomUp) {
+		sort(array, 0, array.length, arity, bottomUp);
+	}
+
+	/**
+	 * Sorts array[iStart..iEnd) using a heap where each node has arity
+	 * children rather than 2. A wider heap is shallower, so fewer levels
+	 * (and fewer cache misses) are visited per sift, at the price of more
+	 * comparisons per level.
+	 * 
+	 * When bottomUp is true, the sift used during the extraction phase is
+	 * Floyd's (Wegener's) variant: the hole left at the root is walked all
+	 * the way down to a leaf along the path of largest children, and the
+	 * displaced element is then sifted back up from there. Since that
+	 * element came from the bottom of the heap it rarely climbs far, so
+	 * about half the comparisons of the top-down sift are saved.
+	 */
+	public static void sort(int[] array, int iStart, int iEnd, int arity,
+			boolean bottomUp) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+		int length = iEnd - iStart;
+		if (length < 2) {
+			return; // (length - 2) / arity would truncate to 0
+		}
+		// variables with "Subrange" must have iStart added to them before
+		// they can be used as index to array
+		for (int iSubrange = (length - 2) / arity; iSubrange >= 0; iSubrange--) {
+			siftDown(array, iStart, iSubrange, length, arity);
+		}
+		for (int heapSize = length - 1; heapSize > 0; heapSize--) {
+			int temp = array[iStart + heapSize];
+			array[iStart + heapSize] = array[iStart];
+			if (bottomUp) {
+				siftDownBottomUp(array, iStart, temp, heapSize, arity);
+			} else {
+				array[iStart] = temp;
+				siftDown(array, iStart, 0, heapSize, arity);
+			}
+		}
+	}
+
+	static void buildMaxHeap(final int[] array, final int iStart,
 			final int iEnd) {
 		final int length = iEnd - iStart;
 		final int heapSize = length;
@@ -37,15 +84,14 @@ public class HeapSort {
 		}
 	}
 
-	private static void maxHeapify(final int[] array, final int iStart,
+	static void maxHeapify(final int[] array, final int iStart,
 			final int iEnd, int iSubrange,  final int heapSize ) {
 		int iSubrangeLeft = 2 * iSubrange;
 		int iSubrangeRight = 2 * iSubrange + 1;
 		int iSubrangeLargest;
 		iSubrangeLargest = iSubrange;
-		while (iSubrangeRight < heapSize) {
-			if (iSubrangeLeft < heapSize && // left child exists
-					array[iSubrangeLeft + iStart] > array[iSubrange + iStart]) {
+		while (iSubrangeLeft < heapSize) {
+			if (array[iSubrangeLeft + iStart] > array[iSubrange + iStart]) {
 				iSubrangeLargest = iSubrangeLeft;
 			} //else {
 			//	iSubrangeLargest = iSubrange;
@@ -69,4 +115,60 @@ public class HeapSort {
 		}
 	}
 
+	// index (within the subrange) of the largest of the children of
+	// iSubrange, or -1 if iSubrange is a leaf
+	private static int largestChild(final int[] array, final int iStart,
+			final int iSubrange, final int heapSize, final int arity) {
+		int iSubrangeChild = arity * iSubrange + 1;
+		if (iSubrangeChild >= heapSize) {
+			return -1;
+		}
+		int iSubrangeEnd = Math.min(iSubrangeChild + arity, heapSize);
+		int iSubrangeLargest = iSubrangeChild;
+		int largest = array[iSubrangeChild + iStart];
+		for (int i = iSubrangeChild + 1; i < iSubrangeEnd; i++) {
+			if (array[i + iStart] > largest) {
+				largest = array[i + iStart];
+				iSubrangeLargest = i;
+			}
+		}
+		return iSubrangeLargest;
+	}
+
+	// classic top-down sift, moving a hole instead of swapping
+	private static void siftDown(final int[] array, final int iStart,
+			int iSubrange, final int heapSize, final int arity) {
+		int value = array[iSubrange + iStart];
+		int iSubrangeLargest;
+		while ((iSubrangeLargest = largestChild(array, iStart, iSubrange,
+				heapSize, arity)) >= 0
+				&& array[iSubrangeLargest + iStart] > value) {
+			array[iSubrange + iStart] = array[iSubrangeLargest + iStart];
+			iSubrange = iSubrangeLargest;
+		}
+		array[iSubrange + iStart] = value;
+	}
+
+	// places value into a heap whose root slot is a hole: walk the hole
+	// down to a leaf, then sift value up from there
+	private static void siftDownBottomUp(final int[] array, final int iStart,
+			final int value, final int heapSize, final int arity) {
+		int iSubrange = 0;
+		int iSubrangeLargest;
+		while ((iSubrangeLargest = largestChild(array, iStart, iSubrange,
+				heapSize, arity)) >= 0) {
+			array[iSubrange + iStart] = array[iSubrangeLargest + iStart];
+			iSubrange = iSubrangeLargest;
+		}
+		while (iSubrange > 0) {
+			int iSubrangeParent = (iSubrange - 1) / arity;
+			if (array[iSubrangeParent + iStart] >= value) {
+				break;
+			}
+			array[iSubrange + iStart] = array[iSubrangeParent + iStart];
+			iSubrange = iSubrangeParent;
+		}
+		array[iSubrange + iStart] = value;
+	}
+
 }
@@ -0,0 +1,29 @@
+package edu.bsu.cs.sorting.buis.integer;
+
+// sorts array[iStart..iEnd), used to plug a different small-range
+// (leaf) sort into the quicksort style engines
+@FunctionalInterface
+public interface IntRangeSorter {
+	void sort(int[] array, int iStart, int iEnd);
+
+	// the longest range this sorts; the engines reject a leaf threshold
+	// above it
+	default int maxLength() {
+		return Integer.MAX_VALUE;
+	}
+
+	// sorter, declared to sort at most maxLength elements
+	static IntRangeSorter limitedTo(int maxLength, IntRangeSorter sorter) {
+		return new IntRangeSorter() {
+			@Override
+			public void sort(int[] array, int iStart, int iEnd) {
+				sorter.sort(array, iStart, iEnd);
+			}
+
+			@Override
+			public int maxLength() {
+				return maxLength;
+			}
+		};
+	}
+}
@@ -12,10 +12,40 @@ public class IntroSort {
 // smaller than JDK 7+ DualPivotQuicksort threshold of 47
 	private static final int INSERTION_SORT_THRESHOLD = 7;
 
+    private static final IntRangeSorter DEFAULT_LEAF = InsertionSort::sort;
+
     public static void sort(int[] array) {
         sort(array, 0, array.length, 0, 8 * log2(array.length));
     }
 
+    /**
+     * Sorts with a caller-supplied leaf sort (for example
+     * SortingNetworks.LEAF) used in place of insertion sort on
+     * subarrays of at most leafThreshold elements, which must not be more
+     * than the leaf's maxLength().
+     */
+    public static void sort(int[] array, int leafThreshold, IntRangeSorter leaf) {
+        sort(array, 0, array.length, leafThreshold, leaf);
+    }
+
+    public static void sort(int[] array, int iStart, int iEnd) {
+        sort(array, iStart, iEnd, INSERTION_SORT_THRESHOLD, DEFAULT_LEAF);
+    }
+
+    public static void sort(int[] array, int iStart, int iEnd,
+            int leafThreshold, IntRangeSorter leaf) {
+        if (leafThreshold > leaf.maxLength()) {
+            throw new IllegalArgumentException("leafThreshold("
+                    + leafThreshold + ") > " + leaf.maxLength()
+                    + ", the most the leaf sorts");
+        }
+        if (iEnd - iStart < 2) {
+            return;
+        }
+        sort(array, iStart, iEnd, 0, 8 * log2(iEnd - iStart), leafThreshold,
+                leaf);
+    }
+
     /**
      * 
      * @param n
@@ -30,31 +60,40 @@ public class IntroSort {
 
     public static void sort(int[] array, int iStart, int iEnd, int depth,
             int depthThreshold) {
+        sort(array, iStart, iEnd, depth, depthThreshold,
+                INSERTION_SORT_THRESHOLD, DEFAULT_LEAF);
+    }
+
+    private static void sort(int[] array, int iStart, int iEnd, int depth,
+            int depthThreshold, int leafThreshold, IntRangeSorter leaf) {
         int length = iEnd - iStart;
-        while (length > INSERTION_SORT_THRESHOLD) {
+        while (length > leafThreshold) {
 			if (--depthThreshold <= 0) {
                 HeapSort.sort(array, iStart, iEnd);
+                return;
             }
             int iPivot = pickPivotIndex(array, iStart, iEnd);
             iPivot = partition(array, iStart, iEnd, iPivot);
             // recurse on smaller partition
             if ((iPivot - iStart) < (iEnd - (iPivot + 1)))  {
-                sort(array, iStart, iPivot, depth + 1, depthThreshold);
+                sort(array, iStart, iPivot, depth + 1, depthThreshold,
+                        leafThreshold, leaf);
                 iStart = iPivot + 1;
             } else {
-                sort(array, iPivot + 1, iEnd, depth + 1, depthThreshold);
+                sort(array, iPivot + 1, iEnd, depth + 1, depthThreshold,
+                        leafThreshold, leaf);
                 iEnd = iPivot;
             }
             length = iEnd - iStart;
         }
 
-        if (INSERTION_SORT_THRESHOLD > 1) {
-            InsertionSort.sort(array, iStart, iEnd);
+        if (length > 1) {
+            leaf.sort(array, iStart, iEnd);
         }
     }
 
     // median of 3 picker, code modified from OpenJDK6 QuickSort
-    private static int pickPivotIndex(final int[] array, int iStart, int iEnd) {
+    static int pickPivotIndex(final int[] array, int iStart, int iEnd) {
     	int len = iEnd - iStart;
 		int m = iStart + (len >> 1); // Small arrays, middle element
 		if (len > 7) {
@@ -66,7 +105,7 @@ public class IntroSort {
     }
    
 
-    private static int partition(int[] array, int iStart, int iEnd,
+    static int partition(int[] array, int iStart, int iEnd,
             int pivotIndex) {
         iEnd--;
         // swap to store pivotValue in last valid slot in sub-array
@@ -97,7 +136,7 @@ public class IntroSort {
 	/**
 	 * Returns the index of the median of the three indexed integers.
 	 */
-	private static int med3(int x[], int a, int b, int c) {
+	static int med3(int x[], int a, int b, int c) {
 		return (x[a] < x[b] ? (x[b] < x[c] ? b : x[a] < x[c] ? c : a)
 				: (x[b] > x[c] ? b : x[a] > x[c] ? c : a));
 	}
@@ -0,0 +1,198 @@
+package edu.bsu.cs.sorting.buis.integer;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// static methods for finding the k smallest elements of an array of
+// integers, or just the kth, without paying for a full sort
+public class Selection {
+
+	// prevent instantiation
+	private Selection() {
+	}
+
+	// same as IntroSort
+	private static final int INSERTION_SORT_THRESHOLD = 7;
+
+	private static final int MIN_PARALLEL_CHUNK = 1 << 13;
+
+	public static void select(int[] array, int k) {
+		select(array, 0, array.length, k);
+	}
+
+	/**
+	 * Rearranges array[iStart..iEnd) so that array[k] holds the value it
+	 * would hold if the subrange were sorted, with nothing greater before
+	 * it and nothing smaller after it (C++'s nth_element).
+	 *
+	 * This is introselect: quickselect using IntroSort's median-of-3 pivot
+	 * and partition, switching to median-of-medians pivots, which
+	 * guarantee linear time, once 2 log2(n) partitions have not found k.
+	 */
+	public static void select(int[] array, int iStart, int iEnd, int k) {
+		if (k < iStart || k >= iEnd) {
+			throw new ArrayIndexOutOfBoundsException("k(" + k
+					+ ") not in [" + iStart + ", " + iEnd + ")");
+		}
+		int budget = 2 * (32 - Integer.numberOfLeadingZeros(iEnd - iStart));
+		while (iEnd - iStart > INSERTION_SORT_THRESHOLD) {
+			int iPivot = (--budget > 0) ? IntroSort.pickPivotIndex(array,
+					iStart, iEnd) : medianOfMedians(array, iStart, iEnd);
+			iPivot = IntroSort.partition(array, iStart, iEnd, iPivot);
+			if (k < iPivot) {
+				iEnd = iPivot;
+			} else if (k == iPivot) {
+				return;
+			} else {
+				// the partition leaves copies of the pivot on its right;
+				// gather them next to it, so duplicates can't stall us
+				int iEqualEnd = gatherEqual(array, iPivot + 1, iEnd,
+						array[iPivot]);
+				if (k < iEqualEnd) {
+					return;
+				}
+				iStart = iEqualEnd;
+			}
+		}
+		InsertionSort.sort(array, iStart, iEnd);
+	}
+
+	// moves the values equal to value in array[iStart..iEnd) to its front,
+	// returning the index just past them
+	private static int gatherEqual(int[] array, int iStart, int iEnd,
+			int value) {
+		int iEqualEnd = iStart;
+		for (int i = iStart; i < iEnd; i++) {
+			if (array[i] == value) {
+				array[i] = array[iEqualEnd];
+				array[iEqualEnd++] = value;
+			}
+		}
+		return iEqualEnd;
+	}
+
+	// index of a pivot with at least 3/10 of array[iStart..iEnd) on each
+	// side: the median of the medians of groups of 5, which are gathered
+	// at the front of the subrange to find it
+	private static int medianOfMedians(int[] array, int iStart, int iEnd) {
+		int groups = 0;
+		for (int i = iStart; i < iEnd; i += 5) {
+			int groupEnd = Math.min(i + 5, iEnd);
+			InsertionSort.sort(array, i, groupEnd);
+			int median = (i + groupEnd - 1) >>> 1;
+			int temp = array[median];
+			array[median] = array[iStart + groups];
+			array[iStart + groups] = temp;
+			groups++;
+		}
+		int iMedian = iStart + groups / 2;
+		select(array, iStart, iStart + groups, iMedian);
+		return iMedian;
+	}
+
+	/**
+	 * Puts the k smallest values of array, in order, in array[0..k); the
+	 * rest are left in no particular order.
+	 */
+	public static void partialSort(int[] array, int k) {
+		int n = array.length;
+		if (k <= 0) {
+			return;
+		}
+		if (k >= n) {
+			IntroSort.sort(array);
+			return;
+		}
+		select(array, 0, n, k - 1);
+		IntroSort.sort(array, 0, k - 1);
+	}
+
+	/**
+	 * @return the k smallest values of array, in order, found with a max
+	 *         heap of k elements; array is not changed
+	 */
+	public static int[] topK(int[] array, int k) {
+		k = Math.min(k, array.length);
+		if (k <= 0) {
+			return new int[0];
+		}
+		int[] heap = heapOf(array, 0, array.length, k);
+		HeapSort.sort(heap);
+		return heap;
+	}
+
+	public static int[] parallelTopK(int[] array, int k) {
+		return parallelTopK(array, k, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Like topK, but each task of pool builds a heap of the k smallest
+	 * values in its chunk, and the heaps are merged pairwise.
+	 */
+	public static int[] parallelTopK(int[] array, int k, ForkJoinPool pool) {
+		int n = array.length;
+		k = Math.min(k, n);
+		if (k <= 0) {
+			return new int[0];
+		}
+		int gran = Math.max(Math.max(k, MIN_PARALLEL_CHUNK), n
+				/ (pool.getParallelism() << 2));
+		if (n < 2 * gran) {
+			return topK(array, k);
+		}
+		int[] heap = pool.invoke(new TopK(array, 0, n, k, gran));
+		HeapSort.sort(heap);
+		return heap;
+	}
+
+	// a max heap of the k smallest values of array[iStart..iEnd), which
+	// must hold at least k
+	private static int[] heapOf(int[] array, int iStart, int iEnd, int k) {
+		int[] heap = Arrays.copyOfRange(array, iStart, iStart + k);
+		HeapSort.buildMaxHeap(heap, 0, k);
+		offer(heap, array, iStart + k, iEnd);
+		return heap;
+	}
+
+	// keeps in heap the smallest heap.length of its values and those of
+	// array[iStart..iEnd)
+	private static void offer(int[] heap, int[] array, int iStart, int iEnd) {
+		int k = heap.length;
+		for (int i = iStart; i < iEnd; i++) {
+			if (array[i] < heap[0]) {
+				heap[0] = array[i];
+				HeapSort.maxHeapify(heap, 0, k, 0, k);
+			}
+		}
+	}
+
+	static final class TopK extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+		final int[] array;
+		final int iStart, iEnd, k, gran;
+
+		TopK(int[] array, int iStart, int iEnd, int k, int gran) {
+			this.array = array;
+			this.iStart = iStart;
+			this.iEnd = iEnd;
+			this.k = k;
+			this.gran = gran;
+		}
+
+		@Override
+		protected int[] compute() {
+			// every chunk holds at least gran >= k values
+			if (iEnd - iStart < 2 * gran) {
+				return heapOf(array, iStart, iEnd, k);
+			}
+			int iMiddle = (iStart + iEnd) >>> 1;
+			TopK left = new TopK(array, iStart, iMiddle, k, gran);
+			left.fork();
+			int[] right = new TopK(array, iMiddle, iEnd, k, gran).compute();
+			int[] heap = left.join();
+			offer(heap, right, 0, k);
+			return heap;
+		}
+	}
+}
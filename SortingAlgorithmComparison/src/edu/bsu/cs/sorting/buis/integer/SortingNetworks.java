@@ -0,0 +1,123 @@
+package edu.bsu.cs.sorting.buis.integer;
+
+/**
+ * Sorting networks for 2 to MAX_SIZE ints or longs. Each comparator is a
+ * compare-exchange done with Math.min and Math.max, which the JIT turns
+ * into conditional moves, so no branches depend on the data.
+ *
+ * Sizes 2 through 8 use networks with the fewest possible comparators.
+ * Larger sizes use Batcher's odd-even merge sort network for the next
+ * power of two, with comparators that touch the missing positions
+ * dropped (they would only ever compare against +infinity).
+ */
+public class SortingNetworks {
+
+	// prevent instantiation
+	private SortingNetworks() {
+	}
+
+	public static final int MAX_SIZE = 32;
+
+	/**
+	 * The int network as a leaf sort for IntroSort and DualPivotQuicksort,
+	 * which reject leaf thresholds above MAX_SIZE with it.
+	 */
+	public static final IntRangeSorter LEAF = IntRangeSorter.limitedTo(
+			MAX_SIZE, SortingNetworks::sort);
+
+	// NETWORKS[n] holds comparator pairs (i, j), i < j, flattened
+	private static final int[][] NETWORKS = new int[MAX_SIZE + 1][];
+
+	static {
+		NETWORKS[0] = new int[0];
+		NETWORKS[1] = new int[0];
+		NETWORKS[2] = new int[] { 0, 1 };
+		NETWORKS[3] = new int[] { 0, 2, 0, 1, 1, 2 };
+		NETWORKS[4] = new int[] { 0, 2, 1, 3, 0, 1, 2, 3, 1, 2 };
+		NETWORKS[5] = new int[] { 0, 3, 1, 4, 0, 2, 1, 3, 0, 1, 2, 4, 1, 2,
+				3, 4, 2, 3 };
+		NETWORKS[6] = new int[] { 0, 5, 1, 3, 2, 4, 1, 2, 3, 4, 0, 3, 2, 5,
+				0, 1, 2, 3, 4, 5, 1, 2, 3, 4 };
+		NETWORKS[7] = new int[] { 0, 6, 2, 3, 4, 5, 0, 2, 1, 4, 3, 6, 0, 1,
+				2, 5, 3, 4, 1, 2, 4, 6, 2, 3, 4, 5, 1, 2, 3, 4, 5, 6 };
+		NETWORKS[8] = new int[] { 0, 2, 1, 3, 4, 6, 5, 7, 0, 4, 1, 5, 2, 6,
+				3, 7, 0, 1, 2, 3, 4, 5, 6, 7, 2, 4, 3, 5, 1, 4, 3, 6, 1, 2,
+				3, 4, 5, 6 };
+		for (int n = 9; n <= MAX_SIZE; n++) {
+			NETWORKS[n] = oddEvenMergeNetwork(n);
+		}
+	}
+
+	// Batcher's odd-even merge sort for the next power of two above n,
+	// keeping only the comparators entirely inside [0, n)
+	private static int[] oddEvenMergeNetwork(int n) {
+		int size = Integer.highestOneBit(n - 1) << 1;
+		int[] pairs = new int[size * size];
+		int count = 0;
+		for (int p = 1; p < size; p <<= 1) {
+			for (int k = p; k >= 1; k >>= 1) {
+				for (int j = k % p; j + k < size; j += 2 * k) {
+					for (int i = 0; i < k; i++) {
+						int lo = i + j, hi = i + j + k;
+						if ((lo / (2 * p)) == (hi / (2 * p)) && hi < n) {
+							pairs[count++] = lo;
+							pairs[count++] = hi;
+						}
+					}
+				}
+			}
+		}
+		return java.util.Arrays.copyOf(pairs, count);
+	}
+
+	/**
+	 * @return the number of comparators used to sort n elements
+	 */
+	public static int comparators(int n) {
+		return NETWORKS[n].length / 2;
+	}
+
+	public static void sort(int[] array) {
+		sort(array, 0, array.length);
+	}
+
+	public static void sort(int[] array, int iStart, int iEnd) {
+		int length = iEnd - iStart;
+		if (length < 2) {
+			return;
+		}
+		if (length > MAX_SIZE) {
+			throw new IllegalArgumentException("network sorts at most "
+					+ MAX_SIZE + " elements, not " + length);
+		}
+		int[] network = NETWORKS[length];
+		for (int c = 0; c < network.length; c += 2) {
+			int i = network[c] + iStart, j = network[c + 1] + iStart;
+			int x = array[i], y = array[j];
+			array[i] = Math.min(x, y);
+			array[j] = Math.max(x, y);
+		}
+	}
+
+	public static void sort(long[] array) {
+		sort(array, 0, array.length);
+	}
+
+	public static void sort(long[] array, int iStart, int iEnd) {
+		int length = iEnd - iStart;
+		if (length < 2) {
+			return;
+		}
+		if (length > MAX_SIZE) {
+			throw new IllegalArgumentException("network sorts at most "
+					+ MAX_SIZE + " elements, not " + length);
+		}
+		int[] network = NETWORKS[length];
+		for (int c = 0; c < network.length; c += 2) {
+			int i = network[c] + iStart, j = network[c + 1] + iStart;
+			long x = array[i], y = array[j];
+			array[i] = Math.min(x, y);
+			array[j] = Math.max(x, y);
+		}
+	}
+}
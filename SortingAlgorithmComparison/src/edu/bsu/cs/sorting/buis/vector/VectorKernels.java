@@ -0,0 +1,280 @@
+package edu.bsu.cs.sorting.buis.vector;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import edu.bsu.cs.sorting.buis.integer.HeapSort;
+
+// The only class that touches jdk.incubator.vector. VectorSort checks
+// that the module is present before this class is ever loaded.
+final class VectorKernels {
+
+	// prevent instantiation
+	private VectorKernels() {
+	}
+
+	// the partition shuffle table has 2^lanes entries, so anything
+	// wider than 256 bits (8 ints) is capped at 256
+	static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED
+			.vectorBitSize() > 256 ? IntVector.SPECIES_256
+			: IntVector.SPECIES_PREFERRED;
+
+	static final int LANES = SPECIES.length();
+
+	// largest subarray handed to the bitonic network
+	static final int NETWORK_SIZE = VectorSort.NETWORK_SIZE;
+
+	// PARTITION_SHUFFLES[m] moves the lanes whose bits are set in m to the
+	// front, in order, followed by the remaining lanes. JDK 17 has no
+	// IntVector.compress, so this table stands in for it.
+	private static final VectorShuffle<Integer>[] PARTITION_SHUFFLES;
+
+	// XOR_SHUFFLES[j] swaps each lane with lane ^ j
+	private static final VectorShuffle<Integer>[] XOR_SHUFFLES;
+
+	// LOWER_MASKS[j] selects lanes whose index has bit j clear
+	private static final VectorMask<Integer>[] LOWER_MASKS;
+
+	// INNER_MASKS[k][j] selects the lanes that keep the minimum at the
+	// bitonic step (k, j) when k is smaller than a vector
+	private static final VectorMask<Integer>[][] INNER_MASKS;
+
+	static {
+		@SuppressWarnings("unchecked")
+		VectorShuffle<Integer>[] partition = (VectorShuffle<Integer>[])
+				new VectorShuffle<?>[1 << LANES];
+		int[] indexes = new int[LANES];
+		for (int m = 0; m < partition.length; m++) {
+			int next = 0;
+			for (int lane = 0; lane < LANES; lane++) {
+				if ((m & (1 << lane)) != 0) {
+					indexes[next++] = lane;
+				}
+			}
+			for (int lane = 0; lane < LANES; lane++) {
+				if ((m & (1 << lane)) == 0) {
+					indexes[next++] = lane;
+				}
+			}
+			partition[m] = VectorShuffle.fromArray(SPECIES, indexes, 0);
+		}
+		PARTITION_SHUFFLES = partition;
+
+		@SuppressWarnings("unchecked")
+		VectorShuffle<Integer>[] xor = (VectorShuffle<Integer>[])
+				new VectorShuffle<?>[LANES];
+		@SuppressWarnings("unchecked")
+		VectorMask<Integer>[] lower = (VectorMask<Integer>[])
+				new VectorMask<?>[LANES];
+		@SuppressWarnings("unchecked")
+		VectorMask<Integer>[][] inner = (VectorMask<Integer>[][])
+				new VectorMask<?>[LANES][LANES];
+		boolean[] bits = new boolean[LANES];
+		for (int j = 1; j < LANES; j <<= 1) {
+			for (int lane = 0; lane < LANES; lane++) {
+				indexes[lane] = lane ^ j;
+				bits[lane] = (lane & j) == 0;
+			}
+			xor[j] = VectorShuffle.fromArray(SPECIES, indexes, 0);
+			lower[j] = VectorMask.fromArray(SPECIES, bits, 0);
+			for (int k = j << 1; k < LANES; k <<= 1) {
+				for (int lane = 0; lane < LANES; lane++) {
+					bits[lane] = ((lane & j) == 0) == ((lane & k) == 0);
+				}
+				inner[k][j] = VectorMask.fromArray(SPECIES, bits, 0);
+			}
+		}
+		XOR_SHUFFLES = xor;
+		LOWER_MASKS = lower;
+		INNER_MASKS = inner;
+	}
+
+	// scratch needs room for the network and for the partition leftovers
+	static int[] newScratch() {
+		return new int[Math.max(NETWORK_SIZE, 3 * LANES)];
+	}
+
+	static void sort(int[] a, int lo, int hi, int[] scratch) {
+		int length = hi - lo;
+		if (length < 2) {
+			return;
+		}
+		sort(a, lo, hi, 2 * (32 - Integer.numberOfLeadingZeros(length)),
+				scratch);
+	}
+
+	// introsort: vector partitioning, network leaves, heap sort fallback
+	private static void sort(int[] a, int lo, int hi, int depthThreshold,
+			int[] scratch) {
+		while (hi - lo > NETWORK_SIZE) {
+			if (--depthThreshold <= 0) {
+				HeapSort.sort(a, lo, hi);
+				return;
+			}
+			int pivot = med3(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+			int iLess = partition(a, lo, hi, pivot, scratch);
+			int iGreater = iLess;
+			if (iLess == lo) {
+				// nothing was less than the pivot, so split off the keys
+				// equal to it to guarantee progress
+				iGreater = (pivot == Integer.MAX_VALUE) ? hi : partition(a,
+						lo, hi, pivot + 1, scratch);
+			}
+			// recurse on smaller partition
+			if (iLess - lo < hi - iGreater) {
+				sort(a, lo, iLess, depthThreshold, scratch);
+				lo = iGreater;
+			} else {
+				sort(a, iGreater, hi, depthThreshold, scratch);
+				hi = iLess;
+			}
+		}
+		sortNetwork(a, lo, hi, scratch);
+	}
+
+	private static int med3(int x, int y, int z) {
+		return (x < y ? (y < z ? y : x < z ? z : x) : (y > z ? y : x > z ? z
+				: x));
+	}
+
+	/**
+	 * Partitions a[lo..hi) in place so that a[lo..p) < pivot <= a[p..hi)
+	 * and returns p.
+	 *
+	 * The first and last vectors are held in registers, leaving a gap of
+	 * one vector at each end. Each step loads a vector from whichever side
+	 * has the smaller gap, then stores it (permuted so the lanes below the
+	 * pivot come first) once at the left write position and once ending at
+	 * the right write position. The write positions then advance by the
+	 * number of lanes that really belong on each side.
+	 */
+	static int partition(int[] a, int lo, int hi, int pivot, int[] scratch) {
+		final int lanes = LANES;
+		if (hi - lo < 2 * lanes) {
+			return partitionScalar(a, lo, hi, pivot, scratch);
+		}
+		IntVector first = IntVector.fromArray(SPECIES, a, lo);
+		IntVector last = IntVector.fromArray(SPECIES, a, hi - lanes);
+		int readLeft = lo + lanes, readRight = hi - lanes;
+		int writeLeft = lo, writeRight = hi;
+
+		while (readRight - readLeft >= lanes) {
+			IntVector v;
+			if (readLeft - writeLeft <= writeRight - readRight) {
+				v = IntVector.fromArray(SPECIES, a, readLeft);
+				readLeft += lanes;
+			} else {
+				readRight -= lanes;
+				v = IntVector.fromArray(SPECIES, a, readRight);
+			}
+			int less = store(a, v, pivot, writeLeft, writeRight);
+			writeLeft += less;
+			writeRight -= lanes - less;
+		}
+
+		// place the unread leftovers, then the two saved vectors, by hand
+		int n = readRight - readLeft;
+		System.arraycopy(a, readLeft, scratch, 0, n);
+		first.intoArray(scratch, n);
+		last.intoArray(scratch, n + lanes);
+		n += 2 * lanes;
+		for (int i = 0; i < n; i++) {
+			int x = scratch[i];
+			if (x < pivot) {
+				a[writeLeft++] = x;
+			} else {
+				a[--writeRight] = x;
+			}
+		}
+		return writeLeft;
+	}
+
+	private static int store(int[] a, IntVector v, int pivot, int writeLeft,
+			int writeRight) {
+		VectorMask<Integer> less = v.compare(VectorOperators.LT, pivot);
+		IntVector permuted = v.rearrange(PARTITION_SHUFFLES[(int) less
+				.toLong()]);
+		permuted.intoArray(a, writeLeft);
+		permuted.intoArray(a, writeRight - LANES);
+		return less.trueCount();
+	}
+
+	private static int partitionScalar(int[] a, int lo, int hi, int pivot,
+			int[] scratch) {
+		int n = hi - lo;
+		System.arraycopy(a, lo, scratch, 0, n);
+		int writeLeft = lo, writeRight = hi;
+		for (int i = 0; i < n; i++) {
+			int x = scratch[i];
+			if (x < pivot) {
+				a[writeLeft++] = x;
+			} else {
+				a[--writeRight] = x;
+			}
+		}
+		return writeLeft;
+	}
+
+	/**
+	 * Sorts a[lo..hi), at most NETWORK_SIZE elements, with a bitonic
+	 * sorting network. The range is copied into scratch and padded with
+	 * Integer.MAX_VALUE to a power of two no smaller than one vector.
+	 * Compare-exchanges between elements a vector or more apart are done
+	 * a whole vector at a time with min/max; those within a vector use a
+	 * lane swizzle, min/max and a blend.
+	 */
+	static void sortNetwork(int[] a, int lo, int hi, int[] scratch) {
+		final int lanes = LANES;
+		int length = hi - lo;
+		if (length < 2) {
+			return;
+		}
+		int n = Math.max(lanes, Integer.highestOneBit(length - 1) << 1);
+		System.arraycopy(a, lo, scratch, 0, length);
+		for (int i = length; i < n; i++) {
+			scratch[i] = Integer.MAX_VALUE;
+		}
+
+		for (int k = 2; k <= n; k <<= 1) {
+			for (int j = k >>> 1; j > 0; j >>>= 1) {
+				if (j >= lanes) {
+					for (int i = 0; i < n; i += lanes) {
+						if ((i & j) != 0) {
+							continue;
+						}
+						IntVector x = IntVector.fromArray(SPECIES, scratch, i);
+						IntVector y = IntVector.fromArray(SPECIES, scratch, i
+								+ j);
+						IntVector min = x.min(y), max = x.max(y);
+						if ((i & k) == 0) {
+							min.intoArray(scratch, i);
+							max.intoArray(scratch, i + j);
+						} else {
+							max.intoArray(scratch, i);
+							min.intoArray(scratch, i + j);
+						}
+					}
+				} else {
+					VectorShuffle<Integer> swap = XOR_SHUFFLES[j];
+					for (int i = 0; i < n; i += lanes) {
+						IntVector x = IntVector.fromArray(SPECIES, scratch, i);
+						IntVector y = x.rearrange(swap);
+						VectorMask<Integer> keepMin;
+						if (k < lanes) {
+							keepMin = INNER_MASKS[k][j];
+						} else if ((i & k) == 0) {
+							keepMin = LOWER_MASKS[j];
+						} else {
+							keepMin = LOWER_MASKS[j].not();
+						}
+						x.max(y).blend(x.min(y), keepMin).intoArray(scratch, i);
+					}
+				}
+			}
+		}
+		System.arraycopy(scratch, 0, a, lo, length);
+	}
+}
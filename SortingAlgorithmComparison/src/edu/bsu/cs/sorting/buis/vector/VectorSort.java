@@ -0,0 +1,95 @@
+package edu.bsu.cs.sorting.buis.vector;
+
+import edu.bsu.cs.sorting.buis.integer.InsertionSort;
+import edu.bsu.cs.sorting.buis.integer.IntRangeSorter;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+
+/**
+ * IntroSort for int[] using the incubating Vector API: partitioning is
+ * done a vector at a time, and subarrays of up to NETWORK_SIZE elements
+ * are finished by a vectorized bitonic sorting network instead of an
+ * insertion sort.
+ *
+ * The JVM must be started with --add-modules jdk.incubator.vector for the
+ * vector code to be used. Without it, or when the preferred species has
+ * fewer than 4 int lanes, the scalar DualPivotQuicksort and InsertionSort
+ * are used instead.
+ */
+public class VectorSort {
+
+	// prevent instantiation
+	private VectorSort() {
+	}
+
+	/**
+	 * Largest subarray that sortSmall sorts with a single network.
+	 */
+	public static final int NETWORK_SIZE = 64;
+
+	private static final boolean SUPPORTED = isModulePresent()
+			&& VectorKernels.LANES >= 4;
+
+	// must not touch VectorKernels, which would fail to load
+	private static boolean isModulePresent() {
+		return ModuleLayer.boot().findModule("jdk.incubator.vector")
+				.isPresent();
+	}
+
+	public static boolean isSupported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * @return width in bits of the vectors in use, or 0 if the scalar
+	 *         fallback is in use
+	 */
+	public static int vectorBitSize() {
+		return SUPPORTED ? VectorKernels.SPECIES.vectorBitSize() : 0;
+	}
+
+	public static void sort(int[] array) {
+		sort(array, 0, array.length);
+	}
+
+	public static void sort(int[] array, int iStart, int iEnd) {
+		if (SUPPORTED) {
+			VectorKernels.sort(array, iStart, iEnd, VectorKernels.newScratch());
+		} else {
+			DualPivotQuicksort.sort(array, iStart, iEnd - 1);
+		}
+	}
+
+	/**
+	 * A leaf sort of up to NETWORK_SIZE elements for the leaf sort
+	 * overloads of IntroSort and DualPivotQuicksort, with a scratch array
+	 * of its own that every call reuses. Not thread-safe: give each
+	 * sorting thread its own.
+	 */
+	public static IntRangeSorter leafSorter() {
+		int[] scratch = SUPPORTED ? VectorKernels.newScratch() : null;
+		return IntRangeSorter.limitedTo(NETWORK_SIZE, (array, iStart,
+				iEnd) -> sortSmall(array, iStart, iEnd, scratch));
+	}
+
+	/**
+	 * Sorts a short subarray, suitable as the leaf of another sort.
+	 *
+	 * @param scratch
+	 *            at least NETWORK_SIZE ints, or null to allocate one
+	 */
+	public static void sortSmall(int[] array, int iStart, int iEnd,
+			int[] scratch) {
+		if (iEnd - iStart > NETWORK_SIZE) {
+			throw new IllegalArgumentException("more than " + NETWORK_SIZE
+					+ " elements");
+		}
+		if (SUPPORTED) {
+			if (scratch == null || scratch.length < NETWORK_SIZE) {
+				scratch = VectorKernels.newScratch();
+			}
+			VectorKernels.sortNetwork(array, iStart, iEnd, scratch);
+		} else {
+			InsertionSort.sort(array, iStart, iEnd);
+		}
+	}
+}
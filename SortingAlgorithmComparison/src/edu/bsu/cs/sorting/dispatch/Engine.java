@@ -0,0 +1,54 @@
+package edu.bsu.cs.sorting.dispatch;
+
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.buis.integer.HeapSort;
+import edu.bsu.cs.sorting.buis.integer.InsertionSort;
+import edu.bsu.cs.sorting.buis.integer.IntroSort;
+import edu.bsu.cs.sorting.buis.vector.VectorSort;
+import edu.bsu.cs.sorting.javautil.integer.BottomUpMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.EngineeredQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.LegacyMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.MultiwayMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelTimSort;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * The int[] sorts the dispatcher can route to.
+ */
+public enum Engine {
+	INSERTION_SORT(InsertionSort::sort, 1 << 10),
+	HEAP_SORT(HeapSort::sort),
+	INTRO_SORT(IntroSort::sort),
+	VECTOR_SORT(VectorSort::sort),
+	DUAL_PIVOT_QUICKSORT(DualPivotQuicksort::sort),
+	ADAPTIVE_DUAL_PIVOT_QUICKSORT(DualPivotQuicksort::sortAdaptive),
+	COUNTING_SORT(DualPivotQuicksort::sortCounting),
+	ENGINEERED_QUICKSORT(EngineeredQuicksort::sort),
+	LEGACY_MERGE_SORT(LegacyMergeSort::sort),
+	BOTTOM_UP_MERGE_SORT(BottomUpMergeSort::sort),
+	MULTIWAY_MERGE_SORT(MultiwayMergeSort::sort),
+	TIM_SORT(TimSort::sort),
+	PARALLEL_DUAL_PIVOT_QUICKSORT(ParallelDualPivotQuicksort::sort),
+	PARALLEL_TIM_SORT(ParallelTimSort::sort),
+	PARALLEL_BOTTOM_UP_MERGE_SORT(BottomUpMergeSort::parallelSort);
+
+	private final Consumer<int[]> sorter;
+	// longest array worth trying this engine on
+	public final int maxLength;
+
+	private Engine(Consumer<int[]> sorter) {
+		this(sorter, Integer.MAX_VALUE);
+	}
+
+	private Engine(Consumer<int[]> sorter, int maxLength) {
+		this.sorter = sorter;
+		this.maxLength = maxLength;
+	}
+
+	public void sort(int[] a) {
+		sorter.accept(a);
+	}
+}
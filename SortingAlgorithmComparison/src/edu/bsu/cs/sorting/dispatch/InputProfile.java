@@ -0,0 +1,126 @@
+package edu.bsu.cs.sorting.dispatch;
+
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+
+/**
+ * A cheap look at an int[] before sorting it. Arrays longer than
+ * SAMPLE_SIZE are sampled as STRETCHES evenly spaced stretches of
+ * consecutive elements, so that run detection still sees neighbors, rather
+ * than as scattered single elements.
+ */
+public final class InputProfile {
+
+	public static final int STRETCHES = 32;
+	public static final int STRETCH_LENGTH = 32;
+	public static final int SAMPLE_SIZE = STRETCHES * STRETCH_LENGTH;
+
+	// fraction of sampled neighbors in order needed to call the input RUNS
+	private static final double RUN_FRACTION = 0.9;
+	// duplicate fraction needed to call the input FEW_UNIQUE
+	private static final double DUPLICATE_FRACTION = 0.5;
+
+	public final int length;
+	// fraction of sampled neighbors that are in the order of their run
+	public final double presortedness;
+	// fraction of the sample that repeats an earlier sampled value
+	public final double duplicateRatio;
+	// smallest and largest sampled values (estimates unless fully scanned)
+	public final int min;
+	public final int max;
+
+	private InputProfile(int length, double presortedness,
+			double duplicateRatio, int min, int max) {
+		this.length = length;
+		this.presortedness = presortedness;
+		this.duplicateRatio = duplicateRatio;
+		this.min = min;
+		this.max = max;
+	}
+
+	public static InputProfile of(int[] a) {
+		int n = a.length;
+		if (n < 2) {
+			return new InputProfile(n, 1.0, 0.0, n == 0 ? 0 : a[0], n == 0 ? 0
+					: a[0]);
+		}
+		int stretches, stretchLength;
+		if (n <= SAMPLE_SIZE) {
+			stretches = 1;
+			stretchLength = n;
+		} else {
+			stretches = STRETCHES;
+			stretchLength = STRETCH_LENGTH;
+		}
+		int[] sample = new int[stretches * stretchLength];
+		long step = (n - stretchLength) / Math.max(1, stretches - 1);
+		int ordered = 0, pairs = 0;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for (int s = 0; s < stretches; s++) {
+			int start = (int) (s * step);
+			System.arraycopy(a, start, sample, s * stretchLength, stretchLength);
+			ordered += orderedPairs(a, start, start + stretchLength);
+			pairs += stretchLength - 1;
+			for (int i = start; i < start + stretchLength; i++) {
+				min = Math.min(min, a[i]);
+				max = Math.max(max, a[i]);
+			}
+		}
+		DualPivotQuicksort.sort(sample);
+		int duplicates = 0;
+		for (int i = 1; i < sample.length; i++) {
+			if (sample[i] == sample[i - 1]) {
+				duplicates++;
+			}
+		}
+		return new InputProfile(n, (double) ordered / pairs,
+				(double) duplicates / sample.length, min, max);
+	}
+
+	// Counts the neighbors in a[lo..hi) that continue the current run, as
+	// TimSort.countRunAndMakeAscending would see it: equal keys continue
+	// either kind of run, and a new run starts where the direction breaks.
+	private static int orderedPairs(int[] a, int lo, int hi) {
+		int ordered = 0;
+		int direction = 0;
+		for (int i = lo + 1; i < hi; i++) {
+			int cmp = Integer.compare(a[i], a[i - 1]);
+			if (cmp == 0 || cmp == direction) {
+				ordered++;
+			} else if (direction == 0) {
+				direction = cmp;
+				ordered++;
+			} else {
+				// this pair starts a new run
+				direction = 0;
+			}
+		}
+		return ordered;
+	}
+
+	/**
+	 * @return an estimate of max - min + 1, from the sample
+	 */
+	public long range() {
+		return (long) max - min + 1;
+	}
+
+	public InputShape shape() {
+		if (presortedness >= RUN_FRACTION) {
+			return InputShape.RUNS;
+		}
+		if (range() <= length) {
+			return InputShape.NARROW_RANGE;
+		}
+		if (duplicateRatio >= DUPLICATE_FRACTION) {
+			return InputShape.FEW_UNIQUE;
+		}
+		return InputShape.RANDOM;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"length=%d presortedness=%.3f duplicates=%.3f range=%d %s",
+				length, presortedness, duplicateRatio, range(), shape());
+	}
+}
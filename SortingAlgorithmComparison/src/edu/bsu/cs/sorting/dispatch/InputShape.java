@@ -0,0 +1,15 @@
+package edu.bsu.cs.sorting.dispatch;
+
+/**
+ * The kinds of input the dispatcher tells apart, checked in this order.
+ */
+public enum InputShape {
+	// mostly made of long ascending or descending runs
+	RUNS,
+	// value range no wider than the array is long
+	NARROW_RANGE,
+	// at least half the sampled values repeat
+	FEW_UNIQUE,
+	// none of the above
+	RANDOM
+}
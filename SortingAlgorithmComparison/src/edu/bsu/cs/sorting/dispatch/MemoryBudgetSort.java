@@ -0,0 +1,142 @@
+package edu.bsu.cs.sorting.dispatch;
+
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * Sorts an int[] with the fastest engine whose scratch space fits a budget
+ * of extra bytes, for callers that can't afford the n-int workspace of the
+ * parallel sorts:
+ *
+ * - a full workspace (4n bytes) and more than one worker: the ForkJoin
+ * ParallelDualPivotQuicksort, whose counting sort of narrow ranges only
+ * runs when its histograms fit in the same n ints;
+ * - a full workspace: the adaptive DualPivotQuicksort, which merges
+ * presorted runs in a workspace of up to n ints and otherwise sorts in place;
+ * - n/2 ints (2n bytes) on input made of long runs: TimSort, handed an
+ * n/2-int tmp array up front so it never grows it;
+ * - anything less, or input without runs: IntroSort, in place; it
+ * recurses only on the smaller part, so at most log2(n) deep, and falls
+ * back to HeapSort after 8 log2(n) levels of partitioning.
+ *
+ * Arrays no longer than RoutingTable.SMALL_LENGTH go to insertion sort.
+ * The budget covers the scratch arrays the sorts allocate, not stack
+ * frames, TimSort's run stack or ForkJoin task objects, which come to a few
+ * KB. Every sort returns a Choice saying which engine ran, the most it could
+ * allocate, and why it was picked.
+ */
+public final class MemoryBudgetSort {
+
+	// shorter arrays are not worth splitting across workers
+	private static final int MIN_PARALLEL_LENGTH = 1 << 13;
+
+	// sampled the way InputProfile samples, but reading a in place, since a
+	// copied sample could exceed a small budget
+	private static final int STRETCHES = InputProfile.STRETCHES;
+	private static final int STRETCH_LENGTH = InputProfile.STRETCH_LENGTH;
+	private static final double RUN_FRACTION = 0.9;
+
+	// prevent instantiation
+	private MemoryBudgetSort() {
+	}
+
+	public static final class Choice {
+		public final Engine engine;
+		// the most the engine allocates for this array
+		public final long extraBytes;
+		public final String reason;
+
+		Choice(Engine engine, long extraBytes, String reason) {
+			this.engine = engine;
+			this.extraBytes = extraBytes;
+			this.reason = reason;
+		}
+
+		@Override
+		public String toString() {
+			return engine + " (" + extraBytes + " extra bytes): " + reason;
+		}
+	}
+
+	/**
+	 * Sorts a using at most maxExtraBytes of scratch arrays.
+	 *
+	 * @return the engine used and why
+	 */
+	public static Choice sort(int[] a, long maxExtraBytes) {
+		Choice choice = choose(a, maxExtraBytes);
+		if (choice.engine == Engine.TIM_SORT) {
+			int n = a.length;
+			TimSort.sort(a, 0, n, new int[n / 2], 0, n / 2);
+		} else {
+			choice.engine.sort(a);
+		}
+		return choice;
+	}
+
+	public static Choice choose(int[] a, long maxExtraBytes) {
+		if (maxExtraBytes < 0) {
+			throw new IllegalArgumentException("maxExtraBytes("
+					+ maxExtraBytes + ") < 0");
+		}
+		int n = a.length;
+		long full = (long) Integer.BYTES * n;
+		long half = (long) Integer.BYTES * (n / 2);
+		int p = ForkJoinPool.getCommonPoolParallelism();
+		if (n <= RoutingTable.SMALL_LENGTH) {
+			return new Choice(Engine.INSERTION_SORT, 0, n + " <= "
+					+ RoutingTable.SMALL_LENGTH + " elements sort in place");
+		}
+		if (maxExtraBytes >= full && p > 1 && n > MIN_PARALLEL_LENGTH) {
+			return new Choice(Engine.PARALLEL_DUAL_PIVOT_QUICKSORT, full,
+					"a full " + full + " byte workspace fits and " + p
+							+ " workers are available");
+		}
+		if (maxExtraBytes >= full) {
+			return new Choice(Engine.ADAPTIVE_DUAL_PIVOT_QUICKSORT, full,
+					"a full " + full + " byte workspace fits" + (p > 1 ? ""
+							: " and only one worker is available"));
+		}
+		if (maxExtraBytes >= half) {
+			if (mostlyRuns(a)) {
+				return new Choice(Engine.TIM_SORT, half, "an n/2 " + half
+						+ " byte merge array fits and the input is made of"
+						+ " runs");
+			}
+			return new Choice(Engine.INTRO_SORT, 0, "an n/2 " + half
+					+ " byte merge array fits, but the input has no runs"
+					+ " for merging to exploit");
+		}
+		return new Choice(Engine.INTRO_SORT, 0, maxExtraBytes
+				+ " bytes is less than an n/2 " + half + " byte merge array");
+	}
+
+	// true if most sampled neighbors are in the order of their stretch,
+	// ascending or descending, as InputShape.RUNS
+	private static boolean mostlyRuns(int[] a) {
+		int n = a.length;
+		int stretches = 1, stretchLength = n;
+		if (n > STRETCHES * STRETCH_LENGTH) {
+			stretches = STRETCHES;
+			stretchLength = STRETCH_LENGTH;
+		}
+		long step = (n - stretchLength) / Math.max(1, stretches - 1);
+		int ordered = 0, pairs = 0;
+		for (int s = 0; s < stretches; s++) {
+			int start = (int) (s * step);
+			int ascending = 0, descending = 0;
+			for (int i = start + 1; i < start + stretchLength; i++) {
+				if (a[i - 1] <= a[i]) {
+					ascending++;
+				}
+				if (a[i - 1] >= a[i]) {
+					descending++;
+				}
+			}
+			ordered += Math.max(ascending, descending);
+			pairs += stretchLength - 1;
+		}
+		return ordered >= RUN_FRACTION * pairs;
+	}
+}
@@ -0,0 +1,164 @@
+package edu.bsu.cs.sorting.dispatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import edu.bsu.cs.sorting.tuning.HardwareInfo;
+
+/**
+ * Which Engine to use for each InputShape and array length. Timings are
+ * recorded per (shape, length, engine) and the fastest engine at each
+ * recorded length becomes the route for that length and longer, up to the
+ * next recorded length. Shapes with nothing recorded use a fixed
+ * heuristic.
+ */
+public final class RoutingTable {
+
+	// arrays this short go straight to insertion sort
+	public static final int SMALL_LENGTH = 47;
+
+	// random arrays at least this long go parallel, when heuristic
+	private static final int PARALLEL_LENGTH = 1 << 17;
+
+	private static final String HARDWARE = "hardware";
+
+	private final EnumMap<InputShape, TreeMap<Integer, Engine>> routes = new EnumMap<>(
+			InputShape.class);
+	private final EnumMap<InputShape, TreeMap<Integer, EnumMap<Engine, Double>>> timings = new EnumMap<>(
+			InputShape.class);
+	private final int processors;
+
+	public RoutingTable() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public RoutingTable(int processors) {
+		this.processors = processors;
+		for (InputShape shape : InputShape.values()) {
+			routes.put(shape, new TreeMap<>());
+			timings.put(shape, new TreeMap<>());
+		}
+	}
+
+	/**
+	 * Records the time one engine took on input of the given shape and
+	 * length, rerouting that length if the engine is now the fastest.
+	 */
+	public synchronized void record(InputShape shape, int length,
+			Engine engine, double seconds) {
+		EnumMap<Engine, Double> times = timings.get(shape).computeIfAbsent(
+				length, k -> new EnumMap<>(Engine.class));
+		times.merge(engine, seconds, Math::min);
+		Engine fastest = null;
+		double best = Double.MAX_VALUE;
+		for (Map.Entry<Engine, Double> entry : times.entrySet()) {
+			if (entry.getValue() < best) {
+				best = entry.getValue();
+				fastest = entry.getKey();
+			}
+		}
+		if (fastest != null) {
+			routes.get(shape).put(length, fastest);
+		}
+	}
+
+	public synchronized Engine route(InputShape shape, int length) {
+		if (length <= SMALL_LENGTH) {
+			return Engine.INSERTION_SORT;
+		}
+		TreeMap<Integer, Engine> learned = routes.get(shape);
+		Map.Entry<Integer, Engine> entry = learned.floorEntry(length);
+		if (entry == null) {
+			entry = learned.ceilingEntry(length);
+		}
+		Engine engine = (entry == null) ? heuristic(shape, length) : entry
+				.getValue();
+		return (length <= engine.maxLength) ? engine : heuristic(shape,
+				length);
+	}
+
+	private Engine heuristic(InputShape shape, int length) {
+		switch (shape) {
+		case RUNS:
+			return Engine.TIM_SORT;
+		case NARROW_RANGE:
+			// a range of at most the length keeps the histogram no larger
+			// than the array
+			return Engine.COUNTING_SORT;
+		case RANDOM:
+			if (processors > 1 && length >= PARALLEL_LENGTH) {
+				return Engine.PARALLEL_DUAL_PIVOT_QUICKSORT;
+			}
+			return Engine.DUAL_PIVOT_QUICKSORT;
+		default:
+			// the three way partitioning copes well with repeated keys
+			return Engine.DUAL_PIVOT_QUICKSORT;
+		}
+	}
+
+	/**
+	 * Writes the learned routes, keyed like "RANDOM.1000000", along with
+	 * the hardware they were learned on.
+	 */
+	public synchronized void store(Path file, HardwareInfo hardware)
+			throws IOException {
+		Properties props = new Properties();
+		props.setProperty(HARDWARE, hardware.signature());
+		for (InputShape shape : InputShape.values()) {
+			for (Map.Entry<Integer, Engine> entry : routes.get(shape)
+					.entrySet()) {
+				props.setProperty(shape + "." + entry.getKey(), entry
+						.getValue().name());
+			}
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			props.store(out, "sort routing for " + hardware);
+		}
+	}
+
+	/**
+	 * @return the routes stored in file, or null if there is no such file
+	 *         or they were learned on different hardware
+	 */
+	public static RoutingTable loadForThisMachine(Path file,
+			HardwareInfo hardware) throws IOException {
+		if (!Files.isReadable(file)) {
+			return null;
+		}
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			props.load(in);
+		}
+		if (!hardware.signature().equals(props.getProperty(HARDWARE))) {
+			return null;
+		}
+		RoutingTable table = new RoutingTable(hardware.processors);
+		for (String key : props.stringPropertyNames()) {
+			if (key.equals(HARDWARE)) {
+				continue;
+			}
+			int dot = key.lastIndexOf('.');
+			try {
+				InputShape shape = InputShape.valueOf(key.substring(0, dot));
+				int length = Integer.parseInt(key.substring(dot + 1));
+				Engine engine = Engine.valueOf(props.getProperty(key).trim());
+				table.routes.get(shape).put(length, engine);
+			} catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+				throw new IOException("bad routing entry " + key, e);
+			}
+		}
+		return table;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return routes.toString();
+	}
+}
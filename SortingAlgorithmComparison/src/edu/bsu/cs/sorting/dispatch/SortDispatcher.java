@@ -0,0 +1,69 @@
+package edu.bsu.cs.sorting.dispatch;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.tuning.HardwareInfo;
+
+/**
+ * Sorts an int[] with whichever engine its RoutingTable says is fastest
+ * for input shaped like it. The shape comes from a small InputProfile
+ * sample, so the cost over calling the engine directly is a few thousand
+ * comparisons.
+ *
+ * The static sort uses routes learned by DispatchTrainer and stored in
+ * the file named by the system property PROFILE_PROPERTY (default
+ * DEFAULT_PROFILE), or the built-in heuristic when that file is missing
+ * or was made on other hardware.
+ */
+public final class SortDispatcher implements Consumer<int[]> {
+
+	public static final String PROFILE_PROPERTY = "edu.bsu.cs.sorting.routing";
+	public static final String DEFAULT_PROFILE = "sort-routing.properties";
+
+	private final RoutingTable table;
+
+	public SortDispatcher(RoutingTable table) {
+		this.table = table;
+	}
+
+	// loaded on first use of the static sort
+	private static final class Shared {
+		static final SortDispatcher INSTANCE = new SortDispatcher(load());
+
+		private static RoutingTable load() {
+			String file = System.getProperty(PROFILE_PROPERTY, DEFAULT_PROFILE);
+			try {
+				RoutingTable table = RoutingTable.loadForThisMachine(
+						Paths.get(file), HardwareInfo.detect());
+				if (table != null) {
+					return table;
+				}
+			} catch (IOException e) {
+				System.err.println(e.toString());
+			}
+			return new RoutingTable();
+		}
+	}
+
+	public static SortDispatcher shared() {
+		return Shared.INSTANCE;
+	}
+
+	public static void sort(int[] a) {
+		Shared.INSTANCE.accept(a);
+	}
+
+	public Engine choose(int[] a) {
+		if (a.length <= RoutingTable.SMALL_LENGTH) {
+			return Engine.INSERTION_SORT;
+		}
+		return table.route(InputProfile.of(a).shape(), a.length);
+	}
+
+	@Override
+	public void accept(int[] a) {
+		choose(a).sort(a);
+	}
+}
@@ -0,0 +1,11 @@
+package edu.bsu.cs.sorting.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("edu.bsu.cs.sorting.LeafSort")
+@Label("Sort Leaf")
+@Description("A sequential sort of a small part, or of a parallel sort's leaf")
+public final class LeafSortEvent extends SortPhaseEvent {
+}
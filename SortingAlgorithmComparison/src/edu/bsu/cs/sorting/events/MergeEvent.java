@@ -0,0 +1,16 @@
+package edu.bsu.cs.sorting.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("edu.bsu.cs.sorting.Merge")
+@Label("Sort Merge")
+@Description("A merge of two runs, gallops included")
+public final class MergeEvent extends SortPhaseEvent {
+
+	// TimSort's galloping threshold after the merge: low when galloping
+	// paid off, high when it didn't; -1 for merges that don't gallop
+	@Label("Min Gallop")
+	public int minGallop = -1;
+}
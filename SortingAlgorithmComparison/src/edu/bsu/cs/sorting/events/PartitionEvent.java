@@ -0,0 +1,11 @@
+package edu.bsu.cs.sorting.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("edu.bsu.cs.sorting.Partition")
+@Label("Sort Partition")
+@Description("One partitioning step of a quicksort, over elements")
+public final class PartitionEvent extends SortPhaseEvent {
+}
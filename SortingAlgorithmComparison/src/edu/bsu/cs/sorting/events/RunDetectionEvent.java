@@ -0,0 +1,11 @@
+package edu.bsu.cs.sorting.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("edu.bsu.cs.sorting.RunDetection")
+@Label("Sort Run Detection")
+@Description("Finding the next natural run, extended to the minimum run length by binary insertion sort if short")
+public final class RunDetectionEvent extends SortPhaseEvent {
+}
@@ -0,0 +1,53 @@
+package edu.bsu.cs.sorting.events;
+
+/**
+ * The switch for the sort phase JFR events. ENABLED is read once, from the
+ * system property PROPERTY, so when it is false the JIT folds every
+ * {@code if (SortEvents.ENABLED)} guard away and no event is ever created;
+ * leaving the instrumentation in costs nothing once the sorts are compiled.
+ * The event classes (and jdk.jfr.Event) are still loaded either way, by the
+ * bytecode verifier checking the guarded code of the sorts. With it true,
+ * an event is timed only while a recording has it enabled, and committed
+ * only if it passes the recording's threshold for its type.
+ *
+ * To record: java -Dedu.bsu.cs.sorting.events=true
+ * -XX:StartFlightRecording=filename=sort.jfr ..., then
+ * jfr print --categories Sorting sort.jfr
+ */
+public final class SortEvents {
+
+	public static final String PROPERTY = "edu.bsu.cs.sorting.events";
+
+	public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+	// prevent instantiation
+	private SortEvents() {
+	}
+
+	/**
+	 * Starts timing event, if a recording wants it.
+	 */
+	public static <E extends SortPhaseEvent> E begin(E event) {
+		if (event.isEnabled()) {
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Stops timing event and commits it with the given fields.
+	 */
+	public static void commit(SortPhaseEvent event, String algorithm,
+			int elements, int depth) {
+		if (!event.isEnabled()) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.algorithm = algorithm;
+			event.elements = elements;
+			event.depth = depth;
+			event.commit();
+		}
+	}
+}
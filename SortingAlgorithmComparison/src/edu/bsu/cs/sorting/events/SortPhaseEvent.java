@@ -0,0 +1,26 @@
+package edu.bsu.cs.sorting.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The fields every sort phase event carries. Durations are of the phase
+ * itself, not of the recursion below it.
+ */
+@Category("Sorting")
+@StackTrace(false)
+public abstract class SortPhaseEvent extends Event {
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Elements")
+	int elements;
+
+	// quicksort recursion depth, or the height of TimSort's run stack;
+	// -1 in the parallel sort's tasks, which don't track it
+	@Label("Depth")
+	int depth;
+}
@@ -0,0 +1,286 @@
+package edu.bsu.cs.sorting.external;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.LoserTree;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelSortConfig;
+import edu.bsu.cs.sorting.offheap.OffHeapLongSort;
+
+/**
+ * Sorts a binary file of int or long keys that need not fit in memory.
+ * The input is memory-mapped a chunk at a time; each chunk is sorted in
+ * parallel (int keys by ParallelDualPivotQuicksort, long keys in place in
+ * a direct buffer by OffHeapLongSort) and spilled to a temporary run
+ * file. The runs are then merged fanIn at a time through one LoserTree,
+ * with every run read and the output written through its own large
+ * buffer, until one run is left, which becomes the output.
+ *
+ * Memory use peaks at about two chunks while runs are made: for int keys
+ * the chunk's int[] and the equally large workspace ParallelDualPivotQuicksort
+ * allocates to sort it, for long keys the direct chunk buffer and the
+ * direct scratch buffer OffHeapLongSort merges through. While runs are
+ * merged it is fanIn + 1 I/O buffers.
+ */
+public final class ExternalSort {
+
+	public static final int DEFAULT_CHUNK_BYTES = 1 << 28;
+	public static final int DEFAULT_FAN_IN = 64;
+	public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+	public static final ExternalSort DEFAULTS = builder().build();
+
+	private final int chunkBytes;
+	private final int fanIn;
+	private final int bufferBytes;
+	private final ByteOrder order;
+	private final Path tempDirectory;
+	private final ForkJoinPool pool;
+
+	private ExternalSort(Builder builder) {
+		this.chunkBytes = builder.chunkBytes;
+		this.fanIn = builder.fanIn;
+		this.bufferBytes = builder.bufferBytes;
+		this.order = builder.order;
+		this.tempDirectory = builder.tempDirectory;
+		this.pool = builder.pool;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Writes the int keys of input, in order, to output.
+	 */
+	public void sortInts(Path input, Path output) throws IOException {
+		sort(input, output, Integer.BYTES);
+	}
+
+	/**
+	 * Writes the long keys of input, in order, to output.
+	 */
+	public void sortLongs(Path input, Path output) throws IOException {
+		sort(input, output, Long.BYTES);
+	}
+
+	private void sort(Path input, Path output, int width) throws IOException {
+		long size = Files.size(input);
+		if (size % width != 0) {
+			throw new IllegalArgumentException(input + " is " + size
+					+ " bytes, not a whole number of " + width + "-byte keys");
+		}
+		Path directory = (tempDirectory != null) ? tempDirectory : output
+				.toAbsolutePath().getParent();
+		// every temporary file made, so a failure leaves none behind
+		List<Path> created = new ArrayList<>();
+		try {
+			List<Path> runs = makeRuns(input, size, width, directory, created);
+			LoserTree tree = new LoserTree(fanIn);
+			while (runs.size() > 1) {
+				List<Path> merged = new ArrayList<>();
+				for (int from = 0; from < runs.size(); from += fanIn) {
+					List<Path> group = runs.subList(from, Math.min(from + fanIn,
+							runs.size()));
+					if (group.size() == 1) {
+						merged.add(group.get(0));
+						continue;
+					}
+					Path run = tempFile(directory, created);
+					merged.add(run);
+					merge(group, run, width, tree);
+					for (Path done : group) {
+						Files.delete(done);
+					}
+				}
+				runs = merged;
+			}
+			if (runs.isEmpty()) {
+				Files.write(output, new byte[0]);
+			} else {
+				Files.move(runs.get(0), output,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			for (Path file : created) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	private static Path tempFile(Path directory, List<Path> created)
+			throws IOException {
+		Path file = Files.createTempFile(directory, "run", ".bin");
+		created.add(file);
+		return file;
+	}
+
+	// sorts input a chunk at a time into a run file for each chunk
+	private List<Path> makeRuns(Path input, long size, int width,
+			Path directory, List<Path> created) throws IOException {
+		List<Path> runs = new ArrayList<>();
+		int chunk = chunkBytes - chunkBytes % width;
+		int[] ints = null;
+		ByteBuffer longs = null, scratch = null;
+		ParallelSortConfig config = ParallelSortConfig.builder().pool(pool)
+				.build();
+		try (FileChannel channel = FileChannel.open(input,
+				StandardOpenOption.READ)) {
+			for (long position = 0; position < size; position += chunk) {
+				int bytes = (int) Math.min(chunk, size - position);
+				MappedByteBuffer mapped = channel.map(
+						FileChannel.MapMode.READ_ONLY, position, bytes);
+				Path run = tempFile(directory, created);
+				runs.add(run);
+				try (RunWriter writer = new RunWriter(run, bufferBytes, order,
+						width)) {
+					if (width == Integer.BYTES) {
+						int n = bytes / width;
+						if (ints == null || ints.length != n) {
+							ints = new int[n];
+						}
+						mapped.order(order).asIntBuffer().get(ints);
+						ParallelDualPivotQuicksort.sort(ints, config);
+						writer.putAll(ints);
+					} else {
+						if (longs == null) {
+							longs = ByteBuffer.allocateDirect(chunk);
+							scratch = ByteBuffer.allocateDirect(chunk);
+						}
+						longs.clear();
+						longs.put(mapped).flip();
+						OffHeapLongSort.parallelSort(longs, order, pool, scratch);
+						writer.putAll(longs);
+					}
+				}
+			}
+		}
+		return runs;
+	}
+
+	// merges the runs into one run at target
+	private void merge(List<Path> runs, Path target, int width,
+			LoserTree tree) throws IOException {
+		RunReader[] readers = new RunReader[runs.size()];
+		try {
+			tree.start(readers.length);
+			for (int r = 0; r < readers.length; r++) {
+				readers[r] = new RunReader(runs.get(r), bufferBytes, order,
+						width);
+				if (!readers[r].done) {
+					tree.offer(r, readers[r].key);
+				}
+			}
+			tree.build();
+			try (RunWriter writer = new RunWriter(target, bufferBytes, order,
+					width)) {
+				while (!tree.isEmpty()) {
+					writer.put(tree.peek());
+					RunReader winner = readers[tree.winner()];
+					if (winner.advance()) {
+						tree.replace(winner.key);
+					} else {
+						tree.retire();
+					}
+				}
+			}
+		} finally {
+			for (RunReader reader : readers) {
+				if (reader != null) {
+					reader.close();
+				}
+			}
+		}
+	}
+
+	public static final class Builder {
+		private int chunkBytes = DEFAULT_CHUNK_BYTES;
+		private int fanIn = DEFAULT_FAN_IN;
+		private int bufferBytes = DEFAULT_BUFFER_BYTES;
+		private ByteOrder order = ByteOrder.BIG_ENDIAN;
+		private Path tempDirectory;
+		private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+		private Builder() {
+		}
+
+		/**
+		 * Bytes of input sorted in memory at once, which sets the length
+		 * of the initial runs.
+		 */
+		public Builder chunkBytes(int chunkBytes) {
+			if (chunkBytes < Long.BYTES) {
+				throw new IllegalArgumentException("chunkBytes(" + chunkBytes
+						+ ") < " + Long.BYTES);
+			}
+			this.chunkBytes = chunkBytes;
+			return this;
+		}
+
+		/**
+		 * Runs merged at once.
+		 */
+		public Builder fanIn(int fanIn) {
+			if (fanIn < 2) {
+				throw new IllegalArgumentException("fanIn(" + fanIn + ") < 2");
+			}
+			this.fanIn = fanIn;
+			return this;
+		}
+
+		/**
+		 * Bytes buffered for each run read and for the file written.
+		 */
+		public Builder bufferBytes(int bufferBytes) {
+			if (bufferBytes < Long.BYTES) {
+				throw new IllegalArgumentException("bufferBytes("
+						+ bufferBytes + ") < " + Long.BYTES);
+			}
+			this.bufferBytes = bufferBytes;
+			return this;
+		}
+
+		/**
+		 * Byte order of the keys in the files; big-endian, as written by
+		 * DataOutputStream, by default.
+		 */
+		public Builder order(ByteOrder order) {
+			if (order == null) {
+				throw new NullPointerException("order");
+			}
+			this.order = order;
+			return this;
+		}
+
+		/**
+		 * Where run files go; by default, next to the output.
+		 */
+		public Builder tempDirectory(Path tempDirectory) {
+			this.tempDirectory = tempDirectory;
+			return this;
+		}
+
+		public Builder pool(ForkJoinPool pool) {
+			if (pool == null) {
+				throw new NullPointerException("pool");
+			}
+			this.pool = pool;
+			return this;
+		}
+
+		public ExternalSort build() {
+			return new ExternalSort(this);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package edu.bsu.cs.sorting.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file of 4- or 8-byte keys front to back through one large
+ * direct buffer, one key at a time, widening int keys to long.
+ */
+final class RunReader implements Closeable {
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final int width;
+
+	// the current key, valid until done
+	long key;
+	boolean done;
+
+	RunReader(Path run, int bufferBytes, ByteOrder order, int width)
+			throws IOException {
+		this.channel = FileChannel.open(run, StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(bufferBytes - bufferBytes
+				% width).order(order);
+		this.width = width;
+		buffer.limit(0);
+		advance();
+	}
+
+	/**
+	 * Moves to the next key.
+	 *
+	 * @return false, setting done, at the end of the file
+	 */
+	boolean advance() throws IOException {
+		if (!buffer.hasRemaining()) {
+			buffer.clear();
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			}
+			buffer.flip();
+			if (buffer.remaining() < width) {
+				done = true;
+				return false;
+			}
+		}
+		key = (width == Integer.BYTES) ? buffer.getInt() : buffer.getLong();
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,83 @@
+package edu.bsu.cs.sorting.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes 4- or 8-byte keys to a file through one large direct buffer.
+ */
+final class RunWriter implements Closeable {
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final int width;
+
+	RunWriter(Path run, int bufferBytes, ByteOrder order, int width)
+			throws IOException {
+		this.channel = FileChannel.open(run, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		this.buffer = ByteBuffer.allocateDirect(bufferBytes - bufferBytes
+				% width).order(order);
+		this.width = width;
+	}
+
+	void put(long key) throws IOException {
+		if (buffer.remaining() < width) {
+			flush();
+		}
+		if (width == Integer.BYTES) {
+			buffer.putInt((int) key);
+		} else {
+			buffer.putLong(key);
+		}
+	}
+
+	/**
+	 * Writes all of keys, a buffer at a time; for 4-byte keys only.
+	 */
+	void putAll(int[] keys) throws IOException {
+		for (int from = 0; from < keys.length;) {
+			if (buffer.remaining() < width) {
+				flush();
+			}
+			int count = Math.min(keys.length - from, buffer.remaining()
+					/ width);
+			buffer.asIntBuffer().put(keys, from, count);
+			buffer.position(buffer.position() + count * width);
+			from += count;
+		}
+	}
+
+	/**
+	 * Writes all of keys, from its position to its limit, bypassing the
+	 * buffer.
+	 */
+	void putAll(ByteBuffer keys) throws IOException {
+		flush();
+		while (keys.hasRemaining()) {
+			channel.write(keys);
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
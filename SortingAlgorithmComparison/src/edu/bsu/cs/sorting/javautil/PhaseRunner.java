@@ -0,0 +1,209 @@
+package edu.bsu.cs.sorting.javautil;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * The parallel sort of IntSortContext and ObjectSortContext, less what
+ * depends on the element type: a fixed set of tasks made up front, one per
+ * part of the array, run in phases. The first phase sorts each part as a
+ * run, then passes of merges, one task per equal slice of the output,
+ * merge pairs of runs of doubling width, ping-ponging between the array
+ * and a workspace, until the runs are in order at their boundaries; a
+ * last phase copies the result back into the array if it ended up in the
+ * workspace. The number of parts is the pool's parallelism rounded up to a
+ * power of two.
+ *
+ * The calling thread submits each phase's tasks with execute and parks
+ * until the last of them finishes, so a warmed-up sort allocates nothing.
+ * Not thread-safe: one sort at a time.
+ */
+public final class PhaseRunner {
+
+	private final ForkJoinPool pool;
+	private final int parts;
+	private final ForkJoinTask<?>[] runs, slices;
+	private final IntPredicate inOrderAt;
+	// tasks of the current phase yet to finish, and who waits for them
+	private final AtomicInteger remaining = new AtomicInteger();
+	private final PhaseWait phaseWait = new PhaseWait(this);
+	private volatile Thread waiter;
+
+	// the sort in progress: its length, the runs merged per side by the
+	// current pass (0 for copying back), and the merge passes done
+	private int n, width, passes;
+
+	/**
+	 * @param sortRun
+	 *            sorts run i, [bound(i), bound(i + 1)) of the array
+	 * @param mergeSlice
+	 *            fills slice i, [bound(i), bound(i + 1)), of the output of
+	 *            the current pass, or copies it back into the array if
+	 *            width() is 0
+	 * @param inOrderAt
+	 *            whether the elements before and at index b of the array
+	 *            the last pass wrote are in order
+	 */
+	public PhaseRunner(ForkJoinPool pool, IntConsumer sortRun,
+			IntConsumer mergeSlice, IntPredicate inOrderAt) {
+		this.pool = pool;
+		int p = pool.getParallelism();
+		this.parts = p <= 1 ? 1 : Integer.highestOneBit(p - 1) << 1;
+		this.inOrderAt = inOrderAt;
+		runs = new ForkJoinTask<?>[parts];
+		slices = new ForkJoinTask<?>[parts];
+		for (int i = 0; i < parts; i++) {
+			runs[i] = new PhaseTask(this, sortRun, i);
+			slices[i] = new PhaseTask(this, mergeSlice, i);
+		}
+	}
+
+	public int parts() {
+		return parts;
+	}
+
+	/**
+	 * @return the start of run or slice i
+	 */
+	public int bound(int i) {
+		return (int) ((long) n * i / parts);
+	}
+
+	/**
+	 * @return the runs merged per side by the current pass, or 0 for copying
+	 *         the result back
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * @return true while the array holds the runs being merged, false while
+	 *         the workspace does
+	 */
+	public boolean sourceIsArray() {
+		return (passes & 1) == 0;
+	}
+
+	/**
+	 * Sorts the runs of an array of n elements, then merges pairs of them
+	 * until they are in order, and copies the result into the array if it
+	 * ended up in the workspace.
+	 */
+	public void sort(int n) {
+		this.n = n;
+		passes = 0;
+		runPhase(runs);
+		for (int w = 1; w < parts && !inOrder(w); w <<= 1) {
+			width = w;
+			runPhase(slices);
+			passes++;
+		}
+		if (!sourceIsArray()) {
+			width = 0;
+			runPhase(slices);
+		}
+	}
+
+	// with runs of width runs sorted, true if they are in order at their
+	// boundaries too, which makes the whole array sorted
+	private boolean inOrder(int width) {
+		for (int i = width; i < parts; i += width) {
+			if (!inOrderAt.test(bound(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Runs tasks in the pool and waits for them all. Joining would have
+	 * the pool allocate a wait node whenever a join blocks, so each task
+	 * counts itself done instead, and the last one wakes this thread, which
+	 * parks meanwhile (through managedBlock, so a pool worker sorting here
+	 * is compensated for).
+	 */
+	private void runPhase(ForkJoinTask<?>[] tasks) {
+		remaining.set(tasks.length);
+		waiter = Thread.currentThread();
+		for (ForkJoinTask<?> task : tasks) {
+			task.reinitialize();
+			pool.execute(task);
+		}
+		try {
+			ForkJoinPool.managedBlock(phaseWait);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); // PhaseWait doesn't throw it
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			// the pool marks a task done just after its taskDone()
+			while (!task.isDone()) {
+				Thread.onSpinWait();
+			}
+			if (task.isCompletedAbnormally()) {
+				Throwable ex = task.getException();
+				if (ex instanceof RuntimeException) {
+					throw (RuntimeException) ex;
+				}
+				if (ex instanceof Error) {
+					throw (Error) ex;
+				}
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+
+	private void taskDone() {
+		if (remaining.decrementAndGet() == 0) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	static final class PhaseWait implements ForkJoinPool.ManagedBlocker {
+		final PhaseRunner runner;
+
+		PhaseWait(PhaseRunner runner) {
+			this.runner = runner;
+		}
+
+		@Override
+		public boolean block() {
+			if (!isReleasable()) {
+				LockSupport.park(this);
+			}
+			return isReleasable();
+		}
+
+		@Override
+		public boolean isReleasable() {
+			return runner.remaining.get() == 0;
+		}
+	}
+
+	static final class PhaseTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final PhaseRunner runner;
+		final IntConsumer body;
+		final int index;
+
+		PhaseTask(PhaseRunner runner, IntConsumer body, int index) {
+			this.runner = runner;
+			this.body = body;
+			this.index = index;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				body.accept(index);
+			} finally {
+				runner.taskDone();
+			}
+		}
+	}
+}
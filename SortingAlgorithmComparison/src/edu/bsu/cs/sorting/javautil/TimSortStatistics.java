@@ -0,0 +1,122 @@
+package edu.bsu.cs.sorting.javautil;
+
+/**
+ * The part of a TimSortContext that doesn't depend on the element type,
+ * shared by the integer and generic contexts: the minGallop the last
+ * sort's merges settled on, which the next starts from instead of
+ * MIN_GALLOP, and counts of what the sorts found, to show how presorted
+ * the data is: the natural runs and their lengths, how many were too short
+ * and were extended by binary insertion sort, the merges, and how often
+ * galloping paid off. A gallop round is one gallop into each run; it is a
+ * hit if either gallop skipped MIN_GALLOP or more elements, keeping the
+ * merge galloping, and a miss if it ended gallop mode.
+ */
+public abstract class TimSortStatistics {
+
+	// 0 until a sort has merged
+	private int minGallop;
+
+	private long sorts;
+	private long elements;
+	private long runs;
+	private long runElements;
+	private long extendedRuns;
+	private long merges;
+	private long gallopRounds;
+	private long gallopMisses;
+
+	/**
+	 * Adds one sort's counts, as TimSort does at the end of each sort.
+	 */
+	public void add(int length, long runs, long runElements,
+			long extendedRuns, long merges, long gallopRounds,
+			long gallopMisses) {
+		this.sorts++;
+		this.elements += length;
+		this.runs += runs;
+		this.runElements += runElements;
+		this.extendedRuns += extendedRuns;
+		this.merges += merges;
+		this.gallopRounds += gallopRounds;
+		this.gallopMisses += gallopMisses;
+	}
+
+	/**
+	 * @return the minGallop the next sort starts from, 0 if not learned yet
+	 */
+	public int minGallop() {
+		return minGallop;
+	}
+
+	/**
+	 * Sets the minGallop the next sort starts from, as TimSort does at the
+	 * end of each sort that merged; 0 starts from MIN_GALLOP.
+	 */
+	public void setMinGallop(int minGallop) {
+		if (minGallop < 0) {
+			throw new IllegalArgumentException("minGallop(" + minGallop
+					+ ") < 0");
+		}
+		this.minGallop = minGallop;
+	}
+
+	public long sorts() {
+		return sorts;
+	}
+
+	public long elements() {
+		return elements;
+	}
+
+	// natural runs found, before extension
+	public long runs() {
+		return runs;
+	}
+
+	public double meanRunLength() {
+		return runs == 0 ? 0 : (double) runElements / runs;
+	}
+
+	// runs shorter than the minimum run length
+	public long extendedRuns() {
+		return extendedRuns;
+	}
+
+	public long merges() {
+		return merges;
+	}
+
+	public long gallopHits() {
+		return gallopRounds - gallopMisses;
+	}
+
+	public long gallopMisses() {
+		return gallopMisses;
+	}
+
+	/**
+	 * @return the fraction of gallop rounds that kept galloping, NaN if
+	 *         there were none
+	 */
+	public double gallopHitRate() {
+		return (double) gallopHits() / gallopRounds;
+	}
+
+	/**
+	 * Forgets the learned minGallop and zeroes the counts, keeping tmp.
+	 */
+	public void reset() {
+		minGallop = 0;
+		sorts = elements = runs = runElements = extendedRuns = 0;
+		merges = gallopRounds = gallopMisses = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%,d sorts of %,d elements: %,d runs (mean"
+				+ " length %.1f, %,d extended), %,d merges, %,d gallop hits,"
+				+ " %,d misses, minGallop %d", sorts, elements, runs,
+				meanRunLength(), extendedRuns, merges, gallopHits(),
+				gallopMisses, minGallop);
+	}
+}
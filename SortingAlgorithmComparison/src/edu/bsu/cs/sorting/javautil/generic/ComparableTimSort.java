@@ -139,6 +139,8 @@ public class ComparableTimSort<T extends Comparable<? super T>> {
 			tmpBase = 0;
 			tmpLen = tlen;
 		} else {
+			tmp = work;
+			tmpBase = workBase;
 			tmpLen = workLen;
 		}
 
@@ -0,0 +1,134 @@
+package edu.bsu.cs.sorting.javautil.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The generic counterpart of the integer LoserTree: a k-way merge of
+ * sorted runs of a T[] through a tournament tree of losers, tree[0] the
+ * run holding the smallest head and tree[1..k) the loser of the match at
+ * each internal node. Each element output replays only the log2(k)
+ * matches on its run's path to the root, one comparison per level against
+ * the stored loser. Ties go to the lower-numbered run, so equal elements
+ * come out in run order, and merging the runs of a stable sort is stable.
+ *
+ * One tree can be reused for any number of merges of up to maxRuns runs
+ * in the order of its comparator (the natural order if it is null);
+ * merge() allocates nothing.
+ */
+public final class LoserTree<T> {
+
+	private final int[] tree;
+	private final int[] pos, end;
+	private final Comparator<? super T> c;
+	private T[] src;
+	private int runs;
+
+	public LoserTree(int maxRuns, Comparator<? super T> c) {
+		if (maxRuns < 1) {
+			throw new IllegalArgumentException("maxRuns(" + maxRuns
+					+ ") < 1");
+		}
+		this.tree = new int[maxRuns];
+		this.pos = new int[maxRuns];
+		this.end = new int[maxRuns];
+		this.c = c;
+	}
+
+	/**
+	 * Merges src[from[r]..to[r]) for r < runs into dst starting at k.
+	 */
+	public void merge(T[] src, int[] from, int[] to, int runs, T[] dst,
+			int k) {
+		if (runs > tree.length) {
+			throw new IllegalArgumentException("runs(" + runs + ") > "
+					+ tree.length);
+		}
+		if (runs == 0) {
+			return;
+		}
+		if (runs == 1) {
+			System.arraycopy(src, from[0], dst, k, to[0] - from[0]);
+			return;
+		}
+		this.src = src;
+		this.runs = runs;
+		int total = 0;
+		for (int r = 0; r < runs; r++) {
+			pos[r] = from[r];
+			end[r] = to[r];
+			total += to[r] - from[r];
+		}
+		tree[0] = build(1);
+		for (int stop = k + total; k < stop; k++) {
+			int winner = tree[0];
+			dst[k] = src[pos[winner]++];
+			// the winner's new head, held across the replay
+			boolean winnerDone = pos[winner] == end[winner];
+			T winnerHead = winnerDone ? null : src[pos[winner]];
+			for (int node = (winner + runs) >>> 1; node >= 1; node >>>= 1) {
+				int loser = tree[node];
+				if (pos[loser] == end[loser]) {
+					continue;
+				}
+				T head = src[pos[loser]];
+				int cmp;
+				if (winnerDone || (cmp = compare(head, winnerHead)) < 0
+						|| (cmp == 0 && loser < winner)) {
+					tree[node] = winner;
+					winner = loser;
+					winnerDone = false;
+					winnerHead = head;
+				}
+			}
+			tree[0] = winner;
+		}
+		this.src = null;
+	}
+
+	/**
+	 * Merges the runs a[start[r]..start[r+1]) into dst at start[0].
+	 */
+	public static <T> void merge(T[] a, int[] start, T[] dst,
+			Comparator<? super T> c) {
+		int runs = start.length - 1;
+		if (runs < 1) {
+			return;
+		}
+		int[] from = Arrays.copyOf(start, runs);
+		int[] to = Arrays.copyOfRange(start, 1, runs + 1);
+		new LoserTree<T>(runs, c).merge(a, from, to, runs, dst, start[0]);
+	}
+
+	// whether run i's head comes out before run j's
+	private boolean beats(int i, int j) {
+		if (pos[j] == end[j]) {
+			return true;
+		}
+		if (pos[i] == end[i]) {
+			return false;
+		}
+		int cmp = compare(src[pos[i]], src[pos[j]]);
+		return cmp < 0 || (cmp == 0 && i < j);
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(T x, T y) {
+		return (c != null) ? c.compare(x, y) : ((Comparable<? super T>) x)
+				.compareTo(y);
+	}
+
+	// plays the matches below node, returning the winner
+	private int build(int node) {
+		if (node >= runs) {
+			return node - runs;
+		}
+		int left = build(2 * node), right = build(2 * node + 1);
+		if (beats(left, right)) {
+			tree[node] = right;
+			return left;
+		}
+		tree[node] = left;
+		return right;
+	}
+}
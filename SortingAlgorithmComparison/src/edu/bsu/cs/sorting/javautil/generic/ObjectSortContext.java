@@ -0,0 +1,174 @@
+package edu.bsu.cs.sorting.javautil.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.PhaseRunner;
+import edu.bsu.cs.sorting.javautil.generic.ArraysParallelSortHelpers.FJObject;
+
+/**
+ * The T[] counterpart of the integer IntSortContext: TimSort, LegacyMergeSort
+ * and a parallel stable sort with scratch space and task objects owned by
+ * the context and kept from sort to sort, so repeated sorts of batches of
+ * one length allocate nothing once the arrays have grown to it.
+ *
+ * The parallel sort runs in a PhaseRunner, like IntSortContext's, with a
+ * TimSortContext for each run, and merges the runs pairwise by co-ranking. A null Comparator means the natural order of the elements.
+ * As in ParallelTimSort, the n-element workspaces and TimSort's tmp arrays
+ * are cleared after each sort so they don't keep the sorted objects
+ * reachable.
+ *
+ * Not thread-safe: give each sorting thread its own context.
+ */
+public final class ObjectSortContext {
+
+	/**
+	 * The minimum array length below which parallelSort sorts sequentially.
+	 */
+	private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
+
+	private final TimSortContext timSort = new TimSortContext();
+	// a T extends Comparable erases to Comparable, so LegacyMergeSort needs
+	// a Comparable[]; the Comparator sorts need an Object[]
+	private Object[] work = new Object[0];
+	private Comparable<?>[] comparableWork = new Comparable<?>[0];
+
+	private final PhaseRunner phases;
+	// one per run, as runs sort on different threads
+	private final TimSortContext[] runTimSorts;
+	// the parallel sort in progress, merged through work
+	private Object[] a;
+	private Comparator<Object> c;
+
+	public ObjectSortContext() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * A context whose parallelSort runs in pool.
+	 */
+	public ObjectSortContext(ForkJoinPool pool) {
+		phases = new PhaseRunner(pool, this::sortRun, this::mergeSlice,
+				this::inOrderAt);
+		runTimSorts = new TimSortContext[phases.parts()];
+		for (int i = 0; i < runTimSorts.length; i++) {
+			runTimSorts[i] = new TimSortContext();
+		}
+	}
+
+	/**
+	 * Sorts a by TimSort, reusing what the last TimSort here learned.
+	 */
+	public <T> void timSort(T[] a, Comparator<? super T> c) {
+		TimSort.sort(a, c == null ? ParallelTimSort.NaturalOrder.INSTANCE
+				: c, timSort);
+	}
+
+	/**
+	 * Sorts a by LegacyMergeSort, copying it into the workspace instead of
+	 * cloning it.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Comparable<? super T>> void mergeSort(T[] a) {
+		int n = a.length;
+		if (comparableWork.length < n) {
+			comparableWork = new Comparable<?>[n];
+		}
+		T[] aux = (T[]) comparableWork;
+		System.arraycopy(a, 0, aux, 0, n);
+		try {
+			LegacyMergeSort.sort(aux, a, 0, n);
+		} finally {
+			Arrays.fill(aux, 0, n, null);
+		}
+	}
+
+	/**
+	 * Sorts a into the order of c, or the natural order of its elements if
+	 * c is null. Equal elements keep their order.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void parallelSort(T[] a, Comparator<? super T> c) {
+		Comparator<Object> order = c == null
+				? ParallelTimSort.NaturalOrder.INSTANCE
+				: (Comparator<Object>) c;
+		int n = a.length;
+		if (n <= MIN_ARRAY_SORT_GRAN || phases.parts() == 1) {
+			TimSort.sort(a, order, timSort);
+			return;
+		}
+		this.a = a;
+		this.c = order;
+		if (work.length < n) {
+			work = new Object[n];
+		}
+		try {
+			phases.sort(n);
+		} finally {
+			Arrays.fill(work, 0, n, null);
+			this.a = null;
+			this.c = null;
+		}
+	}
+
+	public TimSortContext timSortContext() {
+		return timSort;
+	}
+
+	/**
+	 * Drops the workspaces and the TimSort tmp arrays, for a context done
+	 * with large sorts.
+	 */
+	public void release() {
+		work = new Object[0];
+		comparableWork = new Comparable<?>[0];
+		timSort.releaseTmp();
+		for (TimSortContext runTimSort : runTimSorts) {
+			runTimSort.releaseTmp();
+		}
+	}
+
+	// the array the current phase reads and the one it writes
+	private Object[] src() {
+		return phases.sourceIsArray() ? a : work;
+	}
+
+	private Object[] dst() {
+		return phases.sourceIsArray() ? work : a;
+	}
+
+	private boolean inOrderAt(int b) {
+		Object[] src = src();
+		return c.compare(src[b - 1], src[b]) <= 0;
+	}
+
+	private void sortRun(int index) {
+		TimSort.sort(a, phases.bound(index), phases.bound(index + 1), c,
+				runTimSorts[index]);
+	}
+
+	private void mergeSlice(int index) {
+		PhaseRunner p = phases;
+		Object[] src = src(), dst = dst();
+		int from = p.bound(index), to = p.bound(index + 1), w = p.width();
+		if (w == 0) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+		int pair = index - index % (2 * w);
+		int lo = p.bound(pair), mid = p.bound(pair + w);
+		int hi = p.bound(pair + 2 * w);
+		if (c.compare(src[mid - 1], src[mid]) <= 0) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+		// this slice's share of the pair's output
+		int d0 = from - lo, d1 = to - lo;
+		int ln = mid - lo, rn = hi - mid;
+		int l0 = FJObject.coRank(src, lo, ln, mid, rn, d0, c);
+		int l1 = FJObject.coRank(src, lo, ln, mid, rn, d1, c);
+		FJObject.merge(src, dst, lo + l0, l1 - l0, mid + d0 - l0,
+				(d1 - l1) - (d0 - l0), from, c);
+	}
+}
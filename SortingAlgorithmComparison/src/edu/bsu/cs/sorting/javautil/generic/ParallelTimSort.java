@@ -0,0 +1,131 @@
+package edu.bsu.cs.sorting.javautil.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel stable sorts of T[], Arrays.parallelSort(T[]) style: the CilkSort
+ * Sorter and Merger tasks of ArraysParallelSortHelpers, with TimSort leaves
+ * for a Comparator (FJObject) and ComparableTimSort leaves, and compareTo in
+ * the merges, for the natural ordering (FJComparable).
+ *
+ * The n element workspace the merges ping-pong through is pooled per calling
+ * thread rather than allocated by every sort, and its slots are cleared after
+ * each sort so it doesn't keep the sorted objects reachable. A thread that
+ * sorts a large array once can give its workspace back with
+ * releaseWorkspace().
+ */
+public class ParallelTimSort {
+
+	/** Prevents instantiation. */
+	private ParallelTimSort() {
+	}
+
+	/**
+	 * The minimum array length below which a parallel sorting algorithm will
+	 * not further partition the sorting task.
+	 */
+	private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
+
+	// each thread's workspaces, taken out while a sort of that thread uses
+	// one, so a sort nested in another (a task stolen while joining) gets its
+	// own. A T extends Comparable erases to Comparable, so the natural order
+	// sorts need a Comparable[]; the Comparator sorts need an Object[], which
+	// can hold elements that aren't Comparable
+	private static final ThreadLocal<Object[]> WORKSPACE = new ThreadLocal<>();
+	private static final ThreadLocal<Object[]> COMPARABLE_WORKSPACE =
+			new ThreadLocal<>();
+
+	static final class NaturalOrder implements Comparator<Object> {
+		@SuppressWarnings("unchecked")
+		@Override
+		public int compare(Object first, Object second) {
+			return ((Comparable<Object>) first).compareTo(second);
+		}
+
+		static final NaturalOrder INSTANCE = new NaturalOrder();
+	}
+
+	public static <T extends Comparable<? super T>> void sort(T[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sorts a into the ascending natural order of its elements, as tasks of
+	 * pool. Equal elements keep their order.
+	 */
+	public static <T extends Comparable<? super T>> void sort(T[] a,
+			ForkJoinPool pool) {
+		int n = a.length, p = pool.getParallelism(), g;
+		if (n <= MIN_ARRAY_SORT_GRAN || p == 1) {
+			ComparableTimSort.sort(a, 0, n, null, 0, 0);
+			return;
+		}
+		g = Math.max(n / (p << 2), MIN_ARRAY_SORT_GRAN);
+		T[] w = takeWorkspace(COMPARABLE_WORKSPACE, n);
+		try {
+			pool.invoke(new ArraysParallelSortHelpers.FJComparable.Sorter<T>(
+					null, a, w, 0, n, 0, g));
+		} finally {
+			giveBack(COMPARABLE_WORKSPACE, w, n);
+		}
+	}
+
+	public static <T> void sort(T[] a, Comparator<? super T> c) {
+		sort(a, c, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sorts a into the order of c, or the natural order of its elements if c
+	 * is null, as tasks of pool. Equal elements keep their order.
+	 */
+	public static <T> void sort(T[] a, Comparator<? super T> c,
+			ForkJoinPool pool) {
+		if (c == null) {
+			c = NaturalOrder.INSTANCE;
+		}
+		int n = a.length, p = pool.getParallelism(), g;
+		if (n <= MIN_ARRAY_SORT_GRAN || p == 1) {
+			TimSort.sort(a, 0, n, c, null, 0, 0);
+			return;
+		}
+		g = Math.max(n / (p << 2), MIN_ARRAY_SORT_GRAN);
+		T[] w = takeWorkspace(WORKSPACE, n);
+		try {
+			pool.invoke(new ArraysParallelSortHelpers.FJObject.Sorter<T>(null,
+					a, w, 0, n, 0, g, c));
+		} finally {
+			giveBack(WORKSPACE, w, n);
+		}
+	}
+
+	/**
+	 * Drops the calling thread's pooled workspaces.
+	 */
+	public static void releaseWorkspace() {
+		WORKSPACE.remove();
+		COMPARABLE_WORKSPACE.remove();
+	}
+
+	// the calling thread's workspace from pool if it holds n elements, else
+	// a new one; the sorts only store Ts in it
+	@SuppressWarnings("unchecked")
+	private static <T> T[] takeWorkspace(ThreadLocal<Object[]> pool, int n) {
+		Object[] w = pool.get();
+		if (w == null || w.length < n) {
+			w = (pool == COMPARABLE_WORKSPACE) ? new Comparable<?>[n]
+					: new Object[n];
+		}
+		pool.set(null);
+		return (T[]) w;
+	}
+
+	private static void giveBack(ThreadLocal<Object[]> pool, Object[] w, int n) {
+		Arrays.fill(w, 0, n, null);
+		Object[] pooled = pool.get();
+		if (pooled == null || pooled.length < w.length) {
+			pool.set(w);
+		}
+	}
+}
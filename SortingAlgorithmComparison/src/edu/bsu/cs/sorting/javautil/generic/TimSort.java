@@ -84,14 +84,21 @@ public class TimSort<T> {
 	private static final int MIN_MERGE = 32;
 
 	/**
-	 * The array being sorted.
+	 * The run stack length that suffices for any array when runs are at
+	 * least MIN_MERGE / 2 long.
 	 */
-	private final T[] a;
+	private static final int MAX_STACK_LENGTH = 40;
+
+	/**
+	 * The array being sorted, null between the sorts of an instance a
+	 * TimSortContext keeps.
+	 */
+	private T[] a;
 
 	/**
 	 * The comparator for this sort.
 	 */
-	private final Comparator<? super T> c;
+	private Comparator<? super T> c;
 
 	/**
 	 * When we get into galloping mode, we stay there until both runs win less
@@ -122,6 +129,7 @@ public class TimSort<T> {
 	private T[] tmp;
 	private int tmpBase; // base of tmp array slice
 	private int tmpLen; // length of tmp array slice
+	private int tmpUsed; // how much of the slice the merges have written
 
 	/**
 	 * A stack of pending runs yet to be merged. Run i starts at address base[i]
@@ -137,6 +145,14 @@ public class TimSort<T> {
 	private final int[] runBase;
 	private final int[] runLen;
 
+	/**
+	 * Where the learned minGallop, tmp and the counts below go when the sort
+	 * is done, or null.
+	 */
+	private final TimSortContext context;
+	private long runs, runElements, extendedRuns, merges;
+	private long gallopRounds, gallopMisses;
+
 	/**
 	 * Creates a TimSort instance to maintain the state of an ongoing sort.
 	 *
@@ -150,21 +166,31 @@ public class TimSort<T> {
 	 *            origin of usable space in work array
 	 * @param workLen
 	 *            usable size of work array
+	 * @param context
+	 *            learned state to start from, or null
 	 */
+	@SuppressWarnings("unchecked")
 	private TimSort(T[] a, Comparator<? super T> c, T[] work, int workBase,
-			int workLen) {
+			int workLen, TimSortContext context) {
 		this.a = a;
 		this.c = c;
+		this.context = context;
+		if (context != null) {
+			if (context.minGallop() > 0)
+				minGallop = context.minGallop();
+			// T erases to Object, so an Object[] can stand in for T[]
+			if (work == null && context.tmp != null) {
+				work = (T[]) context.tmp;
+				workLen = work.length;
+			}
+		}
 
 		// Allocate temp storage (which may be increased later if necessary)
 		int len = a.length;
 		int tlen = (len < 2 * INITIAL_TMP_STORAGE_LENGTH) ? len >>> 1
 				: INITIAL_TMP_STORAGE_LENGTH;
 		if (work == null || workLen < tlen || workBase + tlen > work.length) {
-			@SuppressWarnings("unchecked")
-			T[] newArray = (T[]) java.lang.reflect.Array.newInstance(a
-					.getClass().getComponentType(), tlen);
-			tmp = newArray;
+			tmp = newTmp(tlen);
 			tmpBase = 0;
 			tmpLen = tlen;
 		} else {
@@ -183,8 +209,9 @@ public class TimSort<T> {
 		 * computation below must be changed if MIN_MERGE is decreased. See the
 		 * MIN_MERGE declaration above for more information.
 		 */
-		int stackLen = (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24
-				: 40);
+		int stackLen = context != null ? MAX_STACK_LENGTH // reused later
+				: (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24
+						: MAX_STACK_LENGTH);
 		runBase = new int[stackLen];
 		runLen = new int[stackLen];
 	}
@@ -218,6 +245,26 @@ public class TimSort<T> {
 	 */
 	public static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c,
 			T[] work, int workBase, int workLen) {
+		sort(a, lo, hi, c, work, workBase, workLen, null);
+	}
+
+	/**
+	 * Sorts a starting from what context learned from earlier sorts, and
+	 * adds what this one learns.
+	 */
+	public static <T> void sort(T[] a, Comparator<? super T> c,
+			TimSortContext context) {
+		sort(a, 0, a.length, c, context);
+	}
+
+	public static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c,
+			TimSortContext context) {
+		sort(a, lo, hi, c, null, 0, 0, context);
+	}
+
+	private static <T> void sort(T[] a, int lo, int hi,
+			Comparator<? super T> c, T[] work, int workBase, int workLen,
+			TimSortContext context) {
 		assert c != null && a != null && lo >= 0 && lo <= hi && hi <= a.length;
 
 		int nRemaining = hi - lo;
@@ -228,6 +275,9 @@ public class TimSort<T> {
 		if (nRemaining < MIN_MERGE) {
 			int initRunLen = countRunAndMakeAscending(a, lo, hi, c);
 			binarySort(a, lo, hi, lo + initRunLen, c);
+			if (context != null)
+				context.add(nRemaining, 1, initRunLen,
+						initRunLen < nRemaining ? 1 : 0, 0, 0, 0);
 			return;
 		}
 
@@ -236,14 +286,21 @@ public class TimSort<T> {
 		 * extending short natural runs to minRun elements, and merging runs to
 		 * maintain stack invariant.
 		 */
-		TimSort<T> ts = new TimSort<>(a, c, work, workBase, workLen);
+		@SuppressWarnings("unchecked")
+		TimSort<T> ts = context != null && context.sorter != null
+				? ((TimSort<T>) context.sorter).restart(a, c)
+				: new TimSort<>(a, c, work, workBase, workLen, context);
+		int length = nRemaining;
 		int minRun = minRunLength(nRemaining);
 		do {
 			// Identify next run
 			int runLen = countRunAndMakeAscending(a, lo, hi, c);
+			ts.runs++;
+			ts.runElements += runLen;
 
 			// If run is short, extend to min(minRun, nRemaining)
 			if (runLen < minRun) {
+				ts.extendedRuns++;
 				int force = nRemaining <= minRun ? nRemaining : minRun;
 				binarySort(a, lo, lo + force, lo + runLen, c);
 				runLen = force;
@@ -262,6 +319,33 @@ public class TimSort<T> {
 		assert lo == hi;
 		ts.mergeForceCollapse();
 		assert ts.stackSize == 1;
+		if (context != null)
+			ts.finish(length);
+	}
+
+	// sets up the instance kept by context to sort a by c
+	private TimSort<T> restart(T[] a, Comparator<? super T> c) {
+		this.a = a;
+		this.c = c;
+		minGallop = context.minGallop() > 0 ? context.minGallop() : MIN_GALLOP;
+		stackSize = 0;
+		runs = runElements = extendedRuns = merges = 0;
+		gallopRounds = gallopMisses = 0;
+		return this;
+	}
+
+	// hands what this sort learned, and this instance, to its context
+	private void finish(int length) {
+		context.setMinGallop(minGallop);
+		// so the context doesn't keep the sorted objects reachable
+		Arrays.fill(tmp, tmpBase, tmpBase + tmpUsed, null);
+		tmpUsed = 0;
+		context.tmp = tmp; // only ever replaced by a longer one
+		context.add(length, runs, runElements, extendedRuns, merges,
+				gallopRounds, gallopMisses);
+		context.sorter = this;
+		a = null;
+		c = null;
 	}
 
 	/**
@@ -496,6 +580,7 @@ public class TimSort<T> {
 		assert stackSize >= 2;
 		assert i >= 0;
 		assert i == stackSize - 2 || i == stackSize - 3;
+		merges++;
 
 		int base1 = runBase[i];
 		int len1 = runLen[i];
@@ -804,7 +889,9 @@ public class TimSort<T> {
 				if (--len1 == 1)
 					break outer;
 				minGallop--;
+				gallopRounds++;
 			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+			gallopMisses++;
 			if (minGallop < 0)
 				minGallop = 0;
 			minGallop += 2; // Penalize for leaving gallop mode
@@ -930,7 +1017,9 @@ public class TimSort<T> {
 				if (--len1 == 0)
 					break outer;
 				minGallop--;
+				gallopRounds++;
 			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+			gallopMisses++;
 			if (minGallop < 0)
 				minGallop = 0;
 			minGallop += 2; // Penalize for leaving gallop mode
@@ -978,13 +1067,21 @@ public class TimSort<T> {
 			else
 				newSize = Math.min(newSize, a.length >>> 1);
 
-			@SuppressWarnings("unchecked")
-			T[] newArray = (T[]) java.lang.reflect.Array.newInstance(a
-					.getClass().getComponentType(), newSize);
-			tmp = newArray;
+			tmp = newTmp(newSize);
 			tmpLen = newSize;
 			tmpBase = 0;
 		}
+		tmpUsed = Math.max(tmpUsed, minCapacity);
 		return tmp;
 	}
+
+	// of a's element type, but of Object when kept in a context that may
+	// sort arrays of other types
+	@SuppressWarnings("unchecked")
+	private T[] newTmp(int length) {
+		if (context != null)
+			return (T[]) new Object[length];
+		return (T[]) java.lang.reflect.Array.newInstance(a.getClass()
+				.getComponentType(), length);
+	}
 }
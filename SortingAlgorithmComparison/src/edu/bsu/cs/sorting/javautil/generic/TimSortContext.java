@@ -0,0 +1,38 @@
+package edu.bsu.cs.sorting.javautil.generic;
+
+import edu.bsu.cs.sorting.javautil.TimSortStatistics;
+
+/**
+ * The generic counterpart of the integer TimSortContext: the minGallop and
+ * counts TimSortStatistics keeps, and the merge space TimSort learned from
+ * earlier sorts, carried to the next. The tmp array is an Object[], so one
+ * context serves arrays of any element type; the TimSort object is reused
+ * too.
+ *
+ * Not thread-safe: use current() for a context per thread, or give each
+ * caller its own.
+ */
+public final class TimSortContext extends TimSortStatistics {
+
+	private static final ThreadLocal<TimSortContext> CURRENT = ThreadLocal
+			.withInitial(TimSortContext::new);
+
+	Object[] tmp;
+	// the last sort's TimSort and run stack, reused by the next
+	TimSort<?> sorter;
+
+	/**
+	 * @return this thread's context
+	 */
+	public static TimSortContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Drops tmp, for a thread done with large sorts.
+	 */
+	public void releaseTmp() {
+		tmp = null;
+		sorter = null;
+	}
+}
@@ -28,12 +28,14 @@ package edu.bsu.cs.sorting.javautil.integer;
 import java.util.*;
 import java.util.concurrent.CountedCompleter;
 
-import edu.bsu.cs.sorting.javautil.generic.TimSort;
+import edu.bsu.cs.sorting.events.LeafSortEvent;
+import edu.bsu.cs.sorting.events.MergeEvent;
+import edu.bsu.cs.sorting.events.SortEvents;
 
 /**
  * Helper utilities for the parallel sort methods in Arrays.parallelSort.
  *
- * For each primitive type, plus Object, we define a static class to contain the
+ * For each primitive type we define a static class to contain the
  * Sorter and Merger implementations for that type:
  *
  * Sorter classes based mainly on CilkSort <A
@@ -115,16 +117,25 @@ import edu.bsu.cs.sorting.javautil.generic.TimSort;
 		}
 	}
 
-	/** Object + Comparator support class */
-	static final class FJObject {
-		static final class Sorter<T> extends CountedCompleter<Void> {
+	/** int support class */
+	static final class FJInt {
+		static final class Sorter extends CountedCompleter<Void> {
 			static final long serialVersionUID = 2446542900576103244L;
-			final T[] a, w;
-			final int base, size, wbase, gran;
-			Comparator<? super T> comparator;
+			final int[] a, w;
+			final int base, size, wbase, gran, parts;
+
+			Sorter(CountedCompleter<?> par, int[] a, int[] w, int base,
+					int size, int wbase, int gran) {
+				this(par, a, w, base, size, wbase, gran, 0);
+			}
 
-			Sorter(CountedCompleter<?> par, T[] a, T[] w, int base, int size,
-					int wbase, int gran, Comparator<? super T> comparator) {
+			/**
+			 * @param parts
+			 *            if positive, merges are done by PathMerger in up to
+			 *            this many parts; otherwise by Merger
+			 */
+			Sorter(CountedCompleter<?> par, int[] a, int[] w, int base,
+					int size, int wbase, int gran, int parts) {
 				super(par);
 				this.a = a;
 				this.w = w;
@@ -132,44 +143,58 @@ import edu.bsu.cs.sorting.javautil.generic.TimSort;
 				this.size = size;
 				this.wbase = wbase;
 				this.gran = gran;
-				this.comparator = comparator;
+				this.parts = parts;
+			}
+
+			private CountedCompleter<Void> merger(CountedCompleter<?> par,
+					int[] a, int[] w, int lbase, int lsize, int rbase,
+					int rsize, int wbase, int gran) {
+				if (parts > 0)
+					return new PathMerger(par, a, w, lbase, lsize, rbase,
+							rsize, wbase, gran, parts);
+				return new Merger(par, a, w, lbase, lsize, rbase, rsize,
+						wbase, gran);
 			}
 
 			@Override
 			public final void compute() {
 				CountedCompleter<?> s = this;
-				Comparator<? super T> c = this.comparator;
-				T[] a = this.a, w = this.w; // localize all params
-				int b = this.base, n = this.size, wb = this.wbase, g = this.gran;
+				int[] a = this.a, w = this.w; // localize all params
+				int b = this.base, n = this.size, wb = this.wbase, g = this.gran, p = this.parts;
 				while (n > g) {
 					int h = n >>> 1, q = h >>> 1, u = h + q; // quartiles
-					Relay fc = new Relay(new Merger<T>(s, w, a, wb, h, wb + h,
-							n - h, b, g, c));
-					Relay rc = new Relay(new Merger<T>(fc, a, w, b + h, q, b
-							+ u, n - u, wb + h, g, c));
-					new Sorter<T>(rc, a, w, b + u, n - u, wb + u, g, c).fork();
-					new Sorter<T>(rc, a, w, b + h, q, wb + h, g, c).fork();
+					Relay fc = new Relay(merger(s, w, a, wb, h, wb + h, n
+							- h, b, g));
+					Relay rc = new Relay(merger(fc, a, w, b + h, q, b + u,
+							n - u, wb + h, g));
+					new Sorter(rc, a, w, b + u, n - u, wb + u, g, p).fork();
+					new Sorter(rc, a, w, b + h, q, wb + h, g, p).fork();
 					
-					Relay bc = new Relay(new Merger<T>(fc, a, w, b, q, b + q, h
-							- q, wb, g, c));
-					new Sorter<T>(bc, a, w, b + q, h - q, wb + q, g, c).fork();
+					Relay bc = new Relay(merger(fc, a, w, b, q, b + q, h
+							- q, wb, g));
+					new Sorter(bc, a, w, b + q, h - q, wb + q, g, p).fork();
 					s = new EmptyCompleter(bc);
 					n = q;
 				}
-				TimSort.sort(a, b, b + n, c, w, wb, n);
+				if (SortEvents.ENABLED) {
+					LeafSortEvent event = SortEvents
+							.begin(new LeafSortEvent());
+					DualPivotQuicksort.sort(a, b, b + n - 1);
+					SortEvents.commit(event, "ArraysParallelSort", n, -1);
+				} else {
+					DualPivotQuicksort.sort(a, b, b + n - 1);
+				}
 				s.tryComplete();
 			}
 		}
 
-		static final class Merger<T> extends CountedCompleter<Void> {
+		static final class Merger extends CountedCompleter<Void> {
 			static final long serialVersionUID = 2446542900576103244L;
-			final T[] a, w; // main and workspace arrays
+			final int[] a, w; // main and workspace arrays
 			final int lbase, lsize, rbase, rsize, wbase, gran;
-			Comparator<? super T> comparator;
 
-			Merger(CountedCompleter<?> par, T[] a, T[] w, int lbase, int lsize,
-					int rbase, int rsize, int wbase, int gran,
-					Comparator<? super T> comparator) {
+			Merger(CountedCompleter<?> par, int[] a, int[] w, int lbase,
+					int lsize, int rbase, int rsize, int wbase, int gran) {
 				super(par);
 				this.a = a;
 				this.w = w;
@@ -179,26 +204,23 @@ import edu.bsu.cs.sorting.javautil.generic.TimSort;
 				this.rsize = rsize;
 				this.wbase = wbase;
 				this.gran = gran;
-				this.comparator = comparator;
 			}
 
 			@Override
 			public final void compute() {
-				Comparator<? super T> c = this.comparator;
-				T[] a = this.a, w = this.w; // localize all params
+				int[] a = this.a, w = this.w; // localize all params
 				int lb = this.lbase, ln = this.lsize, rb = this.rbase, rn = this.rsize, k = this.wbase, g = this.gran;
-				if (a == null || w == null || lb < 0 || rb < 0 || k < 0
-						|| c == null)
+				if (a == null || w == null || lb < 0 || rb < 0 || k < 0)
 					throw new IllegalStateException(); // hoist checks
 				for (int lh, rh;;) { // split larger, find point in smaller
 					if (ln >= rn) {
 						if (ln <= g)
 							break;
 						rh = rn;
-						T split = a[(lh = ln >>> 1) + lb];
+						int split = a[(lh = ln >>> 1) + lb];
 						for (int lo = 0; lo < rh;) {
 							int rm = (lo + rh) >>> 1;
-							if (c.compare(split, a[rm + rb]) <= 0)
+							if (split <= a[rm + rb])
 								rh = rm;
 							else
 								lo = rm + 1;
@@ -207,96 +229,85 @@ import edu.bsu.cs.sorting.javautil.generic.TimSort;
 						if (rn <= g)
 							break;
 						lh = ln;
-						T split = a[(rh = rn >>> 1) + rb];
+						int split = a[(rh = rn >>> 1) + rb];
 						for (int lo = 0; lo < lh;) {
 							int lm = (lo + lh) >>> 1;
-							if (c.compare(split, a[lm + lb]) <= 0)
+							if (split <= a[lm + lb])
 								lh = lm;
 							else
 								lo = lm + 1;
 						}
 					}
-					Merger<T> m = new Merger<T>(this, a, w, lb + lh, ln - lh,
-							rb + rh, rn - rh, k + lh + rh, g, c);
+					Merger m = new Merger(this, a, w, lb + lh, ln - lh,
+							rb + rh, rn - rh, k + lh + rh, g);
 					rn = rh;
 					ln = lh;
 					addToPendingCount(1);
 					m.fork();
 				}
-
-				int lf = lb + ln, rf = rb + rn; // index bounds
-				while (lb < lf && rb < rf) {
-					T t, al, ar;
-					if (c.compare((al = a[lb]), (ar = a[rb])) <= 0) {
-						lb++;
-						t = al;
-					} else {
-						rb++;
-						t = ar;
-					}
-					w[k++] = t;
-				}
-				if (rb < rf)
-					System.arraycopy(a, rb, w, k, rf - rb);
-				else if (lb < lf)
-					System.arraycopy(a, lb, w, k, lf - lb);
-
+				leafMerge(a, w, lb, ln, rb, rn, k);
 				tryComplete();
 			}
-
 		}
-	} // FJObject
 
-	/** int support class */
-	static final class FJInt {
-		static final class Sorter extends CountedCompleter<Void> {
+		/**
+		 * Merges like Merger, but divides the output into up to parts
+		 * equal chunks (none smaller than gran) up front. The split point
+		 * of each chunk in the two inputs is found by co-ranking, a binary
+		 * search along the cross diagonal of the merge path, so each chunk
+		 * is merged independently and skewed inputs still split evenly.
+		 */
+		static final class PathMerger extends CountedCompleter<Void> {
 			static final long serialVersionUID = 2446542900576103244L;
-			final int[] a, w;
-			final int base, size, wbase, gran;
+			final int[] a, w; // main and workspace arrays
+			final int lbase, lsize, rbase, rsize, wbase, gran, parts;
 
-			Sorter(CountedCompleter<?> par, int[] a, int[] w, int base,
-					int size, int wbase, int gran) {
+			PathMerger(CountedCompleter<?> par, int[] a, int[] w, int lbase,
+					int lsize, int rbase, int rsize, int wbase, int gran,
+					int parts) {
 				super(par);
 				this.a = a;
 				this.w = w;
-				this.base = base;
-				this.size = size;
+				this.lbase = lbase;
+				this.lsize = lsize;
+				this.rbase = rbase;
+				this.rsize = rsize;
 				this.wbase = wbase;
 				this.gran = gran;
+				this.parts = parts;
 			}
 
 			@Override
 			public final void compute() {
-				CountedCompleter<?> s = this;
 				int[] a = this.a, w = this.w; // localize all params
-				int b = this.base, n = this.size, wb = this.wbase, g = this.gran;
-				while (n > g) {
-					int h = n >>> 1, q = h >>> 1, u = h + q; // quartiles
-					Relay fc = new Relay(new Merger(s, w, a, wb, h, wb + h, n
-							- h, b, g));
-					Relay rc = new Relay(new Merger(fc, a, w, b + h, q, b + u,
-							n - u, wb + h, g));
-					new Sorter(rc, a, w, b + u, n - u, wb + u, g).fork();
-					new Sorter(rc, a, w, b + h, q, wb + h, g).fork();
-					
-					Relay bc = new Relay(new Merger(fc, a, w, b, q, b + q, h
-							- q, wb, g));
-					new Sorter(bc, a, w, b + q, h - q, wb + q, g).fork();
-					s = new EmptyCompleter(bc);
-					n = q;
+				int lb = this.lbase, ln = this.lsize, rb = this.rbase, rn = this.rsize, k = this.wbase, g = this.gran;
+				if (a == null || w == null || lb < 0 || rb < 0 || k < 0)
+					throw new IllegalStateException(); // hoist checks
+				int n = ln + rn;
+				int p = Math.max(1, Math.min(parts, n / Math.max(1, g)));
+				int d0 = 0, l0 = 0;
+				for (int i = 1; i < p; i++) {
+					int d = (int) ((long) n * i / p);
+					int l = coRank(a, lb, ln, rb, rn, d);
+					addToPendingCount(1);
+					new MergeChunk(this, a, w, lb + l0, l - l0, rb + d0 - l0,
+							(d - l) - (d0 - l0), k + d0).fork();
+					d0 = d;
+					l0 = l;
 				}
-				DualPivotQuicksort.sort(a, b, b + n - 1);
-				s.tryComplete();
+				leafMerge(a, w, lb + l0, ln - l0, rb + d0 - l0,
+						rn - (d0 - l0), k + d0);
+				tryComplete();
 			}
 		}
 
-		static final class Merger extends CountedCompleter<Void> {
+		static final class MergeChunk extends CountedCompleter<Void> {
 			static final long serialVersionUID = 2446542900576103244L;
-			final int[] a, w; // main and workspace arrays
-			final int lbase, lsize, rbase, rsize, wbase, gran;
+			final int[] a, w;
+			final int lbase, lsize, rbase, rsize, wbase;
 
-			Merger(CountedCompleter<?> par, int[] a, int[] w, int lbase,
-					int lsize, int rbase, int rsize, int wbase, int gran) {
+			MergeChunk(CountedCompleter<?> par, int[] a, int[] w, int lbase,
+					int lsize, int rbase, int rsize, int wbase) {
 				super(par);
 				this.a = a;
 				this.w = w;
@@ -305,66 +316,62 @@ import edu.bsu.cs.sorting.javautil.generic.TimSort;
 				this.rbase = rbase;
 				this.rsize = rsize;
 				this.wbase = wbase;
-				this.gran = gran;
 			}
 
 			@Override
 			public final void compute() {
-				int[] a = this.a, w = this.w; // localize all params
-				int lb = this.lbase, ln = this.lsize, rb = this.rbase, rn = this.rsize, k = this.wbase, g = this.gran;
-				if (a == null || w == null || lb < 0 || rb < 0 || k < 0)
-					throw new IllegalStateException(); // hoist checks
-				for (int lh, rh;;) { // split larger, find point in smaller
-					if (ln >= rn) {
-						if (ln <= g)
-							break;
-						rh = rn;
-						int split = a[(lh = ln >>> 1) + lb];
-						for (int lo = 0; lo < rh;) {
-							int rm = (lo + rh) >>> 1;
-							if (split <= a[rm + rb])
-								rh = rm;
-							else
-								lo = rm + 1;
-						}
-					} else {
-						if (rn <= g)
-							break;
-						lh = ln;
-						int split = a[(rh = rn >>> 1) + rb];
-						for (int lo = 0; lo < lh;) {
-							int lm = (lo + lh) >>> 1;
-							if (split <= a[lm + lb])
-								lh = lm;
-							else
-								lo = lm + 1;
-						}
-					}
-					Merger m = new Merger(this, a, w, lb + lh, ln - lh,
-							rb + rh, rn - rh, k + lh + rh, g);
-					rn = rh;
-					ln = lh;
-					addToPendingCount(1);
-					m.fork();
-				}
+				leafMerge(a, w, lbase, lsize, rbase, rsize, wbase);
+				tryComplete();
+			}
+		}
 
-				int lf = lb + ln, rf = rb + rn; // index bounds
-				while (lb < lf && rb < rf) {
-					int t, al, ar;
-					if ((al = a[lb]) <= (ar = a[rb])) {
-						lb++;
-						t = al;
-					} else {
-						rb++;
-						t = ar;
-					}
-					w[k++] = t;
+		/**
+		 * @return how many of the first d elements of the stable merge of
+		 *         a[lb..lb+ln) and a[rb..rb+rn) come from the left run
+		 */
+		static int coRank(int[] a, int lb, int ln, int rb, int rn, int d) {
+			int lo = Math.max(0, d - rn), hi = Math.min(d, ln);
+			while (lo < hi) {
+				int m = (lo + hi) >>> 1;
+				// left[m] precedes right[d-m-1] when not greater (stable)
+				if (a[lb + m] <= a[rb + d - m - 1])
+					lo = m + 1;
+				else
+					hi = m;
+			}
+			return lo;
+		}
+
+		// sequential merge of a[lb..lb+ln) and a[rb..rb+rn) into w at k
+		static void merge(int[] a, int[] w, int lb, int ln, int rb, int rn,
+				int k) {
+			int lf = lb + ln, rf = rb + rn; // index bounds
+			while (lb < lf && rb < rf) {
+				int t, al, ar;
+				if ((al = a[lb]) <= (ar = a[rb])) {
+					lb++;
+					t = al;
+				} else {
+					rb++;
+					t = ar;
 				}
-				if (rb < rf)
-					System.arraycopy(a, rb, w, k, rf - rb);
-				else if (lb < lf)
-					System.arraycopy(a, lb, w, k, lf - lb);
-				tryComplete();
+				w[k++] = t;
+			}
+			if (rb < rf)
+				System.arraycopy(a, rb, w, k, rf - rb);
+			else if (lb < lf)
+				System.arraycopy(a, lb, w, k, lf - lb);
+		}
+
+		// a merge task's sequential merge, timed if sort events are on
+		static void leafMerge(int[] a, int[] w, int lb, int ln, int rb,
+				int rn, int k) {
+			if (SortEvents.ENABLED) {
+				MergeEvent event = SortEvents.begin(new MergeEvent());
+				merge(a, w, lb, ln, rb, rn, k);
+				SortEvents.commit(event, "ArraysParallelSort", ln + rn, -1);
+			} else {
+				merge(a, w, lb, ln, rb, rn, k);
 			}
 		}
 	} // FJInt
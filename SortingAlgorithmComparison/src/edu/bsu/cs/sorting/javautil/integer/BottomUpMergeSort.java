@@ -0,0 +1,277 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.bsu.cs.sorting.javautil.integer.ArraysParallelSortHelpers.FJInt;
+
+/**
+ * A bottom-up variant of LegacyMergeSort. Blocks of RUN_LENGTH / 2 or
+ * RUN_LENGTH elements, whichever leaves an even number of passes, are
+ * insertion sorted in place, then runs of doubling width are merged pairwise,
+ * ping-ponging between the array and one buffer, so the sorted result lands
+ * back in the array without LegacyMergeSort's clone of the input or its
+ * recursion. The buffer is the caller's or one pooled per calling thread.
+ * Buffers over MAX_POOLED_LENGTH ints aren't pooled, so one large sort
+ * doesn't pin its buffer on the thread, and releaseBuffer() drops the
+ * calling thread's pooled one.
+ *
+ * A pair of runs already in order at their boundary is copied instead of
+ * merged, and a pass whose boundaries are all in order means the array is
+ * sorted, so it and every later pass are skipped.
+ *
+ * parallelSort runs the block sorts, and each merge pass, as ForkJoin tasks
+ * over equal slices of the output; a slice that cuts a pair of runs finds
+ * its share of each run by co-ranking, so the last passes, with only one or
+ * two pairs, are as parallel as the first.
+ */
+public final class BottomUpMergeSort {
+
+	static final int RUN_LENGTH = 16;
+
+	/**
+	 * The minimum array length below which parallelSort sorts sequentially.
+	 */
+	private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
+
+	/**
+	 * The longest buffer kept for a thread's next sort, 4 MB.
+	 */
+	public static final int MAX_POOLED_LENGTH = 1 << 20;
+
+	// each thread's buffer, taken out while a sort of that thread uses it
+	private static final ThreadLocal<int[]> BUFFER = new ThreadLocal<>();
+
+	// prevent instantiation
+	private BottomUpMergeSort() {
+	}
+
+	public static void sort(int[] a) {
+		int[] buffer = takeBuffer(a.length);
+		try {
+			sort(a, buffer);
+		} finally {
+			giveBack(buffer);
+		}
+	}
+
+	/**
+	 * Sorts a using buffer, which must be at least as long, for the merges.
+	 */
+	public static void sort(int[] a, int[] buffer) {
+		int n = a.length;
+		checkBuffer(n, buffer);
+		int width = firstWidth(n);
+		for (int lo = 0; lo < n; lo += width) {
+			insertionSort(a, lo, Math.min(lo + width, n));
+		}
+		int[] src = a, dst = buffer;
+		for (long w = width; w < n && !inOrder(src, n, w); w <<= 1) {
+			for (long lo = 0; lo < n; lo += 2 * w) {
+				int mid = (int) Math.min(lo + w, n);
+				int hi = (int) Math.min(lo + 2 * w, n);
+				mergePair(src, dst, (int) lo, mid, hi);
+			}
+			int[] t = src;
+			src = dst;
+			dst = t;
+		}
+		if (src != a) {
+			System.arraycopy(src, 0, a, 0, n);
+		}
+	}
+
+	public static void parallelSort(int[] a) {
+		parallelSort(a, ForkJoinPool.commonPool());
+	}
+
+	public static void parallelSort(int[] a, ForkJoinPool pool) {
+		int[] buffer = takeBuffer(a.length);
+		try {
+			parallelSort(a, buffer, pool);
+		} finally {
+			giveBack(buffer);
+		}
+	}
+
+	/**
+	 * Sorts a as tasks of pool, using buffer, which must be at least as
+	 * long, for the merges.
+	 */
+	public static void parallelSort(int[] a, int[] buffer, ForkJoinPool pool) {
+		int n = a.length, p = pool.getParallelism();
+		checkBuffer(n, buffer);
+		if (n <= MIN_ARRAY_SORT_GRAN || p == 1) {
+			sort(a, buffer);
+			return;
+		}
+		int width = firstWidth(n);
+		int gran = Math.max(n / (p << 2), MIN_ARRAY_SORT_GRAN);
+		// whole blocks per block sort task
+		pool.invoke(new SortRuns(a, n, width, 0, n, gran / width * width));
+		int[] src = a, dst = buffer;
+		for (long w = width; w < n && !inOrder(src, n, w); w <<= 1) {
+			pool.invoke(new MergePass(src, dst, n, w, 0, n, gran));
+			int[] t = src;
+			src = dst;
+			dst = t;
+		}
+		if (src != a) {
+			System.arraycopy(src, 0, a, 0, n);
+		}
+	}
+
+	private static void checkBuffer(int n, int[] buffer) {
+		if (buffer.length < n) {
+			throw new IllegalArgumentException("buffer.length("
+					+ buffer.length + ") < a.length(" + n + ")");
+		}
+	}
+
+	// RUN_LENGTH, or half of it if that would leave an odd number of passes
+	private static int firstWidth(int n) {
+		int passes = 0;
+		for (long w = RUN_LENGTH; w < n; w <<= 1) {
+			passes++;
+		}
+		return (passes & 1) == 0 ? RUN_LENGTH : RUN_LENGTH >>> 1;
+	}
+
+	// with every run of width sorted, true if they are in order at their
+	// boundaries too, which makes all of a[0..n) sorted
+	private static boolean inOrder(int[] a, int n, long width) {
+		for (long b = width; b < n; b += width) {
+			if (a[(int) b - 1] > a[(int) b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void insertionSort(int[] a, int lo, int hi) {
+		for (int i = lo + 1; i < hi; i++) {
+			int ai = a[i];
+			int j = i - 1;
+			while (j >= lo && a[j] > ai) {
+				a[j + 1] = a[j];
+				j--;
+			}
+			a[j + 1] = ai;
+		}
+	}
+
+	// merges src[lo..mid) and src[mid..hi) into dst[lo..hi)
+	private static void mergePair(int[] src, int[] dst, int lo, int mid,
+			int hi) {
+		if (mid >= hi || src[mid - 1] <= src[mid]) {
+			System.arraycopy(src, lo, dst, lo, hi - lo);
+		} else {
+			FJInt.merge(src, dst, lo, mid - lo, mid, hi - mid, lo);
+		}
+	}
+
+	// insertion sorts the blocks of width in a[from..to), from being a
+	// multiple of width
+	static final class SortRuns extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int[] a;
+		final int n, width, from, to, gran;
+
+		SortRuns(int[] a, int n, int width, int from, int to, int gran) {
+			this.a = a;
+			this.n = n;
+			this.width = width;
+			this.from = from;
+			this.to = to;
+			this.gran = gran;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= gran) {
+				for (int lo = from; lo < to; lo += width) {
+					insertionSort(a, lo, Math.min(lo + width, n));
+				}
+				return;
+			}
+			int mid = from + (to - from) / (2 * width) * width;
+			invokeAll(new SortRuns(a, n, width, from, mid, gran),
+					new SortRuns(a, n, width, mid, to, gran));
+		}
+	}
+
+	// fills dst[from..to) for the pass merging runs of width of src
+	static final class MergePass extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int[] src, dst;
+		final int n, from, to, gran;
+		final long width;
+
+		MergePass(int[] src, int[] dst, int n, long width, int from, int to,
+				int gran) {
+			this.src = src;
+			this.dst = dst;
+			this.n = n;
+			this.width = width;
+			this.from = from;
+			this.to = to;
+			this.gran = gran;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > gran) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new MergePass(src, dst, n, width, from, mid, gran),
+						new MergePass(src, dst, n, width, mid, to, gran));
+				return;
+			}
+			for (long lo = from - from % (2 * width); lo < to; lo += 2 * width) {
+				int pairLo = (int) lo;
+				int mid = (int) Math.min(lo + width, n);
+				int hi = (int) Math.min(lo + 2 * width, n);
+				// this slice's share of the pair's output
+				int d0 = Math.max(from, pairLo) - pairLo;
+				int d1 = Math.min(to, hi) - pairLo;
+				if (mid >= hi || src[mid - 1] <= src[mid]) {
+					System.arraycopy(src, pairLo + d0, dst, pairLo + d0, d1
+							- d0);
+					continue;
+				}
+				int ln = mid - pairLo, rn = hi - mid;
+				int l0 = FJInt.coRank(src, pairLo, ln, mid, rn, d0);
+				int l1 = FJInt.coRank(src, pairLo, ln, mid, rn, d1);
+				FJInt.merge(src, dst, pairLo + l0, l1 - l0, mid + d0 - l0,
+						(d1 - l1) - (d0 - l0), pairLo + d0);
+			}
+		}
+	}
+
+	/**
+	 * Drops the calling thread's pooled buffer.
+	 */
+	public static void releaseBuffer() {
+		BUFFER.remove();
+	}
+
+	// the calling thread's buffer if it holds n ints, else a new one
+	private static int[] takeBuffer(int n) {
+		int[] buffer = BUFFER.get();
+		if (buffer == null || buffer.length < n) {
+			// the pooled one stays for the thread's smaller sorts
+			return new int[n];
+		}
+		BUFFER.set(null);
+		return buffer;
+	}
+
+	private static void giveBack(int[] buffer) {
+		if (buffer.length > MAX_POOLED_LENGTH) {
+			return;
+		}
+		int[] pooled = BUFFER.get();
+		if (pooled == null || pooled.length < buffer.length) {
+			BUFFER.set(buffer);
+		}
+	}
+}
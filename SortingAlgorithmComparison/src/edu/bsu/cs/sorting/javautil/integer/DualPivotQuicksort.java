@@ -29,6 +29,11 @@
 
 package edu.bsu.cs.sorting.javautil.integer;
 
+import edu.bsu.cs.sorting.buis.integer.IntRangeSorter;
+import edu.bsu.cs.sorting.events.LeafSortEvent;
+import edu.bsu.cs.sorting.events.PartitionEvent;
+import edu.bsu.cs.sorting.events.SortEvents;
+
 /**
  * This class implements the Dual-Pivot Quicksort algorithm by Vladimir
  * Yaroslavskiy, Jon Bentley, and Josh Bloch. The algorithm offers O(n log(n))
@@ -53,7 +58,65 @@ public final class DualPivotQuicksort {
 	}
 
 	public static void sort(int[] array) {
-		sort(array, 0, array.length-1, true);
+		sort(array, 0, array.length - 1, true);
+	}
+
+	/**
+	 * Sorts array by counting sort if its values span fewer than
+	 * COUNTING_SORT_RANGE_FACTOR times its length, and by Dual-Pivot
+	 * Quicksort otherwise. Unlike sort(int[]) it isn't in place: the
+	 * histogram takes up to COUNTING_SORT_RANGE_FACTOR * n ints.
+	 */
+	public static void sortCounting(int[] array) {
+		int n = array.length;
+		if (n >= COUNTING_SORT_THRESHOLD_FOR_INT) {
+			int min = array[0], max = array[0];
+			for (int i = 1; i < n; i++) {
+				int ai = array[i];
+				if (ai < min) {
+					min = ai;
+				} else if (ai > max) {
+					max = ai;
+				}
+			}
+			if (fitsCountingSort(n, min, max)) {
+				countingSort(array, 0, n - 1, min, max);
+				return;
+			}
+		}
+		sort(array, 0, n - 1, true);
+	}
+
+	/**
+	 * If the length of an array to be sorted is at least this constant, the
+	 * range of its values is checked to see if counting sort can be used.
+	 */
+	private static final int COUNTING_SORT_THRESHOLD_FOR_INT = 1 << 12;
+
+	/**
+	 * Counting sort is used when the values span no more than this many
+	 * times the number of elements, which bounds the histogram size.
+	 */
+	static final int COUNTING_SORT_RANGE_FACTOR = 4;
+
+	static boolean fitsCountingSort(int length, int min, int max) {
+		return (long) max - min < (long) COUNTING_SORT_RANGE_FACTOR * length;
+	}
+
+	/**
+	 * Sorts a[left..right], all of whose values lie in [min, max], by
+	 * counting each value.
+	 */
+	static void countingSort(int[] a, int left, int right, int min, int max) {
+		int[] count = new int[max - min + 1];
+		for (int i = left; i <= right; i++) {
+			count[a[i] - min]++;
+		}
+		for (int v = 0, k = left; k <= right; v++) {
+			for (int c = count[v]; c > 0; c--) {
+				a[k++] = v + min;
+			}
+		}
 	}
 
 	/**
@@ -70,83 +133,242 @@ public final class DualPivotQuicksort {
 	}
 
 	/**
-	 * Sorts the specified range of the array by Dual-Pivot Quicksort.
+	 * The smallest leaf threshold accepted by the leaf sort overloads. The
+	 * five pivot candidates only fit inside parts longer than this.
+	 */
+	public static final int MIN_LEAF_THRESHOLD = 8;
+
+	/**
+	 * Sorts the array with a caller-supplied sort (for example
+	 * SortingNetworks.LEAF) used in place of insertion sort on parts of at
+	 * most leafThreshold elements, as in IntroSort; the built-in threshold
+	 * is INSERTION_SORT_THRESHOLD - 1 in these terms. leafThreshold must
+	 * not be more than the leaf's maxLength(). A null leaf keeps the
+	 * built-in insertion sort, so only the threshold changes.
+	 */
+	public static void sort(int[] a, int leafThreshold, IntRangeSorter leaf) {
+		sort(a, 0, a.length - 1, leafThreshold, leaf);
+	}
+
+	public static void sort(int[] a, int left, int right, int leafThreshold,
+			IntRangeSorter leaf) {
+		if (leafThreshold < MIN_LEAF_THRESHOLD) {
+			throw new IllegalArgumentException("leafThreshold("
+					+ leafThreshold + ") < " + MIN_LEAF_THRESHOLD);
+		}
+		if (leaf != null && leafThreshold > leaf.maxLength()) {
+			throw new IllegalArgumentException("leafThreshold("
+					+ leafThreshold + ") > " + leaf.maxLength()
+					+ ", the most the leaf sorts");
+		}
+		// the private sort leaves parts shorter than its threshold
+		sort(a, left, right, true, leafThreshold + 1, leaf, 0);
+	}
+
+	private static void sort(int[] a, int left, int right, boolean leftmost) {
+		sort(a, left, right, leftmost, INSERTION_SORT_THRESHOLD, null, 0);
+	}
+
+	/*
+	 * Tuning parameters for the run detection and merge front end.
+	 */
+
+	/**
+	 * The maximum number of runs in merge sort.
+	 */
+	private static final int MAX_RUN_COUNT = 67;
+
+	/**
+	 * The maximum length of run in merge sort.
+	 */
+	private static final int MAX_RUN_LENGTH = 33;
+
+	/**
+	 * If the length of an array to be sorted is less than this constant,
+	 * Quicksort is used in preference to merge sort.
+	 */
+	private static final int QUICKSORT_THRESHOLD = 286;
+
+	/**
+	 * Sorts the array the way java.util.Arrays.sort does: arrays made of
+	 * fewer than MAX_RUN_COUNT ascending or descending runs are merged
+	 * rather than quicksorted. The plain sort(int[]) skips the run check.
+	 */
+	public static void sortAdaptive(int[] a) {
+		sort(a, 0, a.length - 1, null, 0, 0);
+	}
+
+	/**
+	 * Like sortAdaptive(int[]), but merges in work when it has room for
+	 * a.length ints instead of allocating.
+	 */
+	public static void sortAdaptive(int[] a, int[] work) {
+		sort(a, 0, a.length - 1, work, 0, work == null ? 0 : work.length);
+	}
+
+	/**
+	 * Sorts the specified range of the array using the given workspace array
+	 * slice if possible for merging
 	 *
-	 * 
-	 * 
 	 * @param a
 	 *            the array to be sorted
 	 * @param left
 	 *            the index of the first element, inclusive, to be sorted
 	 * @param right
 	 *            the index of the last element, inclusive, to be sorted
-	 * @param leftmost
-	 *            indicates if this part is the leftmost in the range
+	 * @param work
+	 *            a workspace array (slice)
+	 * @param workBase
+	 *            origin of usable space in work array
+	 * @param workLen
+	 *            usable size of work array
 	 */
-	private static void sort(int[] a, int left, int right, boolean leftmost) {
-		int length = right - left + 1;
+	public static void sort(int[] a, int left, int right, int[] work,
+			int workBase, int workLen) {
+		// Use Quicksort on small arrays
+		if (right - left < QUICKSORT_THRESHOLD) {
+			sort(a, left, right, true);
+			return;
+		}
 
-		// Use insertion sort on tiny arrays
-		if (length < INSERTION_SORT_THRESHOLD) {
-			if (leftmost) {
-				/*
-				 * Traditional (without sentinel) insertion sort, optimized for
-				 * server VM, is used in case of the leftmost part.
-				 */
-				for (int i = left, j = i; i < right; j = ++i) {
-					int ai = a[i + 1];
-					while (ai < a[j]) {
-						a[j + 1] = a[j];
-						if (j-- == left) {
-							break;
-						}
-					}
-					a[j + 1] = ai;
+		/*
+		 * Index run[i] is the start of i-th run (ascending or descending
+		 * sequence).
+		 */
+		int[] run = new int[MAX_RUN_COUNT + 1];
+		int count = 0;
+		run[0] = left;
+
+		// Check if the array is nearly sorted
+		for (int k = left; k < right; run[count] = k) {
+			if (a[k] < a[k + 1]) { // ascending
+				while (++k <= right && a[k - 1] <= a[k])
+					;
+			} else if (a[k] > a[k + 1]) { // descending
+				while (++k <= right && a[k - 1] >= a[k])
+					;
+				for (int lo = run[count] - 1, hi = k; ++lo < --hi;) {
+					int t = a[lo];
+					a[lo] = a[hi];
+					a[hi] = t;
 				}
-			} else {
-				/*
-				 * Skip the longest ascending sequence.
-				 */
-				do {
-					if (left >= right) {
+			} else { // equal
+				for (int m = MAX_RUN_LENGTH; ++k <= right && a[k - 1] == a[k];) {
+					if (--m == 0) {
+						sort(a, left, right, true);
 						return;
 					}
-				} while (a[++left] >= a[left - 1]);
+				}
+			}
 
-				/*
-				 * Every element from adjoining part plays the role of sentinel,
-				 * therefore this allows us to avoid the left range check on
-				 * each iteration. Moreover, we use the more optimized
-				 * algorithm, so called pair insertion sort, which is faster (in
-				 * the context of Quicksort) than traditional implementation of
-				 * insertion sort.
-				 */
-				for (int k = left; ++left <= right; k = ++left) {
-					int a1 = a[k], a2 = a[left];
+			/*
+			 * The array is not highly structured, use Quicksort instead of
+			 * merge sort.
+			 */
+			if (++count == MAX_RUN_COUNT) {
+				sort(a, left, right, true);
+				return;
+			}
+		}
 
-					if (a1 < a2) {
-						a2 = a1;
-						a1 = a[left];
-					}
-					while (a1 < a[--k]) {
-						a[k + 2] = a[k];
-					}
-					a[++k + 1] = a1;
+		// Check special cases
+		// Implementation note: variable "right" is increased by 1.
+		if (run[count] == right++) { // The last run contains one element
+			run[++count] = right;
+		} else if (count == 1) { // The array is already sorted
+			return;
+		}
+
+		// Determine alternation base for merge
+		byte odd = 0;
+		for (int n = 1; (n <<= 1) < count; odd ^= 1)
+			;
+
+		// Use or create temporary array b for merging
+		int[] b; // temp array; alternates with a
+		int ao, bo; // array offsets from 'left'
+		int blen = right - left; // space needed for b
+		if (work == null || workLen < blen || workBase + blen > work.length) {
+			work = new int[blen];
+			workBase = 0;
+		}
+		if (odd == 0) {
+			System.arraycopy(a, left, work, workBase, blen);
+			b = a;
+			bo = 0;
+			a = work;
+			ao = workBase - left;
+		} else {
+			b = work;
+			ao = 0;
+			bo = workBase - left;
+		}
 
-					while (a2 < a[--k]) {
-						a[k + 1] = a[k];
+		// Merging
+		for (int last; count > 1; count = last) {
+			for (int k = (last = 0) + 2; k <= count; k += 2) {
+				int hi = run[k], mi = run[k - 1];
+				for (int i = run[k - 2], p = i, q = mi; i < hi; ++i) {
+					if (q >= hi || p < mi && a[p + ao] <= a[q + ao]) {
+						b[i + bo] = a[p++ + ao];
+					} else {
+						b[i + bo] = a[q++ + ao];
 					}
-					a[k + 1] = a2;
 				}
-				int last = a[right];
+				run[++last] = hi;
+			}
+			if ((count & 1) != 0) {
+				for (int i = right, lo = run[count - 1]; --i >= lo; b[i + bo] = a[i
+						+ ao])
+					;
+				run[++last] = right;
+			}
+			int[] t = a;
+			a = b;
+			b = t;
+			int o = ao;
+			ao = bo;
+			bo = o;
+		}
+	}
 
-				while (last < a[--right]) {
-					a[right + 1] = a[right];
-				}
-				a[right + 1] = last;
+	/**
+	 * Sorts the specified range of the array by Dual-Pivot Quicksort.
+	 *
+	 * 
+	 * 
+	 * @param a
+	 *            the array to be sorted
+	 * @param left
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param right
+	 *            the index of the last element, inclusive, to be sorted
+	 * @param leftmost
+	 *            indicates if this part is the leftmost in the range
+	 * @param leafThreshold
+	 *            parts shorter than this are not partitioned further
+	 * @param leaf
+	 *            sorts those parts, or null for insertion sort
+	 * @param depth
+	 *            the recursion depth, for the sort phase events
+	 */
+	private static void sort(int[] a, int left, int right, boolean leftmost,
+			int leafThreshold, IntRangeSorter leaf, int depth) {
+		int length = right - left + 1;
+
+		// Use insertion sort on tiny arrays
+		if (length < leafThreshold) {
+			if (SortEvents.ENABLED) {
+				LeafSortEvent event = SortEvents.begin(new LeafSortEvent());
+				sortLeaf(a, left, right, leftmost, leaf);
+				SortEvents.commit(event, "DualPivotQuicksort", length, depth);
+			} else {
+				sortLeaf(a, left, right, leftmost, leaf);
 			}
 			return;
 		}
+		PartitionEvent partition = SortEvents.ENABLED ? SortEvents
+				.begin(new PartitionEvent()) : null;
 
 		// Inexpensive approximation of length / 7
 		int seventh = (length >> 3) + (length >> 6) + 1;
@@ -295,15 +517,24 @@ public final class DualPivotQuicksort {
 			a[right] = a[great + 1];
 			a[great + 1] = pivot2;
 
+			if (SortEvents.ENABLED) {
+				SortEvents.commit(partition, "DualPivotQuicksort", length,
+						depth);
+			}
+
 			// Sort left and right parts recursively, excluding known pivots
-			sort(a, left, less - 2, leftmost);
-			sort(a, great + 2, right, false);
+			sort(a, left, less - 2, leftmost, leafThreshold, leaf, depth + 1);
+			sort(a, great + 2, right, false, leafThreshold, leaf, depth + 1);
 
 			/*
 			 * If center part is too large (comprises > 4/7 of the array), swap
 			 * internal pivot values to ends.
 			 */
 			if (less < e1 && e5 < great) {
+				PartitionEvent center = SortEvents.ENABLED ? SortEvents
+						.begin(new PartitionEvent()) : null;
+				int centerLength = great - less + 1;
+
 				/*
 				 * Skip elements, which are equal to pivot values.
 				 */
@@ -362,10 +593,14 @@ public final class DualPivotQuicksort {
 						--great;
 					}
 				}
+				if (SortEvents.ENABLED) {
+					SortEvents.commit(center, "DualPivotQuicksort",
+							centerLength, depth);
+				}
 			}
 
 			// Sort center part recursively
-			sort(a, less, great, false);
+			sort(a, less, great, false, leafThreshold, leaf, depth + 1);
 
 		} else { // Partitioning with one pivot
 			/*
@@ -423,12 +658,81 @@ public final class DualPivotQuicksort {
 				}
 			}
 
+			if (SortEvents.ENABLED) {
+				SortEvents.commit(partition, "DualPivotQuicksort", length,
+						depth);
+			}
+
 			/*
 			 * Sort left and right parts recursively. All elements from center
 			 * part are equal and, therefore, already sorted.
 			 */
-			sort(a, left, less - 1, leftmost);
-			sort(a, great + 1, right, false);
+			sort(a, left, less - 1, leftmost, leafThreshold, leaf, depth + 1);
+			sort(a, great + 1, right, false, leafThreshold, leaf, depth + 1);
+		}
+	}
+
+	// sorts a part shorter than the leaf threshold, a[left..right]
+	private static void sortLeaf(int[] a, int left, int right,
+			boolean leftmost, IntRangeSorter leaf) {
+		if (leaf != null) {
+			leaf.sort(a, left, right + 1);
+		} else if (leftmost) {
+			/*
+			 * Traditional (without sentinel) insertion sort, optimized for
+			 * server VM, is used in case of the leftmost part.
+			 */
+			for (int i = left, j = i; i < right; j = ++i) {
+				int ai = a[i + 1];
+				while (ai < a[j]) {
+					a[j + 1] = a[j];
+					if (j-- == left) {
+						break;
+					}
+				}
+				a[j + 1] = ai;
+			}
+		} else {
+			/*
+			 * Skip the longest ascending sequence.
+			 */
+			do {
+				if (left >= right) {
+					return;
+				}
+			} while (a[++left] >= a[left - 1]);
+
+			/*
+			 * Every element from adjoining part plays the role of sentinel,
+			 * therefore this allows us to avoid the left range check on
+			 * each iteration. Moreover, we use the more optimized
+			 * algorithm, so called pair insertion sort, which is faster (in
+			 * the context of Quicksort) than traditional implementation of
+			 * insertion sort.
+			 */
+			for (int k = left; ++left <= right; k = ++left) {
+				int a1 = a[k], a2 = a[left];
+
+				if (a1 < a2) {
+					a2 = a1;
+					a1 = a[left];
+				}
+				while (a1 < a[--k]) {
+					a[k + 2] = a[k];
+				}
+				a[++k + 1] = a1;
+
+				while (a2 < a[--k]) {
+					a[k + 1] = a[k];
+				}
+				a[k + 1] = a2;
+			}
+			int last = a[right];
+
+			while (last < a[--right]) {
+				a[right + 1] = a[right];
+			}
+			a[right + 1] = last;
 		}
 	}
 
@@ -0,0 +1,272 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Sorts int keys that arrive in batches. Batches are appended to one
+ * pooled buffer, and every MIN_RUN_LENGTH or more keys are sealed into a
+ * run and sorted with TimSort on arrival, on the pushing thread or, given
+ * an Executor, as a task of it, overlapping with the ingest. Adjacent
+ * runs are then merged as they pile up, under TimSort's rules for its run
+ * stack, so there are only O(log n) runs, of geometrically decreasing
+ * lengths, at any time. Given an Executor, each merge is a task too,
+ * started once both its runs are in order, so push() only waits for the
+ * tasks when the buffer has to grow. finish() just merges the runs k ways,
+ * through a LoserTree or, given an Executor, in parallel chunks, which is
+ * O(n log log n) work instead of the O(n log n) of sorting everything at
+ * the end.
+ *
+ * Every sort and merge takes a TimSortContext from a pool and gives it
+ * back, reusing its TimSort and tmp array, so once warmed up the only
+ * array allocated is finish()'s result. finish() leaves
+ * the sorter empty, with its buffers kept for the next round. Not
+ * thread-safe: push() and finish() must come from one thread at a time.
+ */
+public final class IncrementalIntSorter {
+
+	public static final int MIN_RUN_LENGTH = 1 << 10;
+
+	// the largest array most VMs will allocate
+	private static final int MAX_KEYS = Integer.MAX_VALUE - 8;
+
+	private final Executor executor;
+	// completes when the run's sort and merges are done; null once known
+	// to be, and always without an executor
+	private final List<CompletableFuture<Void>> runDone = new ArrayList<>();
+	// contexts whose TimSort and tmp array the sorts and merges running
+	// have taken, given back when they end; guarded by itself
+	private final ArrayDeque<TimSortContext> contexts = new ArrayDeque<>();
+
+	private int[] buffer = new int[MIN_RUN_LENGTH];
+	private int size;
+	// start of the keys not yet sealed into a run
+	private int tailStart;
+
+	private int[] runFrom = new int[16], runTo = new int[16];
+	private int runCount;
+
+	private LoserTree tree;
+	private int treeCapacity;
+
+	/**
+	 * A sorter that sorts each run on the thread that pushes it.
+	 */
+	public IncrementalIntSorter() {
+		this(null);
+	}
+
+	/**
+	 * A sorter that sorts each run as a task of executor, or on the pushing
+	 * thread if it is null.
+	 */
+	public IncrementalIntSorter(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return the number of keys pushed since the last finish()
+	 */
+	public int size() {
+		return size;
+	}
+
+	public void push(int[] batch) {
+		push(batch, 0, batch.length);
+	}
+
+	/**
+	 * Adds batch[from..to).
+	 */
+	public void push(int[] batch, int from, int to) {
+		if (from < 0 || to > batch.length || from > to) {
+			throw new ArrayIndexOutOfBoundsException("[" + from + ", " + to
+					+ ") not in [0, " + batch.length + ")");
+		}
+		int length = to - from;
+		if (length > buffer.length - size) {
+			grow(length);
+		}
+		System.arraycopy(batch, from, buffer, size, length);
+		size += length;
+		if (size - tailStart >= MIN_RUN_LENGTH) {
+			seal();
+		}
+	}
+
+	private void grow(int length) {
+		long needed = (long) size + length;
+		if (needed > MAX_KEYS) {
+			throw new OutOfMemoryError(needed + " keys > " + MAX_KEYS);
+		}
+		// runs still being sorted hold the old buffer
+		await();
+		long capacity = Math.max(needed, buffer.length + (buffer.length >> 1));
+		buffer = Arrays.copyOf(buffer, (int) Math.min(capacity, MAX_KEYS));
+	}
+
+	// makes the tail a run and sorts it
+	private void seal() {
+		if (runCount == runFrom.length) {
+			runFrom = Arrays.copyOf(runFrom, runCount << 1);
+			runTo = Arrays.copyOf(runTo, runCount << 1);
+		}
+		int lo = tailStart, hi = size;
+		runFrom[runCount] = lo;
+		runTo[runCount] = hi;
+		runCount++;
+		tailStart = hi;
+		int[] a = buffer;
+		if (executor == null) {
+			sortRun(a, lo, hi);
+			runDone.add(null);
+		} else {
+			runDone.add(CompletableFuture.runAsync(() -> sortRun(a, lo, hi),
+					executor));
+		}
+		collapse();
+	}
+
+	private void sortRun(int[] a, int lo, int hi) {
+		TimSortContext context = takeContext();
+		try {
+			TimSort.sort(a, lo, hi, context);
+		} finally {
+			giveBack(context);
+		}
+	}
+
+	private int runLength(int i) {
+		return runTo[i] - runFrom[i];
+	}
+
+	// TimSort.mergeCollapse: merges runs until, for the last three runs X,
+	// Y and Z, X > Y + Z and Y > Z
+	private void collapse() {
+		while (runCount > 1) {
+			int n = runCount - 2;
+			if (n > 0 && runLength(n - 1) <= runLength(n) + runLength(n + 1)
+					|| n > 1 && runLength(n - 2) <= runLength(n)
+							+ runLength(n - 1)) {
+				if (runLength(n - 1) < runLength(n + 1)) {
+					n--;
+				}
+			} else if (runLength(n) > runLength(n + 1)) {
+				break;
+			}
+			mergeAt(n);
+		}
+	}
+
+	// merges runs i and i + 1, as a task once both are in order if there
+	// is an executor
+	private void mergeAt(int i) {
+		int lo = runFrom[i], mid = runTo[i], hi = runTo[i + 1];
+		runTo[i] = hi;
+		runCount--;
+		System.arraycopy(runFrom, i + 2, runFrom, i + 1, runCount - i - 1);
+		System.arraycopy(runTo, i + 2, runTo, i + 1, runCount - i - 1);
+		int[] a = buffer;
+		CompletableFuture<Void> left = runDone.get(i);
+		CompletableFuture<Void> right = runDone.remove(i + 1);
+		if (left == null && right == null) {
+			merge(a, lo, mid, hi);
+		} else {
+			runDone.set(i, orDone(left).runAfterBothAsync(orDone(right),
+					() -> merge(a, lo, mid, hi), executor));
+		}
+	}
+
+	private static CompletableFuture<Void> orDone(
+			CompletableFuture<Void> done) {
+		return done != null ? done : CompletableFuture.completedFuture(null);
+	}
+
+	private void merge(int[] a, int lo, int mid, int hi) {
+		if (a[mid - 1] <= a[mid]) {
+			// already in order
+			return;
+		}
+		int leftLength = mid - lo;
+		TimSortContext context = takeContext();
+		try {
+			int[] w = context.tmp(leftLength);
+			System.arraycopy(a, lo, w, 0, leftLength);
+			int l = 0, r = mid, k = lo;
+			while (l < leftLength && r < hi) {
+				a[k++] = (a[r] < w[l]) ? a[r++] : w[l++];
+			}
+			System.arraycopy(w, l, a, k, leftLength - l);
+		} finally {
+			giveBack(context);
+		}
+	}
+
+	// the most recently given back context, or a new one
+	private TimSortContext takeContext() {
+		synchronized (contexts) {
+			TimSortContext context = contexts.poll();
+			return context != null ? context : new TimSortContext();
+		}
+	}
+
+	private void giveBack(TimSortContext context) {
+		synchronized (contexts) {
+			contexts.push(context);
+		}
+	}
+
+	// waits for the runs being sorted and merged by the executor
+	private void await() {
+		try {
+			for (int i = 0; i < runDone.size(); i++) {
+				CompletableFuture<Void> done = runDone.set(i, null);
+				if (done != null) {
+					done.join();
+				}
+			}
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return all the keys pushed since the last finish(), in order
+	 */
+	public int[] finish() {
+		if (tailStart < size) {
+			seal();
+		}
+		await();
+		int[] sorted = new int[size];
+		if (executor != null && runCount > 1) {
+			int[] start = Arrays.copyOf(runFrom, runCount + 1);
+			start[runCount] = size;
+			ParallelMultiwayMerge.merge(buffer, start, sorted, Runtime
+					.getRuntime().availableProcessors(), executor);
+		} else if (runCount > 0) {
+			if (tree == null || runCount > treeCapacity) {
+				treeCapacity = Math.max(runCount, 16);
+				tree = new LoserTree(treeCapacity);
+			}
+			tree.merge(buffer, runFrom, runTo, runCount, sorted, 0);
+		}
+		size = 0;
+		tailStart = 0;
+		runCount = 0;
+		runDone.clear();
+		return sorted;
+	}
+}
@@ -0,0 +1,153 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.PhaseRunner;
+import edu.bsu.cs.sorting.javautil.integer.ArraysParallelSortHelpers.FJInt;
+
+/**
+ * Sorts int[]s with scratch space and task objects that it owns and keeps
+ * from one sort to the next, where the static entry points allocate them
+ * on every call: TimSort's instance, tmp array and run stack (kept in a
+ * TimSortContext), LegacyMergeSort's clone of the input, and the parallel
+ * sort's n-int workspace and task tree. Once the arrays have grown to the
+ * length being sorted, repeated sorts of batches that long allocate
+ * nothing.
+ *
+ * The parallel sort replaces the FJInt.Sorter tree, whose Relay, Merger
+ * and EmptyCompleter tasks are created as it splits, with the fixed set of
+ * tasks of a PhaseRunner: each run is an equal share of the array sorted
+ * by DualPivotQuicksort, and each merge slice finds its share of its pair
+ * of runs by co-ranking.
+ *
+ * Not thread-safe: give each sorting thread its own context.
+ */
+public final class IntSortContext {
+
+	/**
+	 * The minimum array length below which parallelSort sorts sequentially.
+	 */
+	private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
+
+	private final TimSortContext timSort = new TimSortContext();
+	private int[] work = new int[0];
+
+	private final PhaseRunner phases;
+	// the parallel sort in progress, merged through work
+	private int[] a;
+
+	public IntSortContext() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * A context whose parallelSort runs in pool.
+	 */
+	public IntSortContext(ForkJoinPool pool) {
+		phases = new PhaseRunner(pool, this::sortRun, this::mergeSlice,
+				this::inOrderAt);
+	}
+
+	/**
+	 * Sorts a by DualPivotQuicksort, which allocates nothing by itself.
+	 */
+	public void sort(int[] a) {
+		DualPivotQuicksort.sort(a, 0, a.length - 1);
+	}
+
+	/**
+	 * Sorts a by TimSort, reusing what the last TimSort here learned.
+	 */
+	public void timSort(int[] a) {
+		TimSort.sort(a, timSort);
+	}
+
+	/**
+	 * Sorts a by LegacyMergeSort, copying it into the workspace instead of
+	 * cloning it.
+	 */
+	public void mergeSort(int[] a) {
+		int n = a.length;
+		int[] aux = work(n);
+		System.arraycopy(a, 0, aux, 0, n);
+		LegacyMergeSort.sort(aux, a, 0, n);
+	}
+
+	public void parallelSort(int[] a) {
+		int n = a.length;
+		if (n <= MIN_ARRAY_SORT_GRAN || phases.parts() == 1) {
+			sort(a);
+			return;
+		}
+		this.a = a;
+		work(n);
+		try {
+			phases.sort(n);
+		} finally {
+			this.a = null;
+		}
+	}
+
+	public TimSortContext timSortContext() {
+		return timSort;
+	}
+
+	/**
+	 * Drops the workspace and TimSort's tmp, for a context done with large
+	 * sorts.
+	 */
+	public void release() {
+		work = new int[0];
+		timSort.releaseTmp();
+	}
+
+	private int[] work(int n) {
+		if (work.length < n) {
+			work = new int[n];
+		}
+		return work;
+	}
+
+	// the array the current phase reads and the one it writes
+	private int[] src() {
+		return phases.sourceIsArray() ? a : work;
+	}
+
+	private int[] dst() {
+		return phases.sourceIsArray() ? work : a;
+	}
+
+	private boolean inOrderAt(int b) {
+		int[] src = src();
+		return src[b - 1] <= src[b];
+	}
+
+	private void sortRun(int index) {
+		DualPivotQuicksort.sort(a, phases.bound(index),
+				phases.bound(index + 1) - 1);
+	}
+
+	private void mergeSlice(int index) {
+		PhaseRunner p = phases;
+		int[] src = src(), dst = dst();
+		int from = p.bound(index), to = p.bound(index + 1), w = p.width();
+		if (w == 0) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+		int pair = index - index % (2 * w);
+		int lo = p.bound(pair), mid = p.bound(pair + w);
+		int hi = p.bound(pair + 2 * w);
+		if (src[mid - 1] <= src[mid]) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+		// this slice's share of the pair's output
+		int d0 = from - lo, d1 = to - lo;
+		int ln = mid - lo, rn = hi - mid;
+		int l0 = FJInt.coRank(src, lo, ln, mid, rn, d0);
+		int l1 = FJInt.coRank(src, lo, ln, mid, rn, d1);
+		FJInt.merge(src, dst, lo + l0, l1 - l0, mid + d0 - l0, (d1 - l1)
+				- (d0 - l0), from);
+	}
+}
@@ -43,6 +43,18 @@ public class LegacyMergeSort {
         int[] aux = a.clone();
         sort(aux, a, 0, a.length);
     }
+
+    /**
+     * Sorts with a tuned replacement for INSERTIONSORT_THRESHOLD, which
+     * must be at least 2 for the recursion to stop.
+     */
+    public static void sort(int[] a, int insertionSortThreshold) {
+        if (insertionSortThreshold < 2)
+            throw new IllegalArgumentException("insertionSortThreshold(" +
+                                               insertionSortThreshold + ") < 2");
+        int[] aux = a.clone();
+        sort(aux, a, 0, a.length, insertionSortThreshold);
+    }
     
     /**
      * Tuning parameter: list size at or below which insertion sort will be
@@ -62,10 +74,15 @@ public class LegacyMergeSort {
     public static  void sort(int[] src, int[] dest,
                                   int low,
                                   int high) {
+        sort(src, dest, low, high, INSERTIONSORT_THRESHOLD);
+    }
+
+    private static void sort(int[] src, int[] dest, int low, int high,
+                             int insertionSortThreshold) {
         int length = high - low;
 
         // Insertion sort on smallest arrays
-        if (length < INSERTIONSORT_THRESHOLD) {
+        if (length < insertionSortThreshold) {
             for (int i=low; i<high; i++)
                 for (int j=i; j>low &&
                 		(dest[j-1] > dest[j]); j--)
@@ -75,8 +92,8 @@ public class LegacyMergeSort {
 
         // Recursively sort halves of dest into src
         int mid = (low + high) >>> 1; // right shift to divide by 2
-        sort(dest, src, low, mid);
-        sort(dest, src, mid, high);
+        sort(dest, src, low, mid, insertionSortThreshold);
+        sort(dest, src, mid, high, insertionSortThreshold);
         merge(src, dest, low, mid, high);
     }
     
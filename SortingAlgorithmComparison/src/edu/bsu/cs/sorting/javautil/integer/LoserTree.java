@@ -0,0 +1,244 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.Arrays;
+
+/**
+ * A k-way merge of sorted runs of int or long keys through a tournament
+ * tree of losers: tree[0] is the run holding the smallest head and
+ * tree[1..k) the loser of the match at each internal node, with the runs
+ * as leaves k through 2k - 1. Each key output replays only the log2(k)
+ * matches on its run's path to the root, one comparison per level against
+ * the stored loser, where a heap needs two. Ties go to the lower-numbered
+ * run, so equal keys come out in run order.
+ *
+ * The tree keeps each run's head itself (int keys widened to long), so it
+ * merges runs of an int[] or long[] with merge(), or runs it can't see,
+ * such as files, when the caller offers each run's first key, then after
+ * each peek() replaces the winner's head with its next key or retires it.
+ *
+ * One tree can be reused for any number of merges of up to maxRuns runs;
+ * neither way of merging allocates anything.
+ */
+public final class LoserTree {
+
+	private final int[] tree;
+	private final long[] head;
+	private final boolean[] done;
+	// where each run of the array being merged is up to, and ends
+	private final int[] pos, end;
+	private int runs;
+
+	public LoserTree(int maxRuns) {
+		if (maxRuns < 1) {
+			throw new IllegalArgumentException("maxRuns(" + maxRuns
+					+ ") < 1");
+		}
+		this.tree = new int[maxRuns];
+		this.head = new long[maxRuns];
+		this.done = new boolean[maxRuns];
+		this.pos = new int[maxRuns];
+		this.end = new int[maxRuns];
+	}
+
+	/**
+	 * Begins a merge of runs runs, all of them empty until offered a key.
+	 */
+	public void start(int runs) {
+		if (runs > tree.length) {
+			throw new IllegalArgumentException("runs(" + runs + ") > "
+					+ tree.length);
+		}
+		this.runs = runs;
+		Arrays.fill(done, 0, runs, true);
+	}
+
+	/**
+	 * Gives run its first key, between start() and build().
+	 */
+	public void offer(int run, long key) {
+		head[run] = key;
+		done[run] = false;
+	}
+
+	/**
+	 * Plays the first round, once every nonempty run has been offered.
+	 */
+	public void build() {
+		if (runs > 0) {
+			tree[0] = build(1);
+		}
+	}
+
+	public boolean isEmpty() {
+		return runs == 0 || done[tree[0]];
+	}
+
+	/**
+	 * @return the run holding the smallest head
+	 */
+	public int winner() {
+		return tree[0];
+	}
+
+	public long peek() {
+		return head[tree[0]];
+	}
+
+	/**
+	 * Replaces the winner's head with its next key and replays its matches.
+	 */
+	public void replace(long key) {
+		int winner = tree[0];
+		head[winner] = key;
+		replay(winner);
+	}
+
+	/**
+	 * Marks the winner's run empty and replays its matches.
+	 */
+	public void retire() {
+		int winner = tree[0];
+		done[winner] = true;
+		replay(winner);
+	}
+
+	/**
+	 * Merges src[from[r]..to[r]) for r < runs into dst starting at k.
+	 */
+	public void merge(int[] src, int[] from, int[] to, int runs, int[] dst,
+			int k) {
+		if (runs == 1) {
+			System.arraycopy(src, from[0], dst, k, to[0] - from[0]);
+			return;
+		}
+		int total = startArrays(from, to, runs);
+		for (int r = 0; r < runs; r++) {
+			if (pos[r] < end[r]) {
+				offer(r, src[pos[r]]);
+			}
+		}
+		build();
+		for (int stop = k + total; k < stop; k++) {
+			int winner = tree[0];
+			dst[k] = (int) head[winner];
+			if (++pos[winner] < end[winner]) {
+				head[winner] = src[pos[winner]];
+			} else {
+				done[winner] = true;
+			}
+			replay(winner);
+		}
+	}
+
+	/**
+	 * Merges src[from[r]..to[r]) for r < runs into dst starting at k.
+	 */
+	public void merge(long[] src, int[] from, int[] to, int runs,
+			long[] dst, int k) {
+		if (runs == 1) {
+			System.arraycopy(src, from[0], dst, k, to[0] - from[0]);
+			return;
+		}
+		int total = startArrays(from, to, runs);
+		for (int r = 0; r < runs; r++) {
+			if (pos[r] < end[r]) {
+				offer(r, src[pos[r]]);
+			}
+		}
+		build();
+		for (int stop = k + total; k < stop; k++) {
+			int winner = tree[0];
+			dst[k] = head[winner];
+			if (++pos[winner] < end[winner]) {
+				head[winner] = src[pos[winner]];
+			} else {
+				done[winner] = true;
+			}
+			replay(winner);
+		}
+	}
+
+	/**
+	 * Merges the runs a[start[r]..start[r+1]) into dst at start[0].
+	 */
+	public static void merge(int[] a, int[] start, int[] dst) {
+		int runs = start.length - 1;
+		if (runs < 1) {
+			return;
+		}
+		int[] from = Arrays.copyOf(start, runs);
+		int[] to = Arrays.copyOfRange(start, 1, runs + 1);
+		new LoserTree(runs).merge(a, from, to, runs, dst, start[0]);
+	}
+
+	/**
+	 * Merges the runs a[start[r]..start[r+1]) into dst at start[0].
+	 */
+	public static void merge(long[] a, int[] start, long[] dst) {
+		int runs = start.length - 1;
+		if (runs < 1) {
+			return;
+		}
+		int[] from = Arrays.copyOf(start, runs);
+		int[] to = Arrays.copyOfRange(start, 1, runs + 1);
+		new LoserTree(runs).merge(a, from, to, runs, dst, start[0]);
+	}
+
+	// starts a merge of array runs [from[r], to[r]), returning their total
+	private int startArrays(int[] from, int[] to, int runs) {
+		start(runs);
+		int total = 0;
+		for (int r = 0; r < runs; r++) {
+			pos[r] = from[r];
+			end[r] = to[r];
+			total += to[r] - from[r];
+		}
+		return total;
+	}
+
+	// replays the matches on winner's path with its new head
+	private void replay(int winner) {
+		boolean winnerDone = done[winner];
+		long winnerHead = head[winner];
+		for (int node = (winner + runs) >>> 1; node >= 1; node >>>= 1) {
+			int loser = tree[node];
+			if (done[loser]) {
+				continue;
+			}
+			long loserHead = head[loser];
+			if (winnerDone || loserHead < winnerHead
+					|| (loserHead == winnerHead && loser < winner)) {
+				tree[node] = winner;
+				winner = loser;
+				winnerDone = false;
+				winnerHead = loserHead;
+			}
+		}
+		tree[0] = winner;
+	}
+
+	// whether run i's head comes out before run j's
+	private boolean beats(int i, int j) {
+		if (done[j]) {
+			return true;
+		}
+		if (done[i]) {
+			return false;
+		}
+		return head[i] < head[j] || (head[i] == head[j] && i < j);
+	}
+
+	// plays the matches below node, returning the winner
+	private int build(int node) {
+		if (node >= runs) {
+			return node - runs;
+		}
+		int left = build(2 * node), right = build(2 * node + 1);
+		if (beats(left, right)) {
+			tree[node] = right;
+			return left;
+		}
+		tree[node] = left;
+		return right;
+	}
+}
@@ -0,0 +1,60 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+/**
+ * Multiway mergesort: runs of RUN_LENGTH elements, small enough to stay
+ * in cache, are sorted with DualPivotQuicksort, then fanIn runs at a time
+ * are merged through a LoserTree, ping-ponging between the array and
+ * one work array, until a single run is left. With fan-in k this takes
+ * log_k(n / RUN_LENGTH) passes over memory instead of the
+ * log_2(n / RUN_LENGTH) of a binary mergesort.
+ */
+public final class MultiwayMergeSort {
+
+	static final int RUN_LENGTH = 1 << 12;
+
+	public static final int DEFAULT_FAN_IN = 16;
+
+	// prevent instantiation
+	private MultiwayMergeSort() {
+	}
+
+	public static void sort(int[] a) {
+		sort(a, DEFAULT_FAN_IN);
+	}
+
+	public static void sort(int[] a, int fanIn) {
+		if (fanIn < 2) {
+			throw new IllegalArgumentException("fanIn(" + fanIn + ") < 2");
+		}
+		int n = a.length;
+		if (n <= RUN_LENGTH) {
+			DualPivotQuicksort.sort(a);
+			return;
+		}
+		for (int lo = 0; lo < n; lo += RUN_LENGTH) {
+			DualPivotQuicksort.sort(a, lo, Math.min(lo + RUN_LENGTH, n) - 1);
+		}
+
+		LoserTree tree = new LoserTree(fanIn);
+		int[] from = new int[fanIn], to = new int[fanIn];
+		int[] src = a, dst = new int[n];
+		for (long width = RUN_LENGTH; width < n; width *= fanIn) {
+			long group = width * fanIn;
+			for (long lo = 0; lo < n; lo += group) {
+				int runs = 0;
+				for (long r = lo; r < n && runs < fanIn; r += width) {
+					from[runs] = (int) r;
+					to[runs] = (int) Math.min(r + width, n);
+					runs++;
+				}
+				tree.merge(src, from, to, runs, dst, (int) lo);
+			}
+			int[] t = src;
+			src = dst;
+			dst = t;
+		}
+		if (src != a) {
+			System.arraycopy(src, 0, a, 0, n);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counting sort on a ForkJoinPool for int[] whose values span a
+ * narrow range: a parallel min/max scan, then per-task histograms summed
+ * pairwise, then a parallel fill of the array from the counts.
+ *
+ * The array is split into one histogram task per worker (fewer if that
+ * would leave tasks shorter than gran), and counting sort is only used
+ * when that many histograms, range ints each, fit in n ints. The counts
+ * are turned into start positions in place, so the scratch space is at
+ * most the n-int workspace the merging sorts allocate instead.
+ */
+final class ParallelCountingSort {
+
+	// prevent instantiation
+	private ParallelCountingSort() {
+	}
+
+	/**
+	 * Sorts a if its values span few enough to count them in n ints of
+	 * histograms, one for each of up to p tasks.
+	 *
+	 * @return false, leaving a unchanged, if the range is too wide
+	 */
+	static boolean sort(int[] a, int gran, int p, ForkJoinPool pool) {
+		int n = a.length;
+		int[] minMax = pool.invoke(new MinMax(a, 0, n, gran));
+		int min = minMax[0], max = minMax[1];
+		// Histogram halves a[lo..hi) until a part is no longer than leaf
+		int leaf = Math.max(gran, (n + p - 1) / p), leaves = 1;
+		for (int length = n; length > leaf; length = (length + 1) >>> 1) {
+			leaves <<= 1;
+		}
+		long range = (long) max - min + 1;
+		if (range * leaves > n) {
+			return false;
+		}
+		int[] start = pool.invoke(new Histogram(a, 0, n, min, (int) range,
+				leaf));
+
+		// start[v] becomes where the copies of value v + min begin
+		for (int v = 0, sum = 0; v < range; v++) {
+			int count = start[v];
+			start[v] = sum;
+			sum += count;
+		}
+		pool.invoke(new Fill(a, start, min, 0, (int) range, gran));
+		return true;
+	}
+
+	static final class MinMax extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+		final int[] a;
+		final int lo, hi, gran;
+
+		MinMax(int[] a, int lo, int hi, int gran) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.gran = gran;
+		}
+
+		@Override
+		protected int[] compute() {
+			if (hi - lo <= gran) {
+				int min = a[lo], max = a[lo];
+				for (int i = lo + 1; i < hi; i++) {
+					int ai = a[i];
+					if (ai < min) {
+						min = ai;
+					} else if (ai > max) {
+						max = ai;
+					}
+				}
+				return new int[] { min, max };
+			}
+			int mid = (lo + hi) >>> 1;
+			MinMax left = new MinMax(a, lo, mid, gran);
+			left.fork();
+			int[] right = new MinMax(a, mid, hi, gran).compute();
+			int[] result = left.join();
+			result[0] = Math.min(result[0], right[0]);
+			result[1] = Math.max(result[1], right[1]);
+			return result;
+		}
+	}
+
+	static final class Histogram extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+		final int[] a;
+		final int lo, hi, min, range, gran;
+
+		Histogram(int[] a, int lo, int hi, int min, int range, int gran) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.min = min;
+			this.range = range;
+			this.gran = gran;
+		}
+
+		@Override
+		protected int[] compute() {
+			if (hi - lo <= gran) {
+				int[] count = new int[range];
+				for (int i = lo; i < hi; i++) {
+					count[a[i] - min]++;
+				}
+				return count;
+			}
+			int mid = (lo + hi) >>> 1;
+			Histogram left = new Histogram(a, lo, mid, min, range, gran);
+			left.fork();
+			int[] right = new Histogram(a, mid, hi, min, range, gran)
+					.compute();
+			int[] count = left.join();
+			for (int v = 0; v < range; v++) {
+				count[v] += right[v];
+			}
+			return count;
+		}
+	}
+
+	// fills a with the values vLo + min .. vHi - 1 + min, splitting the
+	// value range until each task writes no more than gran elements; the
+	// copies of the last value end at a.length
+	static final class Fill extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int[] a, start;
+		final int min, vLo, vHi, gran;
+
+		Fill(int[] a, int[] start, int min, int vLo, int vHi, int gran) {
+			this.a = a;
+			this.start = start;
+			this.min = min;
+			this.vLo = vLo;
+			this.vHi = vHi;
+			this.gran = gran;
+		}
+
+		private int end(int v) {
+			return v + 1 < start.length ? start[v + 1] : a.length;
+		}
+
+		@Override
+		protected void compute() {
+			if (vHi - vLo == 1 || end(vHi - 1) - start[vLo] <= gran) {
+				for (int v = vLo; v < vHi; v++) {
+					Arrays.fill(a, start[v], end(v), v + min);
+				}
+				return;
+			}
+			int vMid = (vLo + vHi) >>> 1;
+			invokeAll(new Fill(a, start, min, vLo, vMid, gran), new Fill(a,
+					start, min, vMid, vHi, gran));
+		}
+	}
+}
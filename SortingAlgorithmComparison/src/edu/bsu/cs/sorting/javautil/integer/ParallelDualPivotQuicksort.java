@@ -1,6 +1,8 @@
 package edu.bsu.cs.sorting.javautil.integer;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class ParallelDualPivotQuicksort {
 	/**
@@ -14,20 +16,117 @@ public class ParallelDualPivotQuicksort {
 	private ParallelDualPivotQuicksort() {
 	}
 
+	/**
+	 * How the sorted pieces are merged.
+	 */
+	public enum MergeMode {
+		/**
+		 * Split the larger run at its midpoint and binary search the other,
+		 * recursively, as Arrays.parallelSort does.
+		 */
+		BINARY_SPLIT,
+		/**
+		 * Divide each merge's output into equal chunks by co-ranking, one
+		 * chunk per worker.
+		 */
+		MERGE_PATH,
+		/**
+		 * Sort one run per worker and merge all of them in one k-way pass.
+		 */
+		K_WAY
+	}
+
 	public static void sort(int[] a) {
-		int n = a.length, p, g;
-		if (n <= MIN_ARRAY_SORT_GRAN
+		sort(a, MIN_ARRAY_SORT_GRAN);
+	}
+
+	/**
+	 * Sorts with a tuned replacement for MIN_ARRAY_SORT_GRAN. Arrays whose
+	 * values span a narrow range are counting sorted instead, with the
+	 * histogram built in parallel in no more than the n ints of workspace
+	 * the merge would take.
+	 */
+	public static void sort(int[] a, int minArraySortGran) {
+		sort(a, minArraySortGran, MergeMode.BINARY_SPLIT);
+	}
+
+	public static void sort(int[] a, MergeMode mode) {
+		sort(a, MIN_ARRAY_SORT_GRAN, mode);
+	}
+
+	public static void sort(int[] a, int minArraySortGran, MergeMode mode) {
+		int n = a.length, p;
+		if (n <= minArraySortGran
 				|| (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-			DualPivotQuicksort.sort(a, 0, n - 1);
+			DualPivotQuicksort.sort(a);
 		else
-			new ArraysParallelSortHelpers.FJInt.Sorter(
-					null,
-					a,
-					new int[n],
-					0,
-					n,
-					0,
-					((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN
-							: g).invoke();
+			sortInPool(a, minArraySortGran, mode, p, true);
+	}
+
+	/**
+	 * Sorts in the given pool, cutting the work for its parallelism.
+	 */
+	public static void sort(int[] a, ForkJoinPool pool) {
+		sort(a, ParallelSortConfig.builder().pool(pool).build());
+	}
+
+	/**
+	 * Sorts in the given pool, cutting the work for at most parallelism
+	 * workers.
+	 */
+	public static void sort(int[] a, ForkJoinPool pool, int parallelism) {
+		sort(a, ParallelSortConfig.builder().pool(pool).parallelism(
+				parallelism).build());
+	}
+
+	/**
+	 * Sorts one run per processor, each on its own task of executor, then
+	 * merges them k ways, also on executor. With
+	 * SortThreads.perTaskExecutor() every task gets its own (virtual,
+	 * where available) thread.
+	 */
+	public static void sort(int[] a, Executor executor) {
+		sort(a, ParallelSortConfig.builder().executor(executor).build());
+	}
+
+	public static void sort(int[] a, ParallelSortConfig config) {
+		int n = a.length, p = config.parallelism(), g = config.granularity();
+		if (n <= g || p == 1)
+			DualPivotQuicksort.sort(a);
+		else if (config.executor() != null)
+			ParallelMultiwayMerge.sort(a, new int[n], Math.min(p, n / g), p,
+					config.executor());
+		else
+			config.pool().invoke(ForkJoinTask.adapt(() -> sortInPool(a, g,
+					config.mergeMode(), p, true)));
+	}
+
+	/**
+	 * The parallel part of the sorts here and in ParallelTimSort. Forks go
+	 * to the pool of the calling worker, or to the common pool when called
+	 * from outside any pool.
+	 */
+	static void sortInPool(int[] a, int minArraySortGran, MergeMode mode,
+			int p, boolean counting) {
+		int n = a.length, g;
+		if (counting
+				&& ParallelCountingSort.sort(a, minArraySortGran, p,
+						ForkJoinTask.getPool() == null ? ForkJoinPool
+								.commonPool() : ForkJoinTask.getPool()))
+			return;
+		g = ((g = n / (p << 2)) <= minArraySortGran) ? minArraySortGran : g;
+		switch (mode) {
+		case K_WAY:
+			ParallelMultiwayMerge.sort(a, new int[n],
+					Math.min(p, n / minArraySortGran), p);
+			break;
+		case MERGE_PATH:
+			new ArraysParallelSortHelpers.FJInt.Sorter(null, a, new int[n], 0,
+					n, 0, g, p).invoke();
+			break;
+		default:
+			new ArraysParallelSortHelpers.FJInt.Sorter(null, a, new int[n], 0,
+					n, 0, g).invoke();
+		}
 	}
 }
@@ -0,0 +1,174 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The k-way alternative to the binary merge tree of FJInt.Sorter: cut the
+ * array into runs, sort every run in parallel, then merge all the runs in
+ * a single pass. The output is divided into equal chunks up front; the
+ * split of each chunk across the runs is found by a multi-sequence
+ * selection, so each chunk is merged independently, with a LoserTree
+ * over the run heads.
+ */
+final class ParallelMultiwayMerge {
+
+	// prevent instantiation
+	private ParallelMultiwayMerge() {
+	}
+
+	/**
+	 * Sorts a, using w (at least a.length long) as the merge source.
+	 */
+	static void sort(int[] a, int[] w, int runs, int parts) {
+		sort(a, w, runs, parts, null);
+	}
+
+	/**
+	 * Like sort(a, w, runs, parts), but runs the run sorts and the merge
+	 * chunks as tasks of executor, or as ForkJoinTasks if it is null.
+	 */
+	static void sort(int[] a, int[] w, int runs, int parts, Executor executor) {
+		int n = a.length;
+		int[] start = new int[runs + 1];
+		for (int r = 0; r <= runs; r++) {
+			start[r] = (int) ((long) n * r / runs);
+		}
+		List<Runnable> tasks = new ArrayList<>(runs);
+		for (int r = 0; r < runs; r++) {
+			int lo = start[r], hi = start[r + 1];
+			tasks.add(() -> {
+				DualPivotQuicksort.sort(a, lo, hi - 1);
+				System.arraycopy(a, lo, w, lo, hi - lo);
+			});
+		}
+		runAll(tasks, executor);
+		merge(w, start, a, parts, executor);
+	}
+
+	// runs every task and waits for all of them
+	static void runAll(List<Runnable> tasks, Executor executor) {
+		if (executor == null) {
+			List<ForkJoinTask<?>> fjTasks = new ArrayList<>(tasks.size());
+			for (Runnable task : tasks) {
+				fjTasks.add(ForkJoinTask.adapt(task));
+			}
+			ForkJoinTask.invokeAll(fjTasks);
+			return;
+		}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = CompletableFuture.runAsync(tasks.get(i), executor);
+		}
+		try {
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Merges the sorted runs src[start[r]..start[r+1]) into dst at
+	 * start[0], in up to parts chunks merged in parallel on executor (or
+	 * as ForkJoinTasks if it is null).
+	 */
+	static void merge(int[] src, int[] start, int[] dst, int parts,
+			Executor executor) {
+		int runs = start.length - 1;
+		int base = start[0], n = start[runs] - base;
+		parts = Math.max(1, Math.min(parts, n));
+		int[][] split = new int[parts + 1][];
+		split[0] = Arrays.copyOf(start, runs);
+		split[parts] = Arrays.copyOfRange(start, 1, runs + 1);
+		for (int j = 1; j < parts; j++) {
+			split[j] = select(src, start, (int) ((long) n * j / parts));
+		}
+		List<Runnable> tasks = new ArrayList<>(parts);
+		for (int j = 0; j < parts; j++) {
+			int[] from = split[j], to = split[j + 1];
+			int k = base + (int) ((long) n * j / parts);
+			tasks.add(() -> mergeChunk(src, from, to, dst, k));
+		}
+		runAll(tasks, executor);
+	}
+
+	/**
+	 * @return for each run, where the first d (at least 1) elements of the
+	 *         merged output stop in that run; ties go to earlier runs first
+	 */
+	static int[] select(int[] a, int[] start, int d) {
+		int runs = start.length - 1;
+		// smallest v with at least d elements <= v
+		long lo = Integer.MIN_VALUE, hi = Integer.MAX_VALUE;
+		while (lo < hi) {
+			long mid = (lo + hi) >> 1;
+			long count = 0;
+			for (int r = 0; r < runs; r++) {
+				count += upperBound(a, start[r], start[r + 1], (int) mid)
+						- start[r];
+			}
+			if (count >= d) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		int v = (int) lo;
+		int[] split = new int[runs];
+		int need = d;
+		for (int r = 0; r < runs; r++) {
+			split[r] = lowerBound(a, start[r], start[r + 1], v);
+			need -= split[r] - start[r];
+		}
+		for (int r = 0; r < runs && need > 0; r++) {
+			int take = Math.min(need, upperBound(a, split[r], start[r + 1], v)
+					- split[r]);
+			split[r] += take;
+			need -= take;
+		}
+		return split;
+	}
+
+	// first index in a[lo..hi) holding a value >= key
+	private static int lowerBound(int[] a, int lo, int hi, int key) {
+		while (lo < hi) {
+			int m = (lo + hi) >>> 1;
+			if (a[m] < key) {
+				lo = m + 1;
+			} else {
+				hi = m;
+			}
+		}
+		return lo;
+	}
+
+	// first index in a[lo..hi) holding a value > key
+	private static int upperBound(int[] a, int lo, int hi, int key) {
+		while (lo < hi) {
+			int m = (lo + hi) >>> 1;
+			if (a[m] <= key) {
+				lo = m + 1;
+			} else {
+				hi = m;
+			}
+		}
+		return lo;
+	}
+
+	// merges src[from[r]..to[r]) for every run r into dst starting at k
+	static void mergeChunk(int[] src, int[] from, int[] to, int[] dst, int k) {
+		new LoserTree(from.length).merge(src, from, to, from.length, dst, k);
+	}
+}
@@ -0,0 +1,141 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort.MergeMode;
+
+/**
+ * Where and how finely ParallelDualPivotQuicksort and ParallelTimSort
+ * split their work. Build one with builder(); the defaults reproduce the
+ * plain sort(int[]) methods, which run on the common pool.
+ *
+ * The parallelism cap sets how many pieces the array is cut into (about
+ * four per unit of parallelism) and so limits how many workers can be
+ * busy at once. To bound the number of threads outright, also supply a
+ * pool of that size.
+ *
+ * An Executor that is not a ForkJoinPool cannot run the CountedCompleter
+ * task trees, so with one the array is cut into one run per unit of
+ * parallelism, the runs are sorted as executor tasks, and they are merged
+ * k ways in chunks that are also executor tasks.
+ */
+public final class ParallelSortConfig {
+
+	public static final int DEFAULT_GRANULARITY = 1 << 13;
+
+	public static final ParallelSortConfig DEFAULTS = builder().build();
+
+	private final ForkJoinPool pool;
+	private final Executor executor;
+	private final int parallelism;
+	private final int granularity;
+	private final MergeMode mergeMode;
+
+	private ParallelSortConfig(Builder builder) {
+		this.pool = builder.pool;
+		this.executor = builder.executor;
+		this.parallelism = builder.parallelism;
+		this.granularity = builder.granularity;
+		this.mergeMode = builder.mergeMode;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the pool to run in, the common pool unless a pool or an
+	 *         executor was given
+	 */
+	public ForkJoinPool pool() {
+		return (pool == null) ? ForkJoinPool.commonPool() : pool;
+	}
+
+	/**
+	 * @return the executor that is not a ForkJoinPool, or null
+	 */
+	public Executor executor() {
+		return executor;
+	}
+
+	/**
+	 * @return the parallelism cap, or the pool's parallelism if smaller or
+	 *         none was set
+	 */
+	public int parallelism() {
+		int available = (executor != null) ? Runtime.getRuntime()
+				.availableProcessors() : (pool == null) ? ForkJoinPool
+				.getCommonPoolParallelism() : pool.getParallelism();
+		return (parallelism == 0) ? available : (executor != null) ? parallelism
+				: Math.min(parallelism, available);
+	}
+
+	public int granularity() {
+		return granularity;
+	}
+
+	public MergeMode mergeMode() {
+		return mergeMode;
+	}
+
+	public static final class Builder {
+		private ForkJoinPool pool;
+		private Executor executor;
+		private int parallelism;
+		private int granularity = DEFAULT_GRANULARITY;
+		private MergeMode mergeMode = MergeMode.BINARY_SPLIT;
+
+		private Builder() {
+		}
+
+		public Builder pool(ForkJoinPool pool) {
+			this.pool = pool;
+			this.executor = null;
+			return this;
+		}
+
+		/**
+		 * Runs on executor, which is used as a pool if it is a
+		 * ForkJoinPool.
+		 */
+		public Builder executor(Executor executor) {
+			if (executor instanceof ForkJoinPool) {
+				return pool((ForkJoinPool) executor);
+			}
+			this.pool = null;
+			this.executor = executor;
+			return this;
+		}
+
+		public Builder parallelism(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException("parallelism("
+						+ parallelism + ") < 1");
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		public Builder granularity(int granularity) {
+			if (granularity < 1) {
+				throw new IllegalArgumentException("granularity("
+						+ granularity + ") < 1");
+			}
+			this.granularity = granularity;
+			return this;
+		}
+
+		public Builder mergeMode(MergeMode mergeMode) {
+			if (mergeMode == null) {
+				throw new NullPointerException("mergeMode");
+			}
+			this.mergeMode = mergeMode;
+			return this;
+		}
+
+		public ParallelSortConfig build() {
+			return new ParallelSortConfig(this);
+		}
+	}
+}
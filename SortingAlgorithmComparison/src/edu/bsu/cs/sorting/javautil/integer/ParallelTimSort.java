@@ -31,10 +31,9 @@ package edu.bsu.cs.sorting.javautil.integer;
 import java.lang.reflect.Array;
 import java.util.Comparator;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import edu.bsu.cs.sorting.javautil.integer.TimSort;
-import edu.bsu.cs.sorting.javautil.integer.ArraysParallelSortHelpers.FJObject;
-import edu.bsu.cs.sorting.javautil.integer.ArraysParallelSortHelpers.FJObject.Sorter;
 
 
 public class ParallelTimSort {
@@ -126,10 +125,17 @@ public class ParallelTimSort {
      * @since 1.8
      */
     public static void sort(int[] a) {
+    	sort(a, MIN_ARRAY_SORT_GRAN);
+    }
+
+    /**
+     * Sorts with a tuned replacement for MIN_ARRAY_SORT_GRAN.
+     */
+    public static void sort(int[] a, int minArraySortGran) {
 		int n = a.length, p, g;
-		if (n <= MIN_ARRAY_SORT_GRAN
+		if (n <= minArraySortGran
 				|| (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-			TimSort.sort(a, 0, n - 1, null, 0, 0);
+			TimSort.sort(a, 0, n, null, 0, 0);
 		else
 			new ArraysParallelSortHelpers.FJInt.Sorter(
 					null,
@@ -138,8 +144,36 @@ public class ParallelTimSort {
 					0,
 					n,
 					0,
-					((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN
+					((g = n / (p << 2)) <= minArraySortGran) ? minArraySortGran
 							: g).invoke();
 
     }
+
+    /**
+     * Sorts in the given pool, cutting the work for its parallelism.
+     */
+    public static void sort(int[] a, ForkJoinPool pool) {
+    	sort(a, ParallelSortConfig.builder().pool(pool).build());
+    }
+
+    /**
+     * Sorts in the given pool, cutting the work for at most parallelism
+     * workers.
+     */
+    public static void sort(int[] a, ForkJoinPool pool, int parallelism) {
+    	sort(a, ParallelSortConfig.builder().pool(pool).parallelism(parallelism)
+    			.build());
+    }
+
+    public static void sort(int[] a, ParallelSortConfig config) {
+		int n = a.length, p = config.parallelism(), g = config.granularity();
+		if (n <= g || p == 1)
+			TimSort.sort(a, 0, n, null, 0, 0);
+		else if (config.executor() != null)
+			ParallelMultiwayMerge.sort(a, new int[n], Math.min(p, n / g), p,
+					config.executor());
+		else
+			config.pool().invoke(ForkJoinTask.adapt(() -> ParallelDualPivotQuicksort
+					.sortInPool(a, g, config.mergeMode(), p, false)));
+    }
 }
@@ -0,0 +1,72 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread-per-task execution for the coarse-grained parallel sorts, using
+ * virtual threads when the running JVM has them (JDK 21 and later) and
+ * new daemon platform threads otherwise. The project compiles against
+ * JDK 17, so the virtual thread API is reached by reflection.
+ *
+ * With virtual threads, a sort called from thousands of concurrent
+ * request handlers puts its chunk sorts on the same carrier threads as
+ * the handlers, which the scheduler shares fairly, instead of queueing
+ * behind them in the common ForkJoinPool.
+ */
+public final class SortThreads {
+
+	private static final ThreadFactory VIRTUAL_FACTORY = virtualFactory();
+
+	private static final Executor PER_TASK = (VIRTUAL_FACTORY != null) ? task -> VIRTUAL_FACTORY
+			.newThread(task).start() : SortThreads::startPlatform;
+
+	// prevent instantiation
+	private SortThreads() {
+	}
+
+	// Thread.ofVirtual().factory(), or null before JDK 21
+	private static ThreadFactory virtualFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method factory = Class.forName("java.lang.Thread$Builder")
+					.getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static void startPlatform(Runnable task) {
+		Thread thread = new Thread(task, "sort-task");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public static boolean virtualThreadsAvailable() {
+		return VIRTUAL_FACTORY != null;
+	}
+
+	/**
+	 * @return an executor that runs each task on a new thread, virtual if
+	 *         possible
+	 */
+	public static Executor perTaskExecutor() {
+		return PER_TASK;
+	}
+
+	/**
+	 * @return a factory for caller threads, virtual if possible
+	 */
+	public static ThreadFactory callerThreadFactory() {
+		if (VIRTUAL_FACTORY != null) {
+			return VIRTUAL_FACTORY;
+		}
+		return task -> {
+			Thread thread = new Thread(task, "sort-caller");
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
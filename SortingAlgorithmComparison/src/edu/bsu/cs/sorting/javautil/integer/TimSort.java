@@ -29,6 +29,10 @@
  */
 package edu.bsu.cs.sorting.javautil.integer;
 
+import edu.bsu.cs.sorting.events.MergeEvent;
+import edu.bsu.cs.sorting.events.RunDetectionEvent;
+import edu.bsu.cs.sorting.events.SortEvents;
+
 /**
  * A stable, adaptive, iterative mergesort that requires far fewer than n lg(n)
  * comparisons when running on partially sorted arrays, while offering
@@ -82,9 +86,16 @@ public class TimSort {
 	private static final int MIN_MERGE = 32;
 
 	/**
-	 * The array being sorted.
+	 * The run stack length that suffices for any array when runs are at
+	 * least MIN_MERGE / 2 long.
 	 */
-	private final int[] a;
+	private static final int MAX_STACK_LENGTH = 40;
+
+	/**
+	 * The array being sorted, null between the sorts of an instance a
+	 * TimSortContext keeps.
+	 */
+	private int[] a;
 
 	/**
 	 * When we get into galloping mode, we stay there until both runs win less
@@ -97,7 +108,13 @@ public class TimSort {
 	 * MIN_GALLOP. The mergeLo and mergeHi methods nudge it higher for random
 	 * data, and lower for highly structured data.
 	 */
-	private int minGallop = MIN_GALLOP;
+	private int minGallop;
+
+	/**
+	 * MIN_GALLOP for this sort, which may have been tuned away from the
+	 * default.
+	 */
+	private final int gallopThreshold;
 
 	/**
 	 * Maximum initial size of tmp array, which is used for merging. The array
@@ -130,9 +147,29 @@ public class TimSort {
 	private final int[] runBase;
 	private final int[] runLen;
 
+	/**
+	 * Where the learned minGallop, tmp and the counts below go when the sort
+	 * is done, or null.
+	 */
+	private final TimSortContext context;
+	private long runs, runElements, extendedRuns, merges;
+	private long gallopRounds, gallopMisses;
+
 	public static void sort(int[] a) {
 		sort(a, 0, a.length, null, 0, 0);
 	}
+
+	/**
+	 * Sorts a starting from what context learned from earlier sorts, and
+	 * adds what this one learns.
+	 */
+	public static void sort(int[] a, TimSortContext context) {
+		sort(a, 0, a.length, context);
+	}
+
+	public static void sort(int[] a, int lo, int hi, TimSortContext context) {
+		sort(a, lo, hi, null, 0, 0, MIN_MERGE, MIN_GALLOP, context);
+	}
 	/**
 	 * Creates a TimSort instance to maintain the state of an ongoing sort.
 	 *
@@ -146,9 +183,27 @@ public class TimSort {
 	 *            origin of usable space in work array
 	 * @param workLen
 	 *            usable size of work array
+	 * @param minMerge
+	 *            replaces MIN_MERGE
+	 * @param gallopThreshold
+	 *            replaces MIN_GALLOP
+	 * @param context
+	 *            learned state to start from, or null
 	 */
-	private TimSort(int[] a, int[] work, int workBase, int workLen) {
+	private TimSort(int[] a, int[] work, int workBase, int workLen,
+			int minMerge, int gallopThreshold, TimSortContext context) {
 		this.a = a;
+		this.gallopThreshold = gallopThreshold;
+		this.minGallop = gallopThreshold;
+		this.context = context;
+		if (context != null) {
+			if (context.minGallop() > 0)
+				minGallop = context.minGallop();
+			if (work == null && context.tmp != null) {
+				work = context.tmp;
+				workLen = work.length;
+			}
+		}
 
 		// Allocate temp storage (which may be increased later if necessary)
 		int len = a.length;
@@ -173,10 +228,19 @@ public class TimSort {
 		 * elements) in Java. Therefore, we use smaller (but sufficiently large)
 		 * stack lengths for smaller arrays. The "magic numbers" in the
 		 * computation below must be changed if MIN_MERGE is decreased. See the
-		 * MIN_MERGE declaration above for more information.
+		 * MIN_MERGE declaration above for more information. A tuned minMerge
+		 * below MIN_MERGE gets a fixed stack with about two extra slots per
+		 * halving.
 		 */
-		int stackLen = (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24
-				: 40);
+		int stackLen;
+		if (context != null)
+			stackLen = MAX_STACK_LENGTH; // reused for later, longer arrays
+		else if (minMerge >= MIN_MERGE)
+			stackLen = (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24
+					: MAX_STACK_LENGTH);
+		else
+			stackLen = 49 + 2 * (Integer.numberOfLeadingZeros(minMerge) - Integer
+					.numberOfLeadingZeros(MIN_MERGE));
 		runBase = new int[stackLen];
 		runLen = new int[stackLen];
 	}
@@ -210,16 +274,44 @@ public class TimSort {
 	 */
 	static public void sort(int[] a, int lo, int hi, int[] work, int workBase,
 			int workLen) {
+		sort(a, lo, hi, work, workBase, workLen, MIN_MERGE, MIN_GALLOP);
+	}
+
+	/**
+	 * Like sort(a, lo, hi, work, workBase, workLen), but with MIN_MERGE and
+	 * MIN_GALLOP replaced by the given values.
+	 *
+	 * @param minMerge
+	 *            shorter runs are extended by binary insertion sort, must be
+	 *            at least 2 and should be a power of two
+	 * @param minGallop
+	 *            initial number of consecutive wins before galloping, must
+	 *            be at least 1
+	 */
+	static public void sort(int[] a, int lo, int hi, int[] work, int workBase,
+			int workLen, int minMerge, int minGallop) {
+		sort(a, lo, hi, work, workBase, workLen, minMerge, minGallop, null);
+	}
+
+	private static void sort(int[] a, int lo, int hi, int[] work,
+			int workBase, int workLen, int minMerge, int minGallop,
+			TimSortContext context) {
 		assert a != null && lo >= 0 && lo <= hi && hi <= a.length;
+		if (minMerge < 2 || minGallop < 1)
+			throw new IllegalArgumentException("minMerge(" + minMerge
+					+ ") < 2 or minGallop(" + minGallop + ") < 1");
 
 		int nRemaining = hi - lo;
 		if (nRemaining < 2)
 			return; // Arrays of size 0 and 1 are always sorted
 
 		// If array is small, do a "mini-TimSort" with no merges
-		if (nRemaining < MIN_MERGE) {
+		if (nRemaining < minMerge) {
 			int initRunLen = countRunAndMakeAscending(a, lo, hi);
 			binarySort(a, lo, hi, lo + initRunLen);
+			if (context != null)
+				context.add(nRemaining, 1, initRunLen,
+						initRunLen < nRemaining ? 1 : 0, 0, 0, 0);
 			return;
 		}
 
@@ -228,18 +320,30 @@ public class TimSort {
 		 * extending short natural runs to minRun elements, and merging runs to
 		 * maintain stack invariant.
 		 */
-		TimSort ts = new TimSort(a, work, workBase, workLen);
-		int minRun = minRunLength(nRemaining);
+		TimSort ts = context != null && context.sorter != null ? context.sorter
+				.restart(a) : new TimSort(a, work, workBase, workLen, minMerge,
+				minGallop, context);
+		int length = nRemaining;
+		int minRun = minRunLength(nRemaining, minMerge);
 		do {
+			RunDetectionEvent event = SortEvents.ENABLED ? SortEvents
+					.begin(new RunDetectionEvent()) : null;
+
 			// Identify next run
 			int runLen = countRunAndMakeAscending(a, lo, hi);
+			ts.runs++;
+			ts.runElements += runLen;
 
 			// If run is short, extend to min(minRun, nRemaining)
 			if (runLen < minRun) {
+				ts.extendedRuns++;
 				int force = nRemaining <= minRun ? nRemaining : minRun;
 				binarySort(a, lo, lo + force, lo + runLen);
 				runLen = force;
 			}
+			if (SortEvents.ENABLED) {
+				SortEvents.commit(event, "TimSort", runLen, ts.stackSize);
+			}
 
 			// Push run onto pending-run stack, and maybe merge
 			ts.pushRun(lo, runLen);
@@ -254,6 +358,29 @@ public class TimSort {
 		assert lo == hi;
 		ts.mergeForceCollapse();
 		assert ts.stackSize == 1;
+		if (context != null)
+			ts.finish(length);
+	}
+
+	// sets up the instance kept by context to sort a
+	private TimSort restart(int[] a) {
+		this.a = a;
+		minGallop = context.minGallop() > 0 ? context.minGallop()
+				: gallopThreshold;
+		stackSize = 0;
+		runs = runElements = extendedRuns = merges = 0;
+		gallopRounds = gallopMisses = 0;
+		return this;
+	}
+
+	// hands what this sort learned, and this instance, to its context
+	private void finish(int length) {
+		context.setMinGallop(minGallop);
+		context.tmp = tmp; // only ever replaced by a longer one
+		context.add(length, runs, runElements, extendedRuns, merges,
+				gallopRounds, gallopMisses);
+		context.sorter = this;
+		a = null;
 	}
 
 	/**
@@ -409,12 +536,14 @@ public class TimSort {
 	 *
 	 * @param n
 	 *            the length of the array to be sorted
+	 * @param minMerge
+	 *            MIN_MERGE for this sort
 	 * @return the length of the minimum run to be merged
 	 */
-	private static int minRunLength(int n) {
+	private static int minRunLength(int n, int minMerge) {
 		assert n >= 0;
 		int r = 0; // Becomes 1 if any 1 bits are shifted off
-		while (n >= MIN_MERGE) {
+		while (n >= minMerge) {
 			r |= (n & 1);
 			n >>= 1;
 		}
@@ -483,9 +612,22 @@ public class TimSort {
 	 *            stack index of the first of the two runs to merge
 	 */
 	private void mergeAt(int i) {
+		if (SortEvents.ENABLED) {
+			MergeEvent event = SortEvents.begin(new MergeEvent());
+			int elements = runLen[i] + runLen[i + 1], depth = stackSize;
+			mergeRuns(i);
+			event.minGallop = minGallop;
+			SortEvents.commit(event, "TimSort", elements, depth);
+		} else {
+			mergeRuns(i);
+		}
+	}
+
+	private void mergeRuns(int i) {
 		assert stackSize >= 2;
 		assert i >= 0;
 		assert i == stackSize - 2 || i == stackSize - 3;
+		merges++;
 
 		int base1 = runBase[i];
 		int len1 = runLen[i];
@@ -792,7 +934,9 @@ public class TimSort {
 				if (--len1 == 1)
 					break outer;
 				minGallop--;
-			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+				gallopRounds++;
+			} while (count1 >= gallopThreshold | count2 >= gallopThreshold);
+			gallopMisses++;
 			if (minGallop < 0)
 				minGallop = 0;
 			minGallop += 2; // Penalize for leaving gallop mode
@@ -916,7 +1060,9 @@ public class TimSort {
 				if (--len1 == 0)
 					break outer;
 				minGallop--;
-			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+				gallopRounds++;
+			} while (count1 >= gallopThreshold | count2 >= gallopThreshold);
+			gallopMisses++;
 			if (minGallop < 0)
 				minGallop = 0;
 			minGallop += 2; // Penalize for leaving gallop mode
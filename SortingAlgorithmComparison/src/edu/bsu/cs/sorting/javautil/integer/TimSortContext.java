@@ -0,0 +1,49 @@
+package edu.bsu.cs.sorting.javautil.integer;
+
+import edu.bsu.cs.sorting.javautil.TimSortStatistics;
+
+/**
+ * What TimSort learns about a caller's data, carried from one sort to the
+ * next: the minGallop and counts TimSortStatistics keeps, and the tmp array
+ * the merges grew, which the next sort reuses, along with the TimSort
+ * object and its run stack. Workloads of a stable shape skip relearning
+ * when to gallop, and stop allocating anything once tmp is big enough.
+ *
+ * Not thread-safe: use current() for a context per thread, or give each
+ * caller its own.
+ */
+public final class TimSortContext extends TimSortStatistics {
+
+	private static final ThreadLocal<TimSortContext> CURRENT = ThreadLocal
+			.withInitial(TimSortContext::new);
+
+	int[] tmp;
+	// the last sort's TimSort and run stack, reused by the next
+	TimSort sorter;
+
+	/**
+	 * @return this thread's context
+	 */
+	public static TimSortContext current() {
+		return CURRENT.get();
+	}
+
+	// tmp, first replaced by one of length ints if it is shorter, for a
+	// caller merging through it; the cached TimSort holds the old one, so
+	// it goes too
+	int[] tmp(int length) {
+		if (tmp == null || tmp.length < length) {
+			tmp = new int[length];
+			sorter = null;
+		}
+		return tmp;
+	}
+
+	/**
+	 * Drops tmp, for a thread done with large sorts.
+	 */
+	public void releaseTmp() {
+		tmp = null;
+		sorter = null;
+	}
+}
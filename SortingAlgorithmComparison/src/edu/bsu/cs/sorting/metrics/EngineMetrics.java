@@ -0,0 +1,195 @@
+package edu.bsu.cs.sorting.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+
+/**
+ * Counts of the sorts one engine ran for a MeteredSort. Every count is a
+ * LongAdder, and the latency histogram a LongAdder per bucket, so threads
+ * recording at once update cells of their own instead of contending for
+ * one; reading sums the cells, so a read taken while sorts are recording
+ * may be a few sorts out of step between counters.
+ *
+ * The histogram has the HistogramBuckets layout with 3 precision bits:
+ * a bucket for each latency below 8ns, then 4 buckets per power of two.
+ */
+public final class EngineMetrics implements EngineMetricsMBean {
+
+	private static final int PRECISION_BITS = 3;
+	private static final int BUCKETS = HistogramBuckets.count(PRECISION_BITS);
+
+	private final Engine engine;
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder elements = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+	private final LongAdder scratchBytes = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private volatile boolean scratchMeasured;
+
+	EngineMetrics(Engine engine) {
+		this.engine = engine;
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	private static int index(long value) {
+		return HistogramBuckets.index(value, PRECISION_BITS);
+	}
+
+	private static long highestValue(int index) {
+		return HistogramBuckets.highestValue(index, PRECISION_BITS);
+	}
+
+	/**
+	 * Counts one sort of length elements.
+	 *
+	 * @param bytes
+	 *            what the sort allocated, or -1 if not measured
+	 */
+	void record(int length, long elapsedNanos, long bytes) {
+		long value = Math.max(0, elapsedNanos);
+		calls.increment();
+		elements.add(length);
+		nanos.add(value);
+		maxNanos.accumulate(value);
+		buckets[index(value)].increment();
+		if (bytes >= 0) {
+			scratchBytes.add(bytes);
+			if (!scratchMeasured) {
+				scratchMeasured = true;
+			}
+		}
+	}
+
+	// smallest bucket limit with at least p of the calls at or below it
+	private long percentile(double p) {
+		long[] counts = getLatencyBucketCounts();
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(p * total);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return highestValue(i);
+			}
+		}
+		return getMaxNanos();
+	}
+
+	@Override
+	public String getEngine() {
+		return engine.name();
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getElements() {
+		return elements.sum();
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return nanos.sum();
+	}
+
+	@Override
+	public double getMeanNanos() {
+		long count = getCalls();
+		return count == 0 ? 0 : (double) getTotalNanos() / count;
+	}
+
+	@Override
+	public double getNanosPerElement() {
+		long count = getElements();
+		return count == 0 ? 0 : (double) getTotalNanos() / count;
+	}
+
+	@Override
+	public long getP50Nanos() {
+		return percentile(0.50);
+	}
+
+	@Override
+	public long getP90Nanos() {
+		return percentile(0.90);
+	}
+
+	@Override
+	public long getP99Nanos() {
+		return percentile(0.99);
+	}
+
+	@Override
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	@Override
+	public long getScratchBytes() {
+		return scratchMeasured ? scratchBytes.sum() : -1;
+	}
+
+	@Override
+	public double getScratchBytesPerElement() {
+		long count = getElements();
+		return !scratchMeasured || count == 0 ? 0
+				: (double) scratchBytes.sum() / count;
+	}
+
+	// only up to the highest bucket in use, so JMX consoles show a short
+	// array
+	@Override
+	public long[] getLatencyBucketCounts() {
+		int used = index(getMaxNanos()) + 1;
+		long[] counts = new long[used];
+		for (int i = 0; i < used; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return counts;
+	}
+
+	@Override
+	public long[] getLatencyBucketLimits() {
+		int used = index(getMaxNanos()) + 1;
+		long[] limits = new long[used];
+		for (int i = 0; i < used; i++) {
+			limits[i] = highestValue(i);
+		}
+		return limits;
+	}
+
+	@Override
+	public void reset() {
+		calls.reset();
+		elements.reset();
+		nanos.reset();
+		scratchBytes.reset();
+		maxNanos.reset();
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		scratchMeasured = false;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %,d calls, %,d elements, mean %.0fns,"
+				+ " p99 %,dns, %,d scratch bytes", getEngine(), getCalls(),
+				getElements(), getMeanNanos(), getP99Nanos(),
+				getScratchBytes());
+	}
+}
@@ -0,0 +1,40 @@
+package edu.bsu.cs.sorting.metrics;
+
+/**
+ * What JMX shows of one engine's EngineMetrics. Latencies are in
+ * nanoseconds and percentiles are the top of their histogram bucket, so
+ * they read up to 1/4 high.
+ */
+public interface EngineMetricsMBean {
+
+	String getEngine();
+
+	long getCalls();
+
+	long getElements();
+
+	long getTotalNanos();
+
+	double getMeanNanos();
+
+	double getNanosPerElement();
+
+	long getP50Nanos();
+
+	long getP90Nanos();
+
+	long getP99Nanos();
+
+	long getMaxNanos();
+
+	// -1 if this VM can't count a thread's allocations
+	long getScratchBytes();
+
+	double getScratchBytesPerElement();
+
+	long[] getLatencyBucketCounts();
+
+	long[] getLatencyBucketLimits();
+
+	void reset();
+}
@@ -0,0 +1,47 @@
+package edu.bsu.cs.sorting.metrics;
+
+/**
+ * The bucket layout shared by LatencyHistogram and EngineMetrics, the way
+ * HdrHistogram lays its buckets out: values below 2^precisionBits get a
+ * bucket each, and every power-of-two range above that is split into
+ * 2^(precisionBits-1) equal buckets, so a value is known to within 1 part
+ * in 2^(precisionBits-1).
+ */
+public final class HistogramBuckets {
+
+	// prevent instantiation
+	private HistogramBuckets() {
+	}
+
+	/**
+	 * @return the number of buckets needed for every non-negative long
+	 */
+	public static int count(int precisionBits) {
+		// the highest bucket holds values with bit 62 set
+		return index(Long.MAX_VALUE, precisionBits) + 1;
+	}
+
+	/**
+	 * @return the bucket holding value, which must not be negative
+	 */
+	public static int index(long value, int precisionBits) {
+		int highBit = 63 - Long.numberOfLeadingZeros(value);
+		if (highBit < precisionBits) {
+			return (int) value;
+		}
+		int shift = highBit - precisionBits + 1;
+		return (shift << (precisionBits - 1)) + (int) (value >>> shift);
+	}
+
+	/**
+	 * @return the largest value that lands in bucket index
+	 */
+	public static long highestValue(int index, int precisionBits) {
+		if (index < (1 << precisionBits)) {
+			return index;
+		}
+		int shift = (index >>> (precisionBits - 1)) - 1;
+		long sub = index - ((long) shift << (precisionBits - 1));
+		return ((sub + 1) << shift) - 1;
+	}
+}
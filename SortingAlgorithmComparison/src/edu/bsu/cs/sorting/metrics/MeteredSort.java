@@ -0,0 +1,159 @@
+package edu.bsu.cs.sorting.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+import edu.bsu.cs.sorting.dispatch.SortDispatcher;
+
+/**
+ * Sorts like the engine registry it wraps (a chooser from an array to the
+ * Engine that sorts it, SortDispatcher::choose, say) while counting, for
+ * each engine chosen, the calls, elements, latency histogram and scratch
+ * bytes in an EngineMetrics. Callers opt in by sorting through a
+ * MeteredSort instead of the registry; register() publishes the metrics as
+ * MBeans named
+ *
+ * edu.bsu.cs.sorting:type=SortMetrics,name=<name>,engine=<ENGINE>
+ *
+ * so JMX consoles and exporters can read them.
+ *
+ * Scratch bytes are what the sorting thread allocated during the sort,
+ * from HotSpot's per-thread counter; allocations made by pool workers (a
+ * parallel sort's task objects) aren't counted. Timing and counting cost a
+ * few tens of ns per call, beside the chooser's own cost.
+ */
+public final class MeteredSort implements Consumer<int[]> {
+
+	public static final String DOMAIN = "edu.bsu.cs.sorting";
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	private final Function<int[], Engine> chooser;
+	private final Map<Engine, EngineMetrics> metrics = new EnumMap<>(
+			Engine.class);
+	private String registeredName;
+
+	public MeteredSort(Function<int[], Engine> chooser) {
+		this.chooser = chooser;
+		for (Engine engine : Engine.values()) {
+			metrics.put(engine, new EngineMetrics(engine));
+		}
+	}
+
+	/**
+	 * Meters SortDispatcher's routing.
+	 */
+	public MeteredSort(SortDispatcher dispatcher) {
+		this(dispatcher::choose);
+	}
+
+	/**
+	 * Meters a single engine.
+	 */
+	public MeteredSort(Engine engine) {
+		this(a -> engine);
+	}
+
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			com.sun.management.ThreadMXBean bean =
+					(com.sun.management.ThreadMXBean) ManagementFactory
+							.getThreadMXBean();
+			if (!bean.isThreadAllocatedMemorySupported()
+					|| !bean.isThreadAllocatedMemoryEnabled()) {
+				return null;
+			}
+			return bean;
+		} catch (ClassCastException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void accept(int[] a) {
+		sort(a);
+	}
+
+	/**
+	 * Sorts a with the engine the chooser picks.
+	 *
+	 * @return that engine
+	 */
+	public Engine sort(int[] a) {
+		Engine engine = chooser.apply(a);
+		long bytes = THREADS == null ? 0 : THREADS
+				.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		engine.sort(a);
+		long elapsed = System.nanoTime() - start;
+		bytes = THREADS == null ? -1 : THREADS
+				.getCurrentThreadAllocatedBytes() - bytes;
+		metrics.get(engine).record(a.length, elapsed, bytes);
+		return engine;
+	}
+
+	public EngineMetrics metrics(Engine engine) {
+		return metrics.get(engine);
+	}
+
+	public static ObjectName objectName(String name, Engine engine)
+			throws JMException {
+		return new ObjectName(DOMAIN + ":type=SortMetrics,name="
+				+ ObjectName.quote(name) + ",engine=" + engine.name());
+	}
+
+	/**
+	 * Registers an MBean for each engine with the platform MBean server.
+	 *
+	 * @throws InstanceAlreadyExistsException
+	 *             if another MeteredSort has that name
+	 */
+	public synchronized void register(String name) throws JMException {
+		if (registeredName != null) {
+			throw new IllegalStateException("already registered as "
+					+ registeredName);
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (Engine engine : Engine.values()) {
+			try {
+				server.registerMBean(metrics.get(engine),
+						objectName(name, engine));
+			} catch (JMException e) {
+				for (Engine registered : Engine.values()) {
+					if (registered == engine) {
+						break;
+					}
+					server.unregisterMBean(objectName(name, registered));
+				}
+				throw e;
+			}
+		}
+		registeredName = name;
+	}
+
+	public synchronized void unregister() throws JMException {
+		if (registeredName == null) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (Engine engine : Engine.values()) {
+			server.unregisterMBean(objectName(registeredName, engine));
+		}
+		registeredName = null;
+	}
+
+	public void reset() {
+		for (EngineMetrics engineMetrics : metrics.values()) {
+			engineMetrics.reset();
+		}
+	}
+}
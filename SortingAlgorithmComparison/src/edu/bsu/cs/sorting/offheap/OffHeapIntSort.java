@@ -0,0 +1,356 @@
+package edu.bsu.cs.sorting.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts of 32-bit signed keys stored in a ByteBuffer, usually a direct or
+ * memory-mapped one, in place and in either byte order, so data read from
+ * a channel never has to be copied into an int[]. The keys are the bytes
+ * from the buffer's position to its limit; the buffer's own position,
+ * limit and order are left alone.
+ *
+ * sort() is the dual-pivot quicksort of integer DualPivotQuicksort without
+ * the run-merging front end, radixSort() is an LSD radix sort, and
+ * parallelSort() sorts chunks in a ForkJoinPool and merges them through a
+ * scratch buffer. The scratch buffers these allocate are direct, so none
+ * of the sorts use the Java heap for data. A ByteBuffer holds at most
+ * 2^31 - 1 bytes, so larger inputs have to be sorted a buffer at a time
+ * and merged.
+ */
+public final class OffHeapIntSort {
+
+	private static final int INSERTION_SORT_THRESHOLD = 47;
+
+	// below this, radixSort() quicksorts instead
+	private static final int RADIX_SORT_THRESHOLD = 1 << 8;
+
+	private static final int MIN_PARALLEL_CHUNK = 1 << 13;
+
+	// prevent instantiation
+	private OffHeapIntSort() {
+	}
+
+	/**
+	 * @return the keys in buffer's remaining bytes, read in order
+	 */
+	static IntBuffer keys(ByteBuffer buffer, ByteOrder order) {
+		if (buffer.remaining() % Integer.BYTES != 0) {
+			throw new IllegalArgumentException("remaining() "
+					+ buffer.remaining() + " is not a multiple of "
+					+ Integer.BYTES);
+		}
+		return buffer.slice().order(order).asIntBuffer();
+	}
+
+	// room for n keys from scratch, or a new direct buffer if it is null
+	private static IntBuffer scratch(ByteBuffer scratch, int n) {
+		if (scratch == null) {
+			return ByteBuffer.allocateDirect(n * Integer.BYTES).order(
+					ByteOrder.nativeOrder()).asIntBuffer();
+		}
+		if (scratch.remaining() < n * Integer.BYTES) {
+			throw new IllegalArgumentException("scratch has "
+					+ scratch.remaining() + " bytes, needs " + n
+					* Integer.BYTES);
+		}
+		return scratch.slice().order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	public static void sort(ByteBuffer buffer, ByteOrder order) {
+		IntBuffer a = keys(buffer, order);
+		sort(a, 0, a.limit() - 1);
+	}
+
+	public static void radixSort(ByteBuffer buffer, ByteOrder order) {
+		radixSort(buffer, order, null);
+	}
+
+	/**
+	 * Sorts using scratch (at least buffer.remaining() bytes from its
+	 * position) for the odd passes.
+	 */
+	public static void radixSort(ByteBuffer buffer, ByteOrder order,
+			ByteBuffer scratch) {
+		IntBuffer a = keys(buffer, order);
+		int n = a.limit();
+		if (n < RADIX_SORT_THRESHOLD) {
+			sort(a, 0, n - 1);
+			return;
+		}
+		radixSort(a, scratch(scratch, n), n);
+	}
+
+	public static void parallelSort(ByteBuffer buffer, ByteOrder order) {
+		parallelSort(buffer, order, ForkJoinPool.commonPool(), null);
+	}
+
+	/**
+	 * Sorts in pool, using scratch (at least buffer.remaining() bytes from
+	 * its position, or null for a new direct buffer) for the merges.
+	 */
+	public static void parallelSort(ByteBuffer buffer, ByteOrder order,
+			ForkJoinPool pool, ByteBuffer scratch) {
+		IntBuffer a = keys(buffer, order);
+		int n = a.limit();
+		int p = pool.getParallelism();
+		if (n <= MIN_PARALLEL_CHUNK || p == 1) {
+			sort(a, 0, n - 1);
+			return;
+		}
+		int gran = Math.max(n / (p << 2), MIN_PARALLEL_CHUNK);
+		pool.invoke(new Sorter(a, scratch(scratch, n), 0, n, gran, false));
+	}
+
+	private static void swap(IntBuffer a, int i, int j) {
+		int t = a.get(i);
+		a.put(i, a.get(j));
+		a.put(j, t);
+	}
+
+	// puts a[i] and a[j] in order
+	private static void order(IntBuffer a, int i, int j) {
+		int ai = a.get(i), aj = a.get(j);
+		if (aj < ai) {
+			a.put(i, aj);
+			a.put(j, ai);
+		}
+	}
+
+	/**
+	 * Sorts a[left..right], inclusive.
+	 */
+	static void sort(IntBuffer a, int left, int right) {
+		int length = right - left + 1;
+
+		// Use insertion sort on tiny arrays
+		if (length < INSERTION_SORT_THRESHOLD) {
+			for (int i = left + 1; i <= right; i++) {
+				int ai = a.get(i);
+				int j = i - 1;
+				for (int aj; j >= left && ai < (aj = a.get(j)); j--) {
+					a.put(j + 1, aj);
+				}
+				a.put(j + 1, ai);
+			}
+			return;
+		}
+
+		// Five evenly spaced elements around the middle, sorted by a
+		// sorting network; the second and fourth are the pivots
+		int seventh = (length >> 3) + (length >> 6) + 1;
+		int e3 = (left + right) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		order(a, e1, e2);
+		order(a, e4, e5);
+		order(a, e3, e5);
+		order(a, e3, e4);
+		order(a, e2, e5);
+		order(a, e1, e4);
+		order(a, e1, e3);
+		order(a, e2, e4);
+		order(a, e2, e3);
+		int pivot1 = a.get(e2), pivot2 = a.get(e4);
+
+		// Partition into < pivot1 | pivot1..pivot2 | > pivot2, with the
+		// pivots parked at the ends
+		swap(a, e2, left);
+		swap(a, e4, right);
+		int less = left + 1, great = right - 1;
+		for (int k = less; k <= great; k++) {
+			int ak = a.get(k);
+			if (ak < pivot1) {
+				swap(a, k, less++);
+			} else if (ak > pivot2) {
+				while (k < great && a.get(great) > pivot2) {
+					great--;
+				}
+				swap(a, k, great--);
+				if (a.get(k) < pivot1) {
+					swap(a, k, less++);
+				}
+			}
+		}
+		swap(a, left, less - 1);
+		swap(a, right, great + 1);
+
+		sort(a, left, less - 2);
+		sort(a, great + 2, right);
+		if (pivot1 == pivot2) {
+			// the center part is all equal to the pivot
+			return;
+		}
+
+		// If the center part is too large, move the elements equal to the
+		// pivots out of it before sorting it
+		if (less < e1 && e5 < great) {
+			for (int k = less; k <= great; k++) {
+				int ak = a.get(k);
+				if (ak == pivot1) {
+					swap(a, k, less++);
+				} else if (ak == pivot2) {
+					while (k < great && a.get(great) == pivot2) {
+						great--;
+					}
+					swap(a, k, great--);
+					if (a.get(k) == pivot1) {
+						swap(a, k, less++);
+					}
+				}
+			}
+		}
+		sort(a, less, great);
+	}
+
+	// sorts a[0..n) a byte at a time, alternating between a and w
+	static void radixSort(IntBuffer a, IntBuffer w, int n) {
+		int[] count = new int[256];
+		IntBuffer src = a, dst = w;
+		for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+			// flip the sign bit so negative keys come first
+			int flip = (shift == Integer.SIZE - 8) ? 0x80 : 0;
+			Arrays.fill(count, 0);
+			for (int i = 0; i < n; i++) {
+				count[((src.get(i) >>> shift) & 0xFF) ^ flip]++;
+			}
+			if (count[((src.get(0) >>> shift) & 0xFF) ^ flip] == n) {
+				// every key has the same digit here
+				continue;
+			}
+			for (int d = 0, start = 0; d < 256; d++) {
+				int c = count[d];
+				count[d] = start;
+				start += c;
+			}
+			for (int i = 0; i < n; i++) {
+				int v = src.get(i);
+				dst.put(count[((v >>> shift) & 0xFF) ^ flip]++, v);
+			}
+			IntBuffer t = src;
+			src = dst;
+			dst = t;
+		}
+		if (src != a) {
+			copy(src, a, 0, n);
+		}
+	}
+
+	// copies src[lo..hi) to dst[lo..hi)
+	static void copy(IntBuffer src, IntBuffer dst, int lo, int hi) {
+		dst.duplicate().position(lo).put(src.duplicate().limit(hi).position(
+				lo));
+	}
+
+	// merges src[lo1..hi1) and src[lo2..hi2) into dst starting at k
+	static void merge(IntBuffer src, IntBuffer dst, int lo1, int hi1,
+			int lo2, int hi2, int k) {
+		while (lo1 < hi1 && lo2 < hi2) {
+			int x = src.get(lo1), y = src.get(lo2);
+			if (y < x) {
+				dst.put(k++, y);
+				lo2++;
+			} else {
+				dst.put(k++, x);
+				lo1++;
+			}
+		}
+		while (lo1 < hi1) {
+			dst.put(k++, src.get(lo1++));
+		}
+		while (lo2 < hi2) {
+			dst.put(k++, src.get(lo2++));
+		}
+	}
+
+	// first index in a[lo..hi) holding a value >= key
+	private static int lowerBound(IntBuffer a, int lo, int hi, int key) {
+		while (lo < hi) {
+			int m = (lo + hi) >>> 1;
+			if (a.get(m) < key) {
+				lo = m + 1;
+			} else {
+				hi = m;
+			}
+		}
+		return lo;
+	}
+
+	// sorts a[lo..hi), leaving the result in w if intoW
+	static final class Sorter extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final IntBuffer a, w;
+		final int lo, hi, gran;
+		final boolean intoW;
+
+		Sorter(IntBuffer a, IntBuffer w, int lo, int hi, int gran,
+				boolean intoW) {
+			this.a = a;
+			this.w = w;
+			this.lo = lo;
+			this.hi = hi;
+			this.gran = gran;
+			this.intoW = intoW;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= gran) {
+				sort(a, lo, hi - 1);
+				if (intoW) {
+					copy(a, w, lo, hi);
+				}
+				return;
+			}
+			// sort the halves into the other buffer, then merge them back
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new Sorter(a, w, lo, mid, gran, !intoW), new Sorter(a,
+					w, mid, hi, gran, !intoW));
+			IntBuffer src = intoW ? a : w, dst = intoW ? w : a;
+			new Merger(src, dst, lo, mid, mid, hi, lo, gran).compute();
+		}
+	}
+
+	// merges src[lo1..hi1) and src[lo2..hi2) into dst at k, splitting the
+	// longer run at its middle and the other by binary search
+	static final class Merger extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final IntBuffer src, dst;
+		final int lo1, hi1, lo2, hi2, k, gran;
+
+		Merger(IntBuffer src, IntBuffer dst, int lo1, int hi1, int lo2,
+				int hi2, int k, int gran) {
+			this.src = src;
+			this.dst = dst;
+			this.lo1 = lo1;
+			this.hi1 = hi1;
+			this.lo2 = lo2;
+			this.hi2 = hi2;
+			this.k = k;
+			this.gran = gran;
+		}
+
+		@Override
+		protected void compute() {
+			if ((hi1 - lo1) + (hi2 - lo2) <= gran) {
+				merge(src, dst, lo1, hi1, lo2, hi2, k);
+				return;
+			}
+			int m1, m2;
+			if (hi1 - lo1 >= hi2 - lo2) {
+				m1 = (lo1 + hi1) >>> 1;
+				m2 = lowerBound(src, lo2, hi2, src.get(m1));
+			} else {
+				m2 = (lo2 + hi2) >>> 1;
+				m1 = lowerBound(src, lo1, hi1, src.get(m2));
+			}
+			int k2 = k + (m1 - lo1) + (m2 - lo2);
+			invokeAll(new Merger(src, dst, lo1, m1, lo2, m2, k, gran),
+					new Merger(src, dst, m1, hi1, m2, hi2, k2, gran));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.SortThreads;
+
+/**
+ * The parallel sort back ends under concurrent-caller load: N caller
+ * threads (virtual where the JVM has them, default 4 per processor, or
+ * args[0]) each sort their own array over and over for a fixed time, and
+ * the total sorts per second is printed for each back end.
+ */
+public class ConcurrentSortBenchmark {
+
+	private static final long MILLIS = 2000;
+
+	// prevent instantiation
+	private ConcurrentSortBenchmark() {
+	}
+
+	private static double opsPerSecond(Consumer<int[]> engine, int callers,
+			int size) throws InterruptedException {
+		return ThroughputBenchmark.run(engine, callers, size, 0, MILLIS,
+				SortThreads.callerThreadFactory()).opsPerSecond;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int callers = args.length > 0 ? Integer.parseInt(args[0]) : 4 * Runtime
+				.getRuntime().availableProcessors();
+		System.out.printf("%d callers on %s threads%n", callers, SortThreads
+				.virtualThreadsAvailable() ? "virtual" : "platform");
+		System.out.printf("%10s %14s %14s %14s%n", "Size", "Sequential",
+				"ForkJoin", "PerTask");
+
+		for (int iPow = 3; iPow <= 5; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			double sequential = opsPerSecond(DualPivotQuicksort::sort, callers,
+					size);
+			double forkJoin = opsPerSecond(ParallelDualPivotQuicksort::sort,
+					callers, size);
+			double perTask = opsPerSecond(a -> ParallelDualPivotQuicksort.sort(
+					a, SortThreads.perTaskExecutor()), callers, size);
+			System.out.printf("%,10d %14.1f %14.1f %14.1f%n", size, sequential,
+					forkJoin, perTask);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+import edu.bsu.cs.sorting.dispatch.InputProfile;
+import edu.bsu.cs.sorting.dispatch.InputShape;
+import edu.bsu.cs.sorting.dispatch.RoutingTable;
+import edu.bsu.cs.sorting.dispatch.SortDispatcher;
+import edu.bsu.cs.sorting.tuning.HardwareInfo;
+
+/**
+ * Learns the SortDispatcher routing table. Every engine is run through
+ * the harness on data of each InputShape at each power of 10 from 10^3
+ * up to 10^maxPow; the best time at each size goes into the table, which
+ * is printed and then stored for SortDispatcher to load.
+ *
+ * Arguments: [profile file [maxPow]]
+ */
+public class DispatchTrainer {
+
+	private static final int REPEATS = 3;
+
+	// prevent instantiation
+	private DispatchTrainer() {
+	}
+
+	public static int[] generate(InputShape shape, int size, Random generator) {
+		int[] a = new int[size];
+		switch (shape) {
+		case RUNS:
+			// sorted, then one element in a hundred swapped somewhere else
+			for (int i = 0; i < size; i++) {
+				a[i] = i;
+			}
+			for (int swap = 0; swap < size / 100; swap++) {
+				int i = generator.nextInt(size), j = generator.nextInt(size);
+				int t = a[i];
+				a[i] = a[j];
+				a[j] = t;
+			}
+			break;
+		case NARROW_RANGE:
+			for (int i = 0; i < size; i++) {
+				a[i] = generator.nextInt(Math.max(1, size / 4));
+			}
+			break;
+		case FEW_UNIQUE:
+			// 100 distinct values spread over the whole int range
+			for (int i = 0; i < size; i++) {
+				a[i] = (generator.nextInt(100) - 50) * 40_000_000;
+			}
+			break;
+		default:
+			for (int i = 0; i < size; i++) {
+				a[i] = generator.nextInt(10 * size);
+			}
+		}
+		return a;
+	}
+
+	public static RoutingTable train(int maxPow) {
+		RoutingTable table = new RoutingTable();
+		for (InputShape shape : InputShape.values()) {
+			EnumMap<Engine, TestResultMultiMap> results = new EnumMap<>(
+					Engine.class);
+			for (int iPow = 3; iPow <= maxPow; iPow++) {
+				int size = IntSortTester.pow10(iPow);
+				Random generator = new Random(iPow);
+				int[] data = generate(shape, size, generator);
+				InputShape seen = InputProfile.of(data).shape();
+				if (seen != shape) {
+					System.err.printf("%s data of size %,d looks %s%n", shape,
+							size, seen);
+				}
+				for (Engine engine : Engine.values()) {
+					if (size > engine.maxLength) {
+						continue;
+					}
+					IntSortTester tester = new IntSortTester(engine::sort);
+					TestResultMultiMap mmap = results.computeIfAbsent(engine,
+							k -> new TestResultMultiMap());
+					for (int repeatCount = 0; repeatCount < REPEATS; repeatCount++) {
+						mmap.put(size, tester.test(data.clone()));
+					}
+				}
+			}
+			learn(table, shape, results);
+		}
+		return table;
+	}
+
+	// records each engine's fastest correct time at each size
+	public static void learn(RoutingTable table, InputShape shape,
+			EnumMap<Engine, TestResultMultiMap> results) {
+		for (Engine engine : results.keySet()) {
+			TestResultMultiMap mmap = results.get(engine);
+			for (Integer size : mmap) {
+				List<TestResult> list = mmap.get(size);
+				double best = Double.MAX_VALUE;
+				for (TestResult result : list) {
+					if (result.correct) {
+						best = Math.min(best, result.performance);
+					}
+				}
+				if (best < Double.MAX_VALUE) {
+					table.record(shape, size, engine, best);
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path profile = Paths.get(args.length > 0 ? args[0]
+				: SortDispatcher.DEFAULT_PROFILE);
+		int maxPow = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+		RoutingTable table = train(maxPow);
+		for (InputShape shape : InputShape.values()) {
+			System.out.printf("%-14s", shape);
+			for (int iPow = 3; iPow <= maxPow; iPow++) {
+				System.out.printf(" %-30s",
+						table.route(shape, IntSortTester.pow10(iPow)));
+			}
+			System.out.println();
+		}
+		table.store(profile, HardwareInfo.detect());
+		System.out.println("wrote " + profile.toAbsolutePath());
+	}
+}
@@ -0,0 +1,110 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import edu.bsu.cs.sorting.external.ExternalSort;
+
+/**
+ * File-based mode of the harness, for sizes past what fits in an int[]:
+ * writes a file of random big-endian ints, sorts it with ExternalSort and
+ * checks that the output holds the same keys in order.
+ *
+ * Usage: ExternalSortTester [keys [chunkMegabytes [fanIn [directory]]]],
+ * by default 10^8 keys in 64 MB chunks, merged 64 at a time, in the
+ * system temporary directory.
+ */
+public class ExternalSortTester {
+
+	private static final int STREAM_BUFFER = 1 << 20;
+
+	// prevent instantiation
+	private ExternalSortTester() {
+	}
+
+	/**
+	 * Writes keys random ints to file.
+	 *
+	 * @return the sum of the keys, for checking the output
+	 */
+	public static long writeRandomInts(Path file, long keys) throws IOException {
+		Random generator = new Random(0);
+		long sum = 0;
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(file),
+						STREAM_BUFFER))) {
+			for (long i = 0; i < keys; i++) {
+				int key = generator.nextInt();
+				out.writeInt(key);
+				sum += key;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return whether file holds keys ints in order that add up to sum
+	 */
+	public static boolean isSorted(Path file, long keys, long sum)
+			throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				Files.newInputStream(file), STREAM_BUFFER))) {
+			long count = 0, total = 0;
+			int previous = Integer.MIN_VALUE;
+			while (true) {
+				int key;
+				try {
+					key = in.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				if (key < previous) {
+					return false;
+				}
+				previous = key;
+				total += key;
+				count++;
+			}
+			return count == keys && total == sum;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		long keys = args.length > 0 ? Long.parseLong(args[0]) : IntSortTester
+				.pow10(8);
+		int chunkMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		int fanIn = args.length > 2 ? Integer.parseInt(args[2])
+				: ExternalSort.DEFAULT_FAN_IN;
+		Path directory = Paths.get(args.length > 3 ? args[3] : System
+				.getProperty("java.io.tmpdir"));
+
+		Path input = Files.createTempFile(directory, "input", ".bin");
+		Path output = Files.createTempFile(directory, "output", ".bin");
+		try {
+			System.out.printf("writing %,d keys to %s%n", keys, input);
+			long sum = writeRandomInts(input, keys);
+			ExternalSort sorter = ExternalSort.builder().chunkBytes(
+					chunkMegabytes << 20).fanIn(fanIn).tempDirectory(directory)
+					.build();
+
+			long start = System.nanoTime();
+			sorter.sortInts(input, output);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			boolean correct = isSorted(output, keys, sum);
+			System.out.printf("%,15d keys %10.3f s %8.1f MB/s %s%n", keys,
+					seconds, keys * Integer.BYTES / seconds / (1 << 20),
+					correct ? "sorted" : "NOT SORTED");
+		} finally {
+			Files.deleteIfExists(input);
+			Files.deleteIfExists(output);
+		}
+	}
+}
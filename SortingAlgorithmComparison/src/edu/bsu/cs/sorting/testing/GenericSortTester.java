@@ -2,10 +2,14 @@ package edu.bsu.cs.sorting.testing;
 
 import edu.bsu.cs.utils.StopWatch;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Consumer;
 
 import javax.swing.*;
 
@@ -17,6 +21,7 @@ public class GenericSortTester<T extends Comparable<T>> {
 
 	static private final int PUBLIC_STATIC = Modifier.PUBLIC | Modifier.STATIC;
 	private final Method sortMethod;
+	private final Consumer<T[]> sorter;
 	
 	private static boolean rightMethod(Method m) {
 		if (!m.getName().equals("sort"))
@@ -49,6 +54,14 @@ public class GenericSortTester<T extends Comparable<T>> {
 
 	public GenericSortTester(String className) {
 		sortMethod = findRightMethod(className);
+		sorter = null;
+	}
+	
+	// for testing a configured variant of an algorithm, such as
+	// a HeapSort with a particular arity, that reflection can't find
+	public GenericSortTester(Consumer<T[]> sorter) {
+		sortMethod = null;
+		this.sorter = sorter;
 	}
 	
 	// called in child thread which may be stopped
@@ -57,7 +70,10 @@ public class GenericSortTester<T extends Comparable<T>> {
 	public boolean sort(T[] a) {
 		Object[] args = {a};
 		try {
-			sortMethod.invoke(null, args);
+			if (sorter != null)
+				sorter.accept(a);
+			else
+				sortMethod.invoke(null, args);
 			return true;
 		} catch (InvocationTargetException e) {
 			Throwable cause = e.getCause();
@@ -167,7 +183,57 @@ public class GenericSortTester<T extends Comparable<T>> {
 		return pow;
 	}
 
+	// the sequential generic engines, and the parallel stable sort in both
+	// its Comparable and Comparator forms, best of three runs per size
+	public static void compareParallel(int maxPow) {
+		String[] engines = {
+				"edu.bsu.cs.sorting.javautil.generic.ComparableTimSort",
+				"edu.bsu.cs.sorting.javautil.generic.LegacyMergeSort",
+				"edu.bsu.cs.sorting.javautil.generic.DualPivotQuicksort",
+				"edu.bsu.cs.sorting.buis.generic.IntroSort",
+				"edu.bsu.cs.sorting.javautil.generic.ParallelTimSort" };
+		String[] names = { "TimSort", "LegacyMerge", "DPQ", "IntroSort",
+				"ParallelTim", "ParallelCmp" };
+		Comparator<Integer> natural = Comparator.naturalOrder();
+		List<GenericSortTester<Integer>> testers = new ArrayList<>();
+		for (String engine : engines) {
+			testers.add(new GenericSortTester<Integer>(engine));
+		}
+		testers.add(new GenericSortTester<Integer>(
+				a -> edu.bsu.cs.sorting.javautil.generic.ParallelTimSort.sort(
+						a, natural)));
+
+		System.out.printf("%12s", "Size");
+		for (String name : names) {
+			System.out.printf(" %12s", name);
+		}
+		System.out.println();
+		for (int iPow = 3; iPow <= maxPow; iPow++) {
+			int size = pow10(iPow);
+			Integer[] data = randomIntegerArray(size, Integer.MAX_VALUE);
+			System.out.printf("%,12d", size);
+			for (GenericSortTester<Integer> tester : testers) {
+				double best = Double.MAX_VALUE;
+				boolean correct = true;
+				for (int repeatCount = 0; repeatCount < 3; repeatCount++) {
+					TestResult result = tester.test(data.clone());
+					correct &= result.correct;
+					best = Math.min(best, result.performance);
+				}
+				if (correct)
+					System.out.printf(" %12.6f", best);
+				else
+					System.out.printf(" %12s", "WRONG");
+			}
+			System.out.println();
+		}
+	}
+
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("parallel")) {
+			compareParallel(7);
+			return;
+		}
 		String className = "edu.bsu.cs.sorting.buis.generic.HeapSort";
 		System.out.println(className);
 		GenericSortTester<Integer> tester = new GenericSortTester<Integer>(className);
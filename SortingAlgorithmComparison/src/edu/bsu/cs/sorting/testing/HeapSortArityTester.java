@@ -0,0 +1,39 @@
+package edu.bsu.cs.sorting.testing;
+
+import edu.bsu.cs.sorting.buis.integer.HeapSort;
+
+/**
+ * Compares the d-ary and bottom-up variants of HeapSort against each
+ * other on the same random int data, printing the fastest of several
+ * runs for each combination of arity and sift direction.
+ */
+public class HeapSortArityTester {
+
+	private static final int[] ARITIES = { 2, 4, 8, HeapSort.CACHE_LINE_ARITY };
+
+	// prevent instantiation
+	private HeapSortArityTester() {
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%12s", "Size");
+		for (boolean bottomUp : new boolean[] { false, true }) {
+			for (int arity : ARITIES) {
+				System.out.printf("%12s", (bottomUp ? "up-" : "down-") + arity);
+			}
+		}
+		System.out.println();
+
+		for (int iPow = 3; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			System.out.printf("%,12d", size);
+			for (boolean bottomUp : new boolean[] { false, true }) {
+				for (int arity : ARITIES) {
+					System.out.printf("%12.6f", IntSortTester.bestOf(
+							a -> HeapSort.sort(a, arity, bottomUp), size, 3));
+				}
+			}
+			System.out.println();
+		}
+	}
+}
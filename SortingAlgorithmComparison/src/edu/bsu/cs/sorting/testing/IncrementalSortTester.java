@@ -0,0 +1,68 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.IncrementalIntSorter;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * Feeds random keys in batches to an IncrementalIntSorter and compares the
+ * latency of its finish() with sorting all the keys at the end, by
+ * TimSort and by DualPivotQuicksort. The batch pushes themselves are
+ * timed too, since that is where the incremental sorter does its sorting.
+ */
+public class IncrementalSortTester {
+
+	// prevent instantiation
+	private IncrementalSortTester() {
+	}
+
+	public static void main(String[] args) {
+		int batch = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		System.out.printf("batches of %,d keys, times in seconds%n", batch);
+		System.out.printf("%12s %12s %12s %12s %12s %12s%n", "Size", "push",
+				"finish", "asyncFinish", "TimSort", "DPQ");
+
+		IncrementalIntSorter sorter = new IncrementalIntSorter();
+		IncrementalIntSorter async = new IncrementalIntSorter(
+				ForkJoinPool.commonPool());
+		for (int iPow = 5; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] data = IntSortTester.randomIntArray(size, 10 * size);
+			int[] expected = data.clone();
+			Arrays.sort(expected);
+
+			long t0 = System.nanoTime();
+			for (int from = 0; from < size; from += batch) {
+				sorter.push(data, from, Math.min(from + batch, size));
+			}
+			long t1 = System.nanoTime();
+			int[] sorted = sorter.finish();
+			long t2 = System.nanoTime();
+
+			for (int from = 0; from < size; from += batch) {
+				async.push(data, from, Math.min(from + batch, size));
+			}
+			long t3 = System.nanoTime();
+			int[] asyncSorted = async.finish();
+			long t4 = System.nanoTime();
+
+			int[] tim = data.clone();
+			long t5 = System.nanoTime();
+			TimSort.sort(tim);
+			long t6 = System.nanoTime();
+			int[] dpq = data.clone();
+			DualPivotQuicksort.sort(dpq);
+			long t7 = System.nanoTime();
+
+			boolean correct = Arrays.equals(sorted, expected)
+					&& Arrays.equals(asyncSorted, expected);
+			System.out.printf("%,12d %12.6f %12.6f %12.6f %12.6f %12.6f%s%n",
+					size, (t1 - t0) / 1e9, (t2 - t1) / 1e9, (t4 - t3) / 1e9,
+					(t6 - t5) / 1e9, (t7 - t6) / 1e9, correct ? ""
+							: " NOT SORTED");
+		}
+	}
+}
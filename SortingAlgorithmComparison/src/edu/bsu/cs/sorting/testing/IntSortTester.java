@@ -2,10 +2,12 @@ package edu.bsu.cs.sorting.testing;
 
 import edu.bsu.cs.utils.StopWatch;
 
+import java.io.IOException;
 import java.util.Random;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Consumer;
 
 import javax.swing.JFrame;
 import javax.swing.JScrollPane;
@@ -19,6 +21,9 @@ public class IntSortTester {
 
 	static private final int PUBLIC_STATIC = Modifier.PUBLIC | Modifier.STATIC;
 	private final Method sortMethod;
+	private final Consumer<int[]> sorter;
+	private boolean measureMemory;
+	private String perfSorter;
 	
 	private static boolean rightMethod(Method m) {
 		if (!m.getName().equals("sort"))
@@ -51,15 +56,42 @@ public class IntSortTester {
 
 	public IntSortTester(String className) {
 		sortMethod = findRightMethod(className);
+		sorter = null;
 	}
 	
+	// for testing a configured variant of an algorithm, such as
+	// a HeapSort with a particular arity, that reflection can't find
+	public IntSortTester(Consumer<int[]> sorter) {
+		sortMethod = null;
+		this.sorter = sorter;
+	}
+	
+	// in this mode test() also records the scratch bytes and peak heap
+	// growth of each sort, which costs a little time outside the timed part
+	public IntSortTester measureMemory(boolean measureMemory) {
+		this.measureMemory = measureMemory;
+		return this;
+	}
+
+	// in this mode test() also counts cycles, cache misses and branch
+	// misses of sorting the same input with sorter, an Engine name or a
+	// class with a public static sort(int[]), in a worker JVM under perf
+	// stat (see PerfStat); null turns it off, as does perf being missing
+	public IntSortTester measureCounters(String sorter) {
+		this.perfSorter = sorter;
+		return this;
+	}
+
 	// called in child thread which may be stopped
 	// after a timeout by main thread, causing a
 	// InvocationTargetException
 	public boolean sort(int[] a) {
 		Object[] args = {a};
 		try {
-			sortMethod.invoke(null, args);
+			if (sorter != null)
+				sorter.accept(a);
+			else
+				sortMethod.invoke(null, args);
 			return true;
 		} catch (InvocationTargetException e) {
 			Throwable cause = e.getCause();
@@ -124,18 +156,26 @@ public class IntSortTester {
 		int[] sorted;
 		double performance = Double.MAX_VALUE;
 		boolean correct = false;
+		long scratchBytes = -1, peakHeapBytes = -1;
+		PerfCounters counters = null;
 		TestResult result;
 		try {
 			sorted = java.util.Arrays.copyOf(input, input.length);
+			int[] unsorted = perfSorter != null ? input.clone() : null;
 			java.util.Arrays.sort(sorted);
 			StopWatch watch = new StopWatch();
+			MemoryMeter meter = measureMemory ? new MemoryMeter() : null;
 
 			Thread runner = new Thread(new Runnable() {
 					@Override
 					public void run() {
+						if (meter != null)
+							meter.start();
 						watch.start();
 						sort(input); // returns success boolean, ignored!
 						watch.stop();
+						if (meter != null)
+							meter.stop();
 
 					}}
 			);
@@ -149,11 +189,20 @@ public class IntSortTester {
 			else {
 				performance = watch.getElapsedTime();
 				correct = correctnessTest(input, sorted);
+				if (meter != null) {
+					scratchBytes = meter.allocatedBytes();
+					peakHeapBytes = meter.peakHeapBytes();
+				}
+				if (correct && unsorted != null && PerfStat.available())
+					counters = PerfStat.measure(perfSorter, unsorted, 3);
 			}
 		}
 		catch (InterruptedException e) {
 			System.err.println(e.toString());
 		}
+		catch (IOException e) {
+			System.err.println(e.toString());
+		}
 		catch (StackOverflowError e) {
 			System.err.println(e.toString());
 		}
@@ -161,7 +210,8 @@ public class IntSortTester {
 			System.err.println(e.toString());
 		}
 		finally {
-			result = new TestResult(correct, performance);
+			result = new TestResult(correct, performance, scratchBytes,
+					peakHeapBytes, counters);
 		}
 		return result;
 	}
@@ -173,13 +223,47 @@ public class IntSortTester {
 		return pow;
 	}
 
-	public static void main(String[] args) {
-		String className = "edu.bsu.cs.sorting.buis.integer.HybridSort";
-		System.out.println(className);
-		IntSortTester tester = new IntSortTester(className);
+	// the fastest of repeats runs of sorter, each on a fresh copy of data,
+	// in seconds, or Double.MAX_VALUE if a run left its copy unsorted
+	public static double bestOf(Consumer<int[]> sorter, int[] data,
+			int repeats) {
+		return bestOf(sorter, data, repeats, true);
+	}
+
+	// the same on random arrays of size ints drawn from 10 * size values
+	public static double bestOf(Consumer<int[]> sorter, int size, int repeats) {
+		return bestOf(sorter, randomIntArray(size, 10 * size), repeats, true);
+	}
+
+	// checkSorted false times runs that don't sort the whole array, such
+	// as selection, in the calling thread without checking what they did
+	public static double bestOf(Consumer<int[]> sorter, int[] data,
+			int repeats, boolean checkSorted) {
+		IntSortTester tester = new IntSortTester(sorter);
+		double best = Double.MAX_VALUE;
+		for (int repeatCount = 0; repeatCount < repeats; repeatCount++) {
+			int[] a = data.clone();
+			if (checkSorted) {
+				TestResult result = tester.test(a);
+				if (!result.correct) {
+					return Double.MAX_VALUE;
+				}
+				best = Math.min(best, result.performance);
+			} else {
+				long start = System.nanoTime();
+				sorter.accept(a);
+				best = Math.min(best, (System.nanoTime() - start) / 1e9);
+			}
+		}
+		return best;
+	}
+
+	// runs five tests at each power of 10 from 10^3 up to 10^maxPow,
+	// stopping a size early on the first incorrect result
+	public static TestResultMultiMap testSizes(IntSortTester tester, int maxPow) {
 		TestResultMultiMap mmap = new TestResultMultiMap();
 		
-		for (int iPow = 3; iPow <= 8; iPow++) {
+		for (int iPow = 3; iPow <= maxPow; iPow++) {
 			int size = pow10(iPow);
 			System.out.printf("%nArray Size= %,d%n", size);
 			
@@ -196,16 +280,31 @@ public class IntSortTester {
 					break;
 			}
 		}
-		
-		TestResultTableModel tModel = new TestResultTableModel(mmap);
+		return mmap;
+	}
+	
+	public static void showTable(String title, TestResultMultiMap mmap) {
+		showTable(title, mmap, TestResultTableModel.View.TIMES);
+	}
+
+	public static void showTable(String title, TestResultMultiMap mmap,
+			TestResultTableModel.View view) {
+		TestResultTableModel tModel = new TestResultTableModel(mmap, view);
 		JTable table = new JTable(tModel);
 		JScrollPane pane = new JScrollPane(table);
 		JFrame frame = new JFrame();
-		frame.setTitle(className);
+		frame.setTitle(title);
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		frame.getContentPane().add(pane);
 		frame.pack();
 		frame.setVisible(true);
-		
+	}
+
+	public static void main(String[] args) {
+		String className = "edu.bsu.cs.sorting.buis.integer.HybridSort";
+		System.out.println(className);
+		IntSortTester tester = new IntSortTester(className);
+		TestResultMultiMap mmap = testSizes(tester, 8);
+		showTable(className, mmap);
 	}
 }
@@ -0,0 +1,109 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Arrays;
+
+import edu.bsu.cs.sorting.metrics.HistogramBuckets;
+
+/**
+ * A histogram of non-negative long values (nanoseconds, say) with the
+ * HistogramBuckets layout, so a value is known to within 1 part in
+ * 2^(precisionBits-1). All the buckets are allocated up front,
+ * so record() allocates nothing and can sit in a timing loop.
+ *
+ * Not thread-safe: give each recording thread its own histogram and add()
+ * them together afterwards.
+ */
+public final class LatencyHistogram {
+
+	private final int precisionBits;
+	private final long[] counts;
+	private long total;
+	private long max;
+	private double sum;
+
+	/**
+	 * A histogram good to within 1% (precisionBits = 8).
+	 */
+	public LatencyHistogram() {
+		this(8);
+	}
+
+	public LatencyHistogram(int precisionBits) {
+		if (precisionBits < 2 || precisionBits > 20) {
+			throw new IllegalArgumentException("precisionBits("
+					+ precisionBits + ") not in [2, 20]");
+		}
+		this.precisionBits = precisionBits;
+		this.counts = new long[HistogramBuckets.count(precisionBits)];
+	}
+
+	/**
+	 * Counts value, taking negative values as 0.
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts[HistogramBuckets.index(value, precisionBits)]++;
+		total++;
+		sum += value;
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	public void add(LatencyHistogram other) {
+		if (other.precisionBits != precisionBits) {
+			throw new IllegalArgumentException("precisionBits "
+					+ other.precisionBits + " != " + precisionBits);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		total += other.total;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0);
+		total = 0;
+		sum = 0;
+		max = 0;
+	}
+
+	public long count() {
+		return total;
+	}
+
+	public long max() {
+		return max;
+	}
+
+	public double mean() {
+		return (total == 0) ? 0 : sum / total;
+	}
+
+	/**
+	 * @return the smallest recorded value (to within the precision) that
+	 *         at least percentile percent of the values are no greater than,
+	 *         or 0 if nothing has been recorded
+	 */
+	public long valueAtPercentile(double percentile) {
+		if (total == 0) {
+			return 0;
+		}
+		long target = (long) Math.ceil(Math.min(percentile, 100.0) / 100.0
+				* total);
+		target = Math.max(target, 1);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min(
+						HistogramBuckets.highestValue(i, precisionBits), max);
+			}
+		}
+		return max;
+	}
+}
@@ -0,0 +1,58 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.buis.integer.InsertionSort;
+import edu.bsu.cs.sorting.buis.integer.IntRangeSorter;
+import edu.bsu.cs.sorting.buis.integer.IntroSort;
+import edu.bsu.cs.sorting.buis.integer.SortingNetworks;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+
+/**
+ * Sweeps the leaf threshold of IntroSort and DualPivotQuicksort with
+ * insertion sort and sorting network leaves, printing the fastest of
+ * several runs on random arrays of 10^pow ints (default 6) for each. Both
+ * engines leave parts of at most the threshold to the leaf; a threshold
+ * the engine or the leaf doesn't accept shows as "-".
+ */
+public class LeafSortTester {
+
+	private static final int[] THRESHOLDS = { 4, 7, 8, 12, 16, 24, 32, 46,
+			64 };
+
+	// prevent instantiation
+	private LeafSortTester() {
+	}
+
+	private static void time(Consumer<int[]> sorter, int size,
+			boolean accepted) {
+		if (accepted) {
+			System.out.printf("%16.6f", IntSortTester.bestOf(sorter, size, 3));
+		} else {
+			System.out.printf("%16s", "-");
+		}
+	}
+
+	public static void main(String[] args) {
+		int size = IntSortTester.pow10(args.length > 0 ? Integer
+				.parseInt(args[0]) : 6);
+		IntRangeSorter insertion = InsertionSort::sort;
+		IntRangeSorter network = SortingNetworks.LEAF;
+		System.out.printf("%,d elements%n", size);
+		System.out.printf("%12s%16s%16s%16s%16s%n", "Threshold",
+				"Intro+insert", "Intro+network", "DPQ+insert", "DPQ+network");
+		for (int threshold : THRESHOLDS) {
+			boolean dualPivot =
+					threshold >= DualPivotQuicksort.MIN_LEAF_THRESHOLD;
+			boolean fits = threshold <= network.maxLength();
+			System.out.printf("%12d", threshold);
+			time(a -> IntroSort.sort(a, threshold, insertion), size, true);
+			time(a -> IntroSort.sort(a, threshold, network), size, fits);
+			time(a -> DualPivotQuicksort.sort(a, threshold, null), size,
+					dualPivot);
+			time(a -> DualPivotQuicksort.sort(a, threshold, network), size,
+					dualPivot && fits);
+			System.out.println();
+		}
+	}
+}
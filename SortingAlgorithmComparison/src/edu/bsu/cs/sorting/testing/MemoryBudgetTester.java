@@ -0,0 +1,59 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Arrays;
+
+import edu.bsu.cs.sorting.dispatch.MemoryBudgetSort;
+
+/**
+ * Sorts random, presorted and narrow-range arrays through MemoryBudgetSort
+ * under budgets of nothing, n/2 ints and n ints, printing the engine it
+ * picked, the time, and the scratch the sort actually allocated, measured
+ * by MemoryMeter, against the budget. The narrow ranges span n/8 values,
+ * which the parallel sort counting sorts, and 3.9n, which it doesn't.
+ */
+public class MemoryBudgetTester {
+
+	// the budget leaves out task objects and stack frames, a few KB
+	private static final long SLACK_BYTES = 64 << 10;
+
+	// prevent instantiation
+	private MemoryBudgetTester() {
+	}
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		System.out.printf("%8s %12s %-30s %12s %12s%n", "Input", "Budget",
+				"Engine", "Seconds", "Allocated");
+		for (String input : new String[] { "random", "sorted", "n/8",
+				"3.9n" }) {
+			int range = input.equals("n/8") ? Math.max(1, size / 8) : input
+					.equals("3.9n") ? (int) (3.9 * size) : 10 * size;
+			int[] data = IntSortTester.randomIntArray(size, range);
+			if (input.equals("sorted")) {
+				Arrays.sort(data);
+			}
+			for (long budget : new long[] { 0, 2L * size, 4L * size }) {
+				// one unmeasured run so class loading isn't counted
+				MemoryBudgetSort.sort(data.clone(), budget);
+				int[] a = data.clone();
+				MemoryMeter meter = new MemoryMeter();
+				meter.start();
+				long start = System.nanoTime();
+				MemoryBudgetSort.Choice choice = MemoryBudgetSort.sort(a,
+						budget);
+				long stop = System.nanoTime();
+				meter.stop();
+				boolean sorted = true;
+				for (int i = 1; i < a.length; i++) {
+					sorted &= a[i - 1] <= a[i];
+				}
+				long allocated = meter.allocatedBytes();
+				System.out.printf("%8s %,12d %-30s %12.6f %,12d%s%s%n", input,
+						budget, choice.engine, (stop - start) / 1e9, allocated,
+						sorted ? "" : " NOT SORTED",
+						allocated > budget + SLACK_BYTES ? " OVER BUDGET" : "");
+				System.out.println("         " + choice.reason);
+			}
+		}
+	}
+}
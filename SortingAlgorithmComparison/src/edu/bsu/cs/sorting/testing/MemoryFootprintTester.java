@@ -0,0 +1,67 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+
+/**
+ * Time against memory for every dispatch Engine: the best of three runs
+ * and the scratch bytes and peak heap growth per element of the worst, at
+ * each size. Scratch is what the sort allocated, so LegacyMergeSort's clone
+ * shows as 4 bytes per element, and TimSort's merge space, at most n/2
+ * ints but reallocated each time it grows, as about 4 too, while in-place
+ * sorts show about 0; a sort that reuses a pooled buffer shows its
+ * allocation on the first run only.
+ *
+ * With a directory argument, each engine's table is also written there as
+ * ENGINE.csv.
+ */
+public class MemoryFootprintTester {
+
+	// prevent instantiation
+	private MemoryFootprintTester() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path dir = args.length > 0 ? Paths.get(args[0]) : null;
+		int maxPow = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+		if (dir != null) {
+			Files.createDirectories(dir);
+		}
+		System.out.printf("%-30s %12s %12s %14s %14s%n", "Engine", "Size",
+				"Seconds", "Scratch B/el", "Peak heap B/el");
+		for (Engine engine : Engine.values()) {
+			IntSortTester tester = new IntSortTester(engine::sort)
+					.measureMemory(true);
+			TestResultMultiMap mmap = new TestResultMultiMap();
+			for (int iPow = 4; iPow <= maxPow; iPow++) {
+				int size = IntSortTester.pow10(iPow);
+				if (size > engine.maxLength) {
+					break;
+				}
+				int[] data = IntSortTester.randomIntArray(size, 10 * size);
+				for (int repeatCount = 0; repeatCount < 3; repeatCount++) {
+					mmap.put(size, tester.test(data.clone()));
+				}
+			}
+			TestResultTableModel table = new TestResultTableModel(mmap,
+					TestResultTableModel.View.TIME_VS_MEMORY);
+			for (int row = 0; row < table.getRowCount(); row++) {
+				System.out.printf("%-30s %,12d %12.6f %14.2f %14.2f%n",
+						engine, table.getValueAt(row, 0),
+						table.getValueAt(row, 1), table.getValueAt(row, 3),
+						table.getValueAt(row, 5));
+			}
+			if (dir != null) {
+				try (Writer out = Files.newBufferedWriter(dir.resolve(engine
+						+ ".csv"))) {
+					table.writeCsv(out);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures what a sort costs in memory between start() and stop():
+ *
+ * allocatedBytes() is the bytes allocated by every thread alive at stop(),
+ * the sorting thread and any pool workers, from HotSpot's per-thread
+ * allocation counters. That is the scratch space the sort requested, plus
+ * a few hundred bytes of harness noise; a sort drawing on a pooled buffer
+ * it already holds requests nothing. Threads that end before stop() are not
+ * counted.
+ *
+ * peakHeapBytes() is how far the summed peak usage of the heap pools rose
+ * above their usage at start(). Garbage counts until it is collected, so it
+ * is an upper bound on the live scratch, close to it for sorts that
+ * allocate one large workspace. Collectors that hand out heap by region
+ * report it in whole regions (1MB or more under G1), so it means little for
+ * sorts needing less than a few regions.
+ *
+ * Both are -1 when the VM can't measure them. Not thread-safe.
+ */
+public final class MemoryMeter {
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+	private static final List<MemoryPoolMXBean> POOLS = ManagementFactory
+			.getMemoryPoolMXBeans();
+
+	private final Map<Long, Long> allocatedAtStart = new HashMap<>();
+	private long heapAtStart;
+	private long allocatedBytes = -1;
+	private long peakHeapBytes = -1;
+
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			com.sun.management.ThreadMXBean bean =
+					(com.sun.management.ThreadMXBean) ManagementFactory
+							.getThreadMXBean();
+			if (!bean.isThreadAllocatedMemorySupported()) {
+				return null;
+			}
+			bean.setThreadAllocatedMemoryEnabled(true);
+			return bean;
+		} catch (ClassCastException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	public void start() {
+		allocatedAtStart.clear();
+		if (THREADS != null) {
+			long[] ids = THREADS.getAllThreadIds();
+			long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+			for (int i = 0; i < ids.length; i++) {
+				allocatedAtStart.put(ids[i], bytes[i]);
+			}
+		}
+		heapAtStart = 0;
+		for (MemoryPoolMXBean pool : POOLS) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+				heapAtStart += pool.getUsage().getUsed();
+			}
+		}
+	}
+
+	public void stop() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : POOLS) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		peakHeapBytes = Math.max(0, peak - heapAtStart);
+		if (THREADS == null) {
+			return;
+		}
+		long[] ids = THREADS.getAllThreadIds();
+		long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+		long total = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (bytes[i] > 0) {
+				// threads started since start() count from zero
+				total += bytes[i] - allocatedAtStart.getOrDefault(ids[i], 0L);
+			}
+		}
+		allocatedBytes = total;
+	}
+
+	public long allocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public long peakHeapBytes() {
+		return peakHeapBytes;
+	}
+}
@@ -0,0 +1,42 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Arrays;
+
+import edu.bsu.cs.sorting.javautil.integer.BottomUpMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.LegacyMergeSort;
+
+/**
+ * LegacyMergeSort, which clones its input and recurses top-down, against
+ * BottomUpMergeSort with a pooled buffer, a buffer the caller keeps, and in
+ * parallel, on random input and on input already sorted, where every merge
+ * pass of the bottom-up sort is skipped.
+ */
+public class MergeSortTester {
+
+	// prevent instantiation
+	private MergeSortTester() {
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%12s %8s %12s %12s %12s %12s%n", "Size", "Input",
+				"Legacy", "BottomUp", "OwnBuffer", "Parallel");
+		for (int iPow = 4; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] buffer = new int[size];
+			for (String input : new String[] { "random", "sorted" }) {
+				int[] data = IntSortTester.randomIntArray(size, 10 * size);
+				if (input.equals("sorted")) {
+					Arrays.sort(data);
+				}
+				System.out.printf("%,12d %8s %12.6f %12.6f %12.6f %12.6f%n",
+						size, input,
+						IntSortTester.bestOf(LegacyMergeSort::sort, data, 3),
+						IntSortTester.bestOf(BottomUpMergeSort::sort, data, 3),
+						IntSortTester.bestOf(
+								a -> BottomUpMergeSort.sort(a, buffer), data, 3),
+						IntSortTester.bestOf(BottomUpMergeSort::parallelSort,
+								data, 3));
+			}
+		}
+	}
+}
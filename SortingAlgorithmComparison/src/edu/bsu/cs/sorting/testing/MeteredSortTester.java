@@ -0,0 +1,82 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.bsu.cs.sorting.dispatch.SortDispatcher;
+import edu.bsu.cs.sorting.metrics.MeteredSort;
+
+/**
+ * Sorts arrays of random length and shape through a MeteredSort over the
+ * SortDispatcher from [threads] threads (default 4) for [seconds] seconds
+ * (default 5), then reads the engines' metrics back through the platform
+ * MBean server, as a dashboard would. Run with -Dcom.sun.management.jmxremote
+ * and a larger seconds to watch them in jconsole meanwhile.
+ */
+public class MeteredSortTester {
+
+	// prevent instantiation
+	private MeteredSortTester() {
+	}
+
+	private static int[] randomInput() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int size = 1 << random.nextInt(4, 17);
+		int[] a = IntSortTester.randomIntArray(size, random.nextBoolean()
+				? 10 * size : 16);
+		if (random.nextInt(4) == 0) {
+			Arrays.sort(a, 0, size - size / 16);
+		}
+		return a;
+	}
+
+	public static void main(String[] args) throws InterruptedException,
+			JMException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		long seconds = args.length > 1 ? Long.parseLong(args[1]) : 5;
+		MeteredSort sort = new MeteredSort(SortDispatcher.shared());
+		sort.register("tester");
+		long end = System.nanoTime() + seconds * 1_000_000_000L;
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				while (System.nanoTime() < end) {
+					sort.accept(randomInput());
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		System.out.printf("%-32s %10s %14s %10s %10s %12s %12s%n", "Engine",
+				"Calls", "Elements", "p50 us", "p99 us", "ns/element",
+				"bytes/elem");
+		for (ObjectName name : server.queryNames(new ObjectName(
+				MeteredSort.DOMAIN + ":type=SortMetrics,name="
+						+ ObjectName.quote("tester") + ",*"), null)) {
+			long calls = (Long) server.getAttribute(name, "Calls");
+			if (calls == 0) {
+				continue;
+			}
+			System.out.printf("%-32s %,10d %,14d %10.1f %10.1f %12.2f %12.3f%n",
+					server.getAttribute(name, "Engine"), calls,
+					server.getAttribute(name, "Elements"),
+					(Long) server.getAttribute(name, "P50Nanos") / 1e3,
+					(Long) server.getAttribute(name, "P99Nanos") / 1e3,
+					server.getAttribute(name, "NanosPerElement"),
+					server.getAttribute(name, "ScratchBytesPerElement"));
+		}
+		sort.unregister();
+	}
+}
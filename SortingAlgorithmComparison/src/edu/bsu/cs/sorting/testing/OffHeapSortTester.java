@@ -0,0 +1,73 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.offheap.OffHeapIntSort;
+
+/**
+ * Times the off-heap sorts on keys in a direct ByteBuffer against copying
+ * the keys into an int[], sorting that with DualPivotQuicksort and copying
+ * them back, for keys in native and in swapped byte order. Every column
+ * also copies the keys into the buffer and back out again, the same for
+ * each, so it is the differences between columns that count.
+ */
+public class OffHeapSortTester {
+
+	// prevent instantiation
+	private OffHeapSortTester() {
+	}
+
+	private static void sortOnHeap(ByteBuffer buffer, ByteOrder order) {
+		IntBuffer keys = buffer.duplicate().order(order).asIntBuffer();
+		int[] a = new int[keys.remaining()];
+		keys.get(a);
+		DualPivotQuicksort.sort(a);
+		keys.flip();
+		keys.put(a);
+	}
+
+	// sorter run on keys in a direct buffer: puts a's keys in the buffer,
+	// sorts them there and reads them back into a
+	private static Consumer<int[]> throughBuffer(ByteBuffer buffer,
+			ByteOrder order, Consumer<ByteBuffer> sorter) {
+		return a -> {
+			IntBuffer keys = buffer.duplicate().order(order).asIntBuffer();
+			keys.put(a);
+			sorter.accept(buffer);
+			keys.flip();
+			keys.get(a);
+		};
+	}
+
+	public static void main(String[] args) {
+		ByteOrder nativeOrder = ByteOrder.nativeOrder();
+		ByteOrder swapped = (nativeOrder == ByteOrder.BIG_ENDIAN)
+				? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+		System.out.printf("%12s %14s %12s %12s %12s %12s%n", "Size", "Order",
+				"CopyDPQ", "OffHeapDPQ", "Radix", "Parallel");
+
+		for (int iPow = 5; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] data = IntSortTester.randomIntArray(size, Integer.MAX_VALUE);
+			ByteBuffer buffer = ByteBuffer.allocateDirect(size * Integer.BYTES);
+			for (ByteOrder order : new ByteOrder[] { nativeOrder, swapped }) {
+				List<Consumer<ByteBuffer>> sorters = List.of(
+						b -> sortOnHeap(b, order),
+						b -> OffHeapIntSort.sort(b, order),
+						b -> OffHeapIntSort.radixSort(b, order),
+						b -> OffHeapIntSort.parallelSort(b, order));
+				System.out.printf("%,12d %14s", size, order);
+				for (Consumer<ByteBuffer> sorter : sorters) {
+					System.out.printf(" %12.6f", IntSortTester.bestOf(
+							throughBuffer(buffer, order, sorter), data, 3));
+				}
+				System.out.println();
+			}
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort.MergeMode;
+
+/**
+ * Compares the merge modes of ParallelDualPivotQuicksort on random data
+ * and on skewed data, where the first half of the array holds only small
+ * values, so midpoint splits of the binary merges come out unbalanced.
+ * Run with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N to
+ * see how each mode scales with cores.
+ */
+public class ParallelMergeTester {
+
+	// prevent instantiation
+	private ParallelMergeTester() {
+	}
+
+	public static int[] skewedIntArray(int length) {
+		Random generator = new Random(0);
+		int[] a = new int[length];
+		for (int i = 0; i < length / 2; i++) {
+			a[i] = generator.nextInt(length);
+		}
+		for (int i = length / 2; i < length; i++) {
+			a[i] = length + generator.nextInt(100 * length);
+		}
+		return a;
+	}
+
+	public static void main(String[] args) {
+		System.out.println("parallelism "
+				+ ForkJoinPool.getCommonPoolParallelism());
+		System.out.printf("%12s %8s", "Size", "Input");
+		for (MergeMode mode : MergeMode.values()) {
+			System.out.printf("%14s", mode);
+		}
+		System.out.println();
+
+		for (int iPow = 5; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			for (String input : new String[] { "random", "skewed" }) {
+				int[] data = input.equals("random") ? IntSortTester
+						.randomIntArray(size, 10 * size) : skewedIntArray(size);
+				System.out.printf("%,12d %8s", size, input);
+				for (MergeMode mode : MergeMode.values()) {
+					System.out.printf("%14.6f", IntSortTester.bestOf(
+							a -> ParallelDualPivotQuicksort.sort(a, mode), data,
+							3));
+				}
+				System.out.println();
+			}
+		}
+	}
+}
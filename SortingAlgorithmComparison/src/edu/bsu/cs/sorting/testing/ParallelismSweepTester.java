@@ -0,0 +1,53 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.concurrent.ForkJoinPool;
+
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelSortConfig;
+import edu.bsu.cs.sorting.javautil.integer.ParallelTimSort;
+
+/**
+ * Speedup curves for the parallel sorts: each is run in its own
+ * ForkJoinPool of parallelism 1 through N (default: the number of
+ * processors, or args[0]), and the best time is printed along with the
+ * speedup over parallelism 1.
+ */
+public class ParallelismSweepTester {
+
+	// prevent instantiation
+	private ParallelismSweepTester() {
+	}
+
+	public static void main(String[] args) {
+		int maxParallelism = args.length > 0 ? Integer.parseInt(args[0])
+				: Runtime.getRuntime().availableProcessors();
+		System.out.printf("%12s %4s %14s %8s %14s %8s%n", "Size", "p",
+				"ParallelDPQ", "speedup", "ParallelTim", "speedup");
+
+		for (int iPow = 6; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] data = IntSortTester.randomIntArray(size, 10 * size);
+			double dpq1 = 0, tim1 = 0;
+			for (int p = 1; p <= maxParallelism; p++) {
+				ForkJoinPool pool = new ForkJoinPool(p);
+				try {
+					ParallelSortConfig config = ParallelSortConfig.builder()
+							.pool(pool).parallelism(p).build();
+					double dpq = IntSortTester.bestOf(
+							a -> ParallelDualPivotQuicksort.sort(a, config),
+							data, 3);
+					double tim = IntSortTester.bestOf(
+							a -> ParallelTimSort.sort(a, config), data, 3);
+					if (p == 1) {
+						dpq1 = dpq;
+						tim1 = tim;
+					}
+					System.out.printf("%,12d %4d %14.6f %8.2f %14.6f %8.2f%n",
+							size, p, dpq, dpq1 / dpq, tim, tim1 / tim);
+				} finally {
+					pool.shutdown();
+				}
+			}
+		}
+	}
+}
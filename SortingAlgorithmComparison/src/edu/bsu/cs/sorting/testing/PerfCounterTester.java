@@ -0,0 +1,45 @@
+package edu.bsu.cs.sorting.testing;
+
+/**
+ * Hardware counts per element for a few engines on the same random input,
+ * to see why one sort beats another: IntroSort's partition loop against
+ * DualPivotQuicksort's in branch misses, HeapSort's sift-downs in cache
+ * misses. Arguments: [size [ENGINE,...]]. Needs Linux perf (see PerfStat).
+ */
+public class PerfCounterTester {
+
+	// prevent instantiation
+	private PerfCounterTester() {
+	}
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		String[] sorters = args.length > 1 ? args[1].split(",")
+				: new String[] { "INTRO_SORT", "DUAL_PIVOT_QUICKSORT",
+						"HEAP_SORT" };
+		if (!PerfStat.available()) {
+			System.err.println("perf stat is not available; set -D"
+					+ PerfStat.PERF_PROPERTY + "=/path/to/perf or lower"
+					+ " /proc/sys/kernel/perf_event_paranoid");
+			return;
+		}
+		int[] data = IntSortTester.randomIntArray(size, 10 * size);
+		System.out.printf("%,d elements, counts per element%n", size);
+		System.out.printf("%-30s %10s %10s %10s %10s %10s %10s%n", "Engine",
+				"Seconds", "Cycles", "Instr", "L1 miss", "LLC miss",
+				"Br miss");
+		for (String sorter : sorters) {
+			TestResult result = new IntSortTester(
+					edu.bsu.cs.sorting.dispatch.Engine.valueOf(sorter)::sort)
+					.measureCounters(sorter).test(data.clone());
+			PerfCounters c = result.counters;
+			if (c == null) {
+				System.out.printf("%-30s %10s%n", sorter, "FAILED");
+				continue;
+			}
+			System.out.printf("%-30s %10.6f %10.2f %10.2f %10.3f %10.4f %10.3f%n",
+					sorter, result.performance, c.cycles, c.instructions,
+					c.l1Misses, c.llcMisses, c.branchMisses);
+		}
+	}
+}
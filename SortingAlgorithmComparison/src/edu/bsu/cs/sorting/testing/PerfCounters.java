@@ -0,0 +1,39 @@
+package edu.bsu.cs.sorting.testing;
+
+/**
+ * Hardware counts per element sorted, as measured by PerfStat. A count the
+ * CPU or kernel wouldn't give (perf's "not supported" or "not counted") is
+ * NaN.
+ */
+public final class PerfCounters {
+
+	// the perf events counted, in the order of the fields below
+	static final String[] EVENTS = { "cycles", "instructions",
+			"L1-dcache-load-misses", "LLC-load-misses", "branch-misses" };
+
+	public final double cycles;
+	public final double instructions;
+	public final double l1Misses;
+	public final double llcMisses;
+	public final double branchMisses;
+
+	PerfCounters(double[] perElement) {
+		this.cycles = perElement[0];
+		this.instructions = perElement[1];
+		this.l1Misses = perElement[2];
+		this.llcMisses = perElement[3];
+		this.branchMisses = perElement[4];
+	}
+
+	// instructions per cycle
+	public double ipc() {
+		return instructions / cycles;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%.2f cycles, %.2f instructions, %.3f L1 misses,"
+				+ " %.4f LLC misses, %.3f branch misses per element",
+				cycles, instructions, l1Misses, llcMisses, branchMisses);
+	}
+}
@@ -0,0 +1,213 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+
+/**
+ * Counts cycles, instructions, L1 and LLC load misses and branch misses of
+ * a sort with Linux perf stat. Each measurement runs the sort in a worker
+ * JVM of its own (this class's main) under perf, started with its counters
+ * disabled; the worker sorts the input a few times to warm up, then enables
+ * the counters, through perf's control FIFO, only around each timed sort,
+ * so JVM startup, JIT warm-up and copying the input aren't counted. The
+ * counts are for the whole worker process while enabled, so GC and
+ * compiler threads that run during a sort count too.
+ *
+ * Needs perf 5.10 or later (for --control) on the path, or at the path in
+ * the system property PERF_PROPERTY, and a perf_event_paranoid setting
+ * that lets this user count its own processes.
+ */
+public final class PerfStat {
+
+	public static final String PERF_PROPERTY = "edu.bsu.cs.sorting.perf";
+
+	private static final int WARMUP_SORTS = 3;
+
+	private static Boolean available;
+
+	// prevent instantiation
+	private PerfStat() {
+	}
+
+	private static String perf() {
+		return System.getProperty(PERF_PROPERTY, "perf");
+	}
+
+	/**
+	 * @return true if perf stat can count instructions here
+	 */
+	public static synchronized boolean available() {
+		if (available == null) {
+			try {
+				Process p = new ProcessBuilder(perf(), "stat", "-x,", "-e",
+						"instructions", "--", "true").redirectErrorStream(true)
+						.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+				available = p.waitFor() == 0;
+			} catch (IOException e) {
+				available = false;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return available;
+	}
+
+	/**
+	 * Sorts copies of input reps times in a worker JVM under perf stat.
+	 *
+	 * @param sorter
+	 *            an Engine name, or the name of a class with a public static
+	 *            sort(int[])
+	 * @return the counts per element, averaged over the reps
+	 */
+	public static PerfCounters measure(String sorter, int[] input, int reps)
+			throws IOException, InterruptedException {
+		Path dir = Files.createTempDirectory("perfstat");
+		try {
+			Path data = dir.resolve("input"), ctl = dir.resolve("ctl");
+			Path ack = dir.resolve("ack"), out = dir.resolve("perf.csv");
+			writeInts(data, input);
+			for (Path fifo : new Path[] { ctl, ack }) {
+				Process mkfifo = new ProcessBuilder("mkfifo", fifo.toString())
+						.inheritIO().start();
+				if (mkfifo.waitFor() != 0) {
+					throw new IOException("mkfifo " + fifo + " failed");
+				}
+			}
+
+			List<String> command = new ArrayList<>(Arrays.asList(perf(),
+					"stat", "-x,", "-o", out.toString(), "-D", "-1",
+					"--control", "fifo:" + ctl + "," + ack, "-e",
+					String.join(",", PerfCounters.EVENTS), "--"));
+			command.add(Paths.get(System.getProperty("java.home"), "bin",
+					"java").toString());
+			if (ModuleLayer.boot().findModule("jdk.incubator.vector")
+					.isPresent()) {
+				command.add("--add-modules");
+				command.add("jdk.incubator.vector");
+			}
+			command.addAll(Arrays.asList("-cp",
+					System.getProperty("java.class.path"),
+					PerfStat.class.getName(), sorter, data.toString(),
+					Integer.toString(reps), ctl.toString(), ack.toString()));
+			Process worker = new ProcessBuilder(command).inheritIO().start();
+			if (worker.waitFor() != 0) {
+				throw new IOException("perf stat of " + sorter
+						+ " exited with " + worker.exitValue());
+			}
+			return parse(Files.readAllLines(out), (double) reps
+					* input.length);
+		} finally {
+			try (Stream<Path> files = Files.list(dir)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.deleteIfExists(file);
+				}
+			}
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	// perf stat -x, lines are value,unit,event,...; the event may carry a
+	// modifier such as :u when only user space could be counted
+	static PerfCounters parse(List<String> lines, double elements) {
+		double[] perElement = new double[PerfCounters.EVENTS.length];
+		Arrays.fill(perElement, Double.NaN);
+		for (String line : lines) {
+			String[] fields = line.split(",");
+			if (line.startsWith("#") || fields.length < 3) {
+				continue;
+			}
+			String event = fields[2];
+			int colon = event.indexOf(':');
+			if (colon >= 0) {
+				event = event.substring(0, colon);
+			}
+			int i = Arrays.asList(PerfCounters.EVENTS).indexOf(event);
+			if (i >= 0) {
+				try {
+					perElement[i] = Double.parseDouble(fields[0]) / elements;
+				} catch (NumberFormatException e) {
+					// <not supported> or <not counted>
+				}
+			}
+		}
+		return new PerfCounters(perElement);
+	}
+
+	private static void writeInts(Path file, int[] a) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(a.length);
+			for (int v : a) {
+				out.writeInt(v);
+			}
+		}
+	}
+
+	private static int[] readInts(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				Files.newInputStream(file)))) {
+			int[] a = new int[in.readInt()];
+			for (int i = 0; i < a.length; i++) {
+				a[i] = in.readInt();
+			}
+			return a;
+		}
+	}
+
+	// sends a command to perf and waits for its ack
+	private static void control(OutputStream ctl, InputStream ack,
+			String command) throws IOException {
+		ctl.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+		ctl.flush();
+		int b;
+		while ((b = ack.read()) != '\n') {
+			if (b < 0) {
+				throw new IOException("perf closed its ack FIFO");
+			}
+		}
+	}
+
+	/**
+	 * The worker: sorter input reps ctlFifo ackFifo
+	 */
+	public static void main(String[] args) throws IOException {
+		String sorter = args[0];
+		Consumer<int[]> sort = sorter.indexOf('.') < 0 ? Engine
+				.valueOf(sorter)::sort : new IntSortTester(sorter)::sort;
+		int[] input = readInts(Paths.get(args[1]));
+		int reps = Integer.parseInt(args[2]);
+		for (int i = 0; i < WARMUP_SORTS; i++) {
+			sort.accept(input.clone());
+		}
+		// perf opens the control FIFO for reading first
+		try (OutputStream ctl = new FileOutputStream(args[3]);
+				InputStream ack = new FileInputStream(args[4])) {
+			for (int i = 0; i < reps; i++) {
+				int[] a = input.clone();
+				control(ctl, ack, "enable");
+				sort.accept(a);
+				control(ctl, ack, "disable");
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * Times DualPivotQuicksort with and without its run detection front end,
+ * and TimSort for reference, on sorted and nearly sorted int data, the
+ * kind an append-mostly log produces. Prints the fastest of several runs
+ * for each kind of input at each size.
+ */
+public class PresortedInputTester {
+
+	private static final String[] INPUTS = { "sorted", "reversed", "swaps",
+			"appended", "random" };
+
+	// prevent instantiation
+	private PresortedInputTester() {
+	}
+
+	public static int[] presortedIntArray(String input, int length) {
+		Random generator = new Random(0);
+		int[] a = new int[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = 10 * i + generator.nextInt(10);
+		}
+		switch (input) {
+		case "reversed":
+			for (int lo = 0, hi = length - 1; lo < hi; lo++, hi--) {
+				int t = a[lo];
+				a[lo] = a[hi];
+				a[hi] = t;
+			}
+			break;
+		case "swaps":
+			// a few dozen elements moved out of place
+			for (int swap = 0; swap < 30; swap++) {
+				int i = generator.nextInt(length), j = generator.nextInt(length);
+				int t = a[i];
+				a[i] = a[j];
+				a[j] = t;
+			}
+			break;
+		case "appended":
+			// a sorted log with an unsorted tail of late arrivals
+			for (int i = length - length / 100; i < length; i++) {
+				a[i] = generator.nextInt(10 * length);
+			}
+			break;
+		case "random":
+			for (int i = 0; i < length; i++) {
+				a[i] = generator.nextInt(10 * length);
+			}
+			break;
+		default:
+			break;
+		}
+		return a;
+	}
+
+	public static void main(String[] args) {
+		String[] names = { "quicksort", "adaptive", "adaptive+work", "TimSort" };
+		System.out.printf("%12s %10s", "Size", "Input");
+		for (String name : names) {
+			System.out.printf("%15s", name);
+		}
+		System.out.println();
+
+		for (int iPow = 3; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] work = new int[size];
+			List<Consumer<int[]>> sorters = List.of(DualPivotQuicksort::sort,
+					DualPivotQuicksort::sortAdaptive,
+					a -> DualPivotQuicksort.sortAdaptive(a, work), TimSort::sort);
+			for (String input : INPUTS) {
+				int[] data = presortedIntArray(input, size);
+				System.out.printf("%,12d %10s", size, input);
+				for (Consumer<int[]> sorter : sorters) {
+					System.out.printf("%15.6f",
+							IntSortTester.bestOf(sorter, data, 3));
+				}
+				System.out.println();
+			}
+		}
+	}
+}
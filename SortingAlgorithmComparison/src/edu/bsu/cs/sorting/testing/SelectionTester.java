@@ -0,0 +1,53 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Arrays;
+
+import edu.bsu.cs.sorting.buis.integer.Selection;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+
+/**
+ * What finding the k smallest values costs next to a full
+ * DualPivotQuicksort: select (the kth alone), partialSort (the k smallest
+ * in order, in place) and the heap-based topK and parallelTopK (the k
+ * smallest in order, as a new array), for a few k at each size.
+ */
+public class SelectionTester {
+
+	// prevent instantiation
+	private SelectionTester() {
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%12s %10s %12s %12s %12s %12s %12s%n", "Size", "k",
+				"DPQ", "select", "partialSort", "topK", "parallelTopK");
+
+		for (int iPow = 6; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[] data = IntSortTester.randomIntArray(size, 10 * size);
+			int[] sorted = data.clone();
+			Arrays.sort(sorted);
+			for (int k : new int[] { 10, 1000, size / 100, size / 2 }) {
+				int[] top = Selection.topK(data, k);
+				int[] parallelTop = Selection.parallelTopK(data, k);
+				int[] expected = Arrays.copyOf(sorted, k);
+				String check = Arrays.equals(top, expected)
+						&& Arrays.equals(parallelTop, expected) ? ""
+						: " WRONG";
+				System.out.printf("%,12d %,10d %12.6f %12.6f %12.6f %12.6f %12.6f%s%n",
+						size, k,
+						IntSortTester.bestOf(DualPivotQuicksort::sort, data,
+								3, false),
+						IntSortTester.bestOf(a -> Selection.select(a, k - 1),
+								data, 3, false),
+						IntSortTester.bestOf(a -> Selection.partialSort(a, k),
+								data, 3, false),
+						IntSortTester.bestOf(a -> Selection.topK(a, k), data,
+								3, false),
+						IntSortTester.bestOf(
+								a -> Selection.parallelTopK(a, k), data, 3,
+								false),
+						check);
+			}
+		}
+	}
+}
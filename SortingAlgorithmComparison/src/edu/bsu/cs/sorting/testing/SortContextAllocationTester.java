@@ -0,0 +1,123 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.javautil.generic.ObjectSortContext;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.IntSortContext;
+import edu.bsu.cs.sorting.javautil.integer.LegacyMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * Checks that repeated sorts through an IntSortContext or ObjectSortContext
+ * allocate nothing once warmed up: for each sort, sorts batches of 10^pow
+ * elements (default 6) WARMUP times, then measures the bytes allocated by
+ * every thread over SORTS and over 2 * SORTS more, with the static entry
+ * point beside it for comparison. Each batch is copied into one array kept
+ * for the purpose, so the harness itself allocates only MemoryMeter's few
+ * hundred bytes, the same for both measurements; their difference is what
+ * SORTS sorts allocated. Exits with status 1 if a context sort allocated.
+ */
+public class SortContextAllocationTester {
+
+	private static final int WARMUP = 20;
+	private static final int SORTS = 50;
+
+	// prevent instantiation
+	private SortContextAllocationTester() {
+	}
+
+	// bytes allocated per sort, or -1 if the VM can't count them
+	private static <A> long bytesPerSort(Consumer<A> sorter, A input,
+			A scratch, int length) {
+		sorts(sorter, input, scratch, length, WARMUP, null);
+		MemoryMeter meter = new MemoryMeter();
+		long once = sorts(sorter, input, scratch, length, SORTS, meter);
+		long twice = sorts(sorter, input, scratch, length, 2 * SORTS, meter);
+		if (once < 0 || twice < 0) {
+			return -1;
+		}
+		return Math.max(0, twice - once) / SORTS;
+	}
+
+	private static <A> long sorts(Consumer<A> sorter, A input, A scratch,
+			int length, int count, MemoryMeter meter) {
+		if (meter != null) {
+			meter.start();
+		}
+		for (int i = 0; i < count; i++) {
+			System.arraycopy(input, 0, scratch, 0, length);
+			sorter.accept(scratch);
+		}
+		if (meter == null) {
+			return 0;
+		}
+		meter.stop();
+		return meter.allocatedBytes();
+	}
+
+	public static void main(String[] args) {
+		int size = IntSortTester.pow10(args.length > 0 ? Integer
+				.parseInt(args[0]) : 6);
+		int[] ints = IntSortTester.randomIntArray(size, 10 * size);
+		int[] intScratch = new int[size];
+		Integer[] boxed = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			boxed[i] = ints[i];
+		}
+		Integer[] boxedScratch = new Integer[size];
+		Comparator<Integer> order = Comparator.naturalOrder();
+		IntSortContext intContext = new IntSortContext();
+		ObjectSortContext objectContext = new ObjectSortContext();
+		if (bytesPerSort(intContext::sort, ints, intScratch, size) < 0) {
+			System.out.println("this VM can't count allocated bytes");
+			return;
+		}
+
+		System.out.printf("%,d elements, bytes allocated per sort%n", size);
+		System.out.printf("%-28s %14s %14s%n", "Sort", "Static", "Context");
+		boolean allocated = false;
+		long[][] rows = {
+				{ bytesPerSort(DualPivotQuicksort::sort, ints, intScratch,
+						size),
+						bytesPerSort(intContext::sort, ints, intScratch, size) },
+				{ bytesPerSort(TimSort::sort, ints, intScratch, size),
+						bytesPerSort(intContext::timSort, ints, intScratch,
+								size) },
+				{ bytesPerSort(LegacyMergeSort::sort, ints, intScratch, size),
+						bytesPerSort(intContext::mergeSort, ints, intScratch,
+								size) },
+				{ bytesPerSort(ParallelDualPivotQuicksort::sort, ints,
+						intScratch, size),
+						bytesPerSort(intContext::parallelSort, ints,
+								intScratch, size) },
+				{ bytesPerSort((Integer[] a) -> edu.bsu.cs.sorting.javautil.generic.TimSort
+						.sort(a, 0, a.length, order, null, 0, 0), boxed,
+						boxedScratch, size),
+						bytesPerSort((Integer[] a) -> objectContext.timSort(a,
+								order), boxed, boxedScratch, size) },
+				{ bytesPerSort(edu.bsu.cs.sorting.javautil.generic.LegacyMergeSort::sort,
+						boxed, boxedScratch, size),
+						bytesPerSort(objectContext::mergeSort, boxed,
+								boxedScratch, size) },
+				{ bytesPerSort((Integer[] a) -> edu.bsu.cs.sorting.javautil.generic.ParallelTimSort
+						.sort(a, order), boxed, boxedScratch, size),
+						bytesPerSort((Integer[] a) -> objectContext
+								.parallelSort(a, order), boxed, boxedScratch,
+								size) } };
+		String[] names = { "int DualPivotQuicksort", "int TimSort",
+				"int LegacyMergeSort", "int parallel", "Integer TimSort",
+				"Integer LegacyMergeSort", "Integer parallel" };
+		for (int i = 0; i < rows.length; i++) {
+			System.out.printf("%-28s %,14d %,14d%n", names[i], rows[i][0],
+					rows[i][1]);
+			allocated |= rows[i][1] > 0;
+		}
+		if (allocated) {
+			System.out.println("a context sort allocated");
+			System.exit(1);
+		}
+	}
+}
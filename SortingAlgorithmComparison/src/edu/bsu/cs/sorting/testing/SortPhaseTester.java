@@ -0,0 +1,100 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import edu.bsu.cs.sorting.events.SortEvents;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * Records the sort phase events of DualPivotQuicksort, TimSort and the
+ * parallel sort on random input of 10^maxPow ints (default 6) and prints,
+ * for each algorithm and phase, the event count, the total and mean
+ * duration, the elements covered and the deepest depth. Phases nest (a
+ * parallel leaf contains a DualPivotQuicksort), so totals of different
+ * algorithms overlap.
+ */
+public class SortPhaseTester {
+
+	// prevent instantiation
+	private SortPhaseTester() {
+	}
+
+	private static final class Phase {
+		long count, nanos, elements;
+		int maxDepth = -1;
+	}
+
+	public static void main(String[] args) throws IOException {
+		// SortEvents reads this once, when first used below
+		System.setProperty(SortEvents.PROPERTY, "true");
+		int size = IntSortTester.pow10(args.length > 0 ? Integer
+				.parseInt(args[0]) : 6);
+		int[] data = IntSortTester.randomIntArray(size, 10 * size);
+		List<Consumer<int[]>> sorters = sorters();
+
+		// warm up unrecorded, so the phases are timed in compiled code
+		for (Consumer<int[]> sorter : sorters) {
+			sorter.accept(data.clone());
+		}
+		Path file = Files.createTempFile("sortphases", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String name : new String[] { "Partition", "LeafSort",
+					"RunDetection", "Merge" }) {
+				recording.enable("edu.bsu.cs.sorting." + name)
+						.withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			for (Consumer<int[]> sorter : sorters) {
+				sorter.accept(data.clone());
+			}
+			recording.stop();
+			recording.dump(file);
+		}
+
+		Map<String, Phase> phases = new TreeMap<>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+			Phase phase = phases.computeIfAbsent(
+					event.getString("algorithm") + " "
+							+ event.getEventType().getLabel(),
+					key -> new Phase());
+			phase.count++;
+			phase.nanos += event.getDuration().toNanos();
+			phase.elements += event.getInt("elements");
+			phase.maxDepth = Math.max(phase.maxDepth, event.getInt("depth"));
+		}
+		Files.delete(file);
+
+		System.out.printf("%,d random ints%n", size);
+		System.out.printf("%-40s %10s %12s %10s %14s %6s%n", "Phase",
+				"Events", "Total ms", "Mean us", "Elements", "Depth");
+		for (Map.Entry<String, Phase> entry : phases.entrySet()) {
+			Phase phase = entry.getValue();
+			System.out.printf("%-40s %,10d %12.3f %10.3f %,14d %6d%n",
+					entry.getKey(), phase.count, phase.nanos / 1e6,
+					phase.nanos / 1e3 / phase.count, phase.elements,
+					phase.maxDepth);
+		}
+	}
+
+	private static List<Consumer<int[]>> sorters() {
+		List<Consumer<int[]>> sorters = new ArrayList<>();
+		sorters.add(DualPivotQuicksort::sort);
+		sorters.add(TimSort::sort);
+		sorters.add(ParallelDualPivotQuicksort::sort);
+		return sorters;
+	}
+}
@@ -3,15 +3,37 @@ package edu.bsu.cs.sorting.testing;
 public class TestResult {
 	public final double performance;
 	public final boolean correct;
+	// bytes allocated, and peak heap growth, during the sort, or -1 when
+	// not measured (see MemoryMeter)
+	public final long scratchBytes;
+	public final long peakHeapBytes;
+	// hardware counts per element, or null when not measured (see PerfStat)
+	public final PerfCounters counters;
 	
 	public TestResult(boolean correct, double performance) {
+		this(correct, performance, -1, -1);
+	}
+
+	public TestResult(boolean correct, double performance,
+			long scratchBytes, long peakHeapBytes) {
+		this(correct, performance, scratchBytes, peakHeapBytes, null);
+	}
+
+	public TestResult(boolean correct, double performance,
+			long scratchBytes, long peakHeapBytes, PerfCounters counters) {
 		this.correct = correct;
 		this.performance = correct ? performance : Double.MAX_VALUE;
+		this.scratchBytes = scratchBytes;
+		this.peakHeapBytes = peakHeapBytes;
+		this.counters = counters;
 	}
 	
 	public TestResult combine(TestResult otherResult) {
 		return new TestResult(correct && otherResult.correct,
-				Math.max(performance, otherResult.performance));
+				Math.max(performance, otherResult.performance),
+				Math.max(scratchBytes, otherResult.scratchBytes),
+				Math.max(peakHeapBytes, otherResult.peakHeapBytes),
+				counters != null ? counters : otherResult.counters);
 	}
 
 }
@@ -1,21 +1,42 @@
 package edu.bsu.cs.sorting.testing;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
 
 public class TestResultTableModel extends AbstractTableModel {
 
+	// TIMES: a column of seconds per run; TIME_VS_MEMORY: for each size the
+	// best time beside the most scratch bytes and peak heap growth of any
+	// run, in bytes and per element, for choosing engines under a memory
+	// budget (the runs must come from a tester measuring memory)
+	public enum View {
+		TIMES, TIME_VS_MEMORY
+	}
+
+	private static final String[] MEMORY_COLUMNS = { "Size", "Best seconds",
+			"Scratch bytes", "Scratch bytes/element", "Peak heap bytes",
+			"Peak heap bytes/element" };
+
 	private static final long serialVersionUID = 1L;
 	private final TestResultMultiMap map;
+	private final View view;
 	
 	public TestResultTableModel(TestResultMultiMap map) {
+		this(map, View.TIMES);
+	}
+
+	public TestResultTableModel(TestResultMultiMap map, View view) {
 		this.map = map;
+		this.view = view;
 	}
 
 	@Override
 	public String getColumnName(int column)
 	{
+		if (view == View.TIME_VS_MEMORY)
+			return MEMORY_COLUMNS[column];
 		if (column == 0)
 			return "Size";
 		
@@ -31,12 +52,17 @@ public class TestResultTableModel extends AbstractTableModel {
 	public Class<?> getColumnClass(int columnIndex) {
 		if (columnIndex == 0)
 			return Integer.class;
+		if (view == View.TIME_VS_MEMORY
+				&& (columnIndex == 2 || columnIndex == 4))
+			return Long.class;
 		
 		return Double.class;
 	}
 	
 	@Override
 	public int getColumnCount() {
+		if (view == View.TIME_VS_MEMORY)
+			return MEMORY_COLUMNS.length;
 		int max = 0;
 		for(Integer k: map) {
 			int size = map.get(k).size();
@@ -54,10 +80,56 @@ public class TestResultTableModel extends AbstractTableModel {
 		}
 		
 		List<TestResult> list = map.get(size);
+		if (view == View.TIME_VS_MEMORY)
+			return memoryValue(size, list, columnIndex);
 		if (list.size() < columnIndex)
 			return null;
 		TestResult result = list.get(columnIndex-1);
 		return result.correct ? result.performance : Double.MAX_VALUE ;
 	}
 
+	private static Object memoryValue(int size, List<TestResult> list,
+			int columnIndex) {
+		double best = Double.MAX_VALUE;
+		long scratch = -1, peak = -1;
+		for (TestResult result : list) {
+			best = Math.min(best, result.performance);
+			scratch = Math.max(scratch, result.scratchBytes);
+			peak = Math.max(peak, result.peakHeapBytes);
+		}
+		switch (columnIndex) {
+		case 1:
+			return best;
+		case 2:
+			return scratch;
+		case 3:
+			return scratch < 0 ? null : (double) scratch / size;
+		case 4:
+			return peak;
+		default:
+			return peak < 0 ? null : (double) peak / size;
+		}
+	}
+
+	// writes the table as comma-separated values, a header line first
+	public void writeCsv(Appendable out) throws IOException {
+		int columns = getColumnCount();
+		for (int column = 0; column < columns; column++) {
+			if (column > 0)
+				out.append(',');
+			out.append(getColumnName(column));
+		}
+		out.append(System.lineSeparator());
+		for (int row = 0; row < getRowCount(); row++) {
+			for (int column = 0; column < columns; column++) {
+				if (column > 0)
+					out.append(',');
+				Object value = getValueAt(row, column);
+				if (value != null)
+					out.append(value.toString());
+			}
+			out.append(System.lineSeparator());
+		}
+	}
+
 }
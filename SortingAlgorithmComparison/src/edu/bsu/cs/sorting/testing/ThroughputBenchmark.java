@@ -0,0 +1,139 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.dispatch.Engine;
+
+/**
+ * Throughput of a sort under load: N caller threads each sort copies of
+ * their own random array back to back, as request threads in a server
+ * would, so the engines compete for the common pool, memory bandwidth and
+ * the allocator. After a warm-up, every sort is timed into the caller's
+ * LatencyHistogram, and the sorts per second and latency percentiles of
+ * all the callers together are printed.
+ *
+ * Usage: ThroughputBenchmark [callers [ENGINE,ENGINE,...]], by default
+ * one caller per processor and the sequential and parallel
+ * DualPivotQuicksort and TimSort engines.
+ */
+public class ThroughputBenchmark {
+
+	private static final long WARMUP_MILLIS = 500;
+	private static final long MILLIS = 2000;
+
+	// prevent instantiation
+	private ThroughputBenchmark() {
+	}
+
+	public static final class Result {
+		public final double opsPerSecond;
+		public final LatencyHistogram latency;
+
+		Result(double opsPerSecond, LatencyHistogram latency) {
+			this.opsPerSecond = opsPerSecond;
+			this.latency = latency;
+		}
+	}
+
+	/**
+	 * Runs callers threads from factory, each sorting copies of its own
+	 * random array of length size with engine, for warmupMillis untimed
+	 * and then millis timed.
+	 *
+	 * @return the timed sorts per second of all the callers together and
+	 *         their latencies in nanoseconds
+	 */
+	public static Result run(Consumer<int[]> engine, int callers, int size,
+			long warmupMillis, long millis, ThreadFactory factory)
+			throws InterruptedException {
+		CountDownLatch ready = new CountDownLatch(callers);
+		CountDownLatch go = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(callers);
+		List<LatencyHistogram> histograms = new ArrayList<>(callers);
+		// [0] end of warm-up, [1] end of timing; published by go
+		long[] deadline = new long[2];
+		for (int c = 0; c < callers; c++) {
+			int[] input = IntSortTester.randomIntArray(size, 10 * size);
+			LatencyHistogram histogram = new LatencyHistogram();
+			histograms.add(histogram);
+			factory.newThread(() -> {
+				int[] work = new int[size];
+				try {
+					ready.countDown();
+					go.await();
+					long warm = deadline[0], end = deadline[1];
+					while (true) {
+						System.arraycopy(input, 0, work, 0, size);
+						long t0 = System.nanoTime();
+						if (t0 >= end) {
+							break;
+						}
+						engine.accept(work);
+						if (t0 >= warm) {
+							histogram.record(System.nanoTime() - t0);
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		ready.await();
+		long start = System.nanoTime();
+		deadline[0] = start + warmupMillis * 1_000_000L;
+		deadline[1] = deadline[0] + millis * 1_000_000L;
+		go.countDown();
+		done.await();
+
+		LatencyHistogram latency = new LatencyHistogram();
+		for (LatencyHistogram histogram : histograms) {
+			latency.add(histogram);
+		}
+		// the last sorts may finish a little after the deadline
+		double seconds = Math.max(millis, 1) / 1000.0;
+		return new Result(latency.count() / seconds, latency);
+	}
+
+	private static List<Engine> engines(String arg) {
+		List<Engine> engines = new ArrayList<>();
+		for (String name : arg.split(",")) {
+			engines.add(Engine.valueOf(name.trim()));
+		}
+		return engines;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int callers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime
+				.getRuntime().availableProcessors();
+		List<Engine> engines = engines(args.length > 1 ? args[1]
+				: "DUAL_PIVOT_QUICKSORT,TIM_SORT,"
+						+ "PARALLEL_DUAL_PIVOT_QUICKSORT,PARALLEL_TIM_SORT");
+		System.out.printf("%d callers, latencies in microseconds%n", callers);
+		System.out.printf("%-30s %8s %12s %10s %10s %10s %10s%n", "Engine",
+				"Size", "ops/sec", "p50", "p99", "p99.9", "max");
+
+		for (Engine engine : engines) {
+			for (int iPow = 3; iPow <= 5; iPow++) {
+				int size = IntSortTester.pow10(iPow);
+				if (size > engine.maxLength) {
+					continue;
+				}
+				Result result = run(engine::sort, callers, size,
+						WARMUP_MILLIS, MILLIS, Thread::new);
+				LatencyHistogram latency = result.latency;
+				System.out.printf("%-30s %,8d %12.1f %10.1f %10.1f %10.1f %10.1f%n",
+						engine, size, result.opsPerSecond,
+						latency.valueAtPercentile(50) / 1e3,
+						latency.valueAtPercentile(99) / 1e3,
+						latency.valueAtPercentile(99.9) / 1e3,
+						latency.max() / 1e3);
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.Random;
+
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+import edu.bsu.cs.sorting.javautil.integer.TimSortContext;
+
+/**
+ * Sorts a stream of batches of one shape (sorted, with [swapped] percent of
+ * elements, default 5, moved at random) with TimSort, once starting each
+ * sort afresh and once carrying a TimSortContext from batch to batch, and
+ * prints the time per batch of each and what the context saw of the data.
+ */
+public class TimSortContextTester {
+
+	private static final int BATCHES = 200;
+
+	// prevent instantiation
+	private TimSortContextTester() {
+	}
+
+	private static int[][] batches(int size, int swapped, Random random) {
+		int[][] batches = new int[BATCHES][];
+		for (int b = 0; b < BATCHES; b++) {
+			int[] a = new int[size];
+			for (int i = 0; i < size; i++) {
+				a[i] = i;
+			}
+			for (int k = 0; k < size / 100 * swapped; k++) {
+				int i = random.nextInt(size), j = random.nextInt(size);
+				int t = a[i];
+				a[i] = a[j];
+				a[j] = t;
+			}
+			batches[b] = a;
+		}
+		return batches;
+	}
+
+	// seconds per batch
+	private static double time(int[][] batches, TimSortContext context) {
+		long start = System.nanoTime();
+		for (int[] batch : batches) {
+			int[] a = batch.clone();
+			if (context == null) {
+				TimSort.sort(a);
+			} else {
+				TimSort.sort(a, context);
+			}
+		}
+		return (System.nanoTime() - start) / 1e9 / batches.length;
+	}
+
+	public static void main(String[] args) {
+		int swapped = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		Random random = new Random(1);
+		System.out.printf("%12s %12s %12s%n", "Size", "Fresh", "Context");
+		for (int iPow = 3; iPow <= 6; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			int[][] batches = batches(size, swapped, random);
+			TimSortContext context = new TimSortContext();
+			double fresh = Double.MAX_VALUE, carried = Double.MAX_VALUE;
+			for (int repeat = 0; repeat < 3; repeat++) {
+				fresh = Math.min(fresh, time(batches, null));
+				context.reset();
+				carried = Math.min(carried, time(batches, context));
+			}
+			System.out.printf("%,12d %12.6f %12.6f%n", size, fresh, carried);
+			System.out.println("  " + context);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package edu.bsu.cs.sorting.testing;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.bsu.cs.sorting.buis.integer.IntroSort;
+import edu.bsu.cs.sorting.buis.integer.IntRangeSorter;
+import edu.bsu.cs.sorting.buis.vector.VectorSort;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+
+/**
+ * Runs the usual size sweep on VectorSort after reporting which vector
+ * width (if any) it detected, and comparing the vector network against
+ * insertion sort as the leaf of IntroSort and DualPivotQuicksort. Run with
+ * --add-modules jdk.incubator.vector to get the vectorized code; otherwise
+ * the scalar fallback is timed.
+ */
+public class VectorSortTester {
+
+	// prevent instantiation
+	private VectorSortTester() {
+	}
+
+	// fastest of several runs with the built-in insertion sort leaves and
+	// with the network leaf, on parts of up to NETWORK_SIZE elements
+	private static void compareLeaves() {
+		IntRangeSorter leaf = VectorSort.leafSorter();
+		int threshold = VectorSort.NETWORK_SIZE;
+		System.out.printf("%12s%16s%16s%16s%16s%n", "Size", "Intro+insert",
+				"Intro+vector", "DPQ+insert", "DPQ+vector");
+		for (int iPow = 3; iPow <= 7; iPow++) {
+			int size = IntSortTester.pow10(iPow);
+			System.out.printf("%,12d", size);
+			List<Consumer<int[]>> sorters = List.of(IntroSort::sort,
+					a -> IntroSort.sort(a, threshold, leaf),
+					DualPivotQuicksort::sort,
+					a -> DualPivotQuicksort.sort(a, threshold, leaf));
+			for (Consumer<int[]> sorter : sorters) {
+				System.out.printf("%16.6f",
+						IntSortTester.bestOf(sorter, size, 3));
+			}
+			System.out.println();
+		}
+	}
+
+	public static void main(String[] args) {
+		String title;
+		if (VectorSort.isSupported()) {
+			int bits = VectorSort.vectorBitSize();
+			title = String.format("VectorSort (%d bit, %d int lanes)", bits,
+					bits / 32);
+		} else {
+			title = "VectorSort (scalar fallback)";
+		}
+		System.out.println(title);
+		compareLeaves();
+		IntSortTester tester = new IntSortTester(VectorSort::sort);
+		TestResultMultiMap mmap = IntSortTester.testSizes(tester, 8);
+		IntSortTester.showTable(title, mmap);
+	}
+}
@@ -0,0 +1,175 @@
+package edu.bsu.cs.sorting.tuning;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Picks SortTuning constants for this machine by timing the sorts. Each
+ * constant is searched in turn over a short list of candidates while the
+ * others are held fixed, keeping whichever candidate gives the fastest of
+ * several runs. Leaf thresholds are timed on arrays that fit in L2, where
+ * the leaf sorts matter most; the parallel granularity is timed on an
+ * array a few times the size of L3 (at most 4M ints), and only when there
+ * is more than one processor.
+ *
+ * Run main to tune offline and write a profile, or call loadOrTune at
+ * startup to reuse a profile tuned on the same hardware.
+ */
+public final class AutoTuner {
+
+	public static final String DEFAULT_PROFILE = "sort-tuning.properties";
+
+	private static final int[] LEAF_CANDIDATES = { 4, 7, 12, 16, 24, 32, 47,
+			64 };
+	private static final int[] DUAL_PIVOT_CANDIDATES = { 8, 16, 24, 32, 46,
+			64, 96 };
+	private static final int[] MIN_MERGE_CANDIDATES = { 8, 16, 32, 64, 128 };
+	private static final int[] MIN_GALLOP_CANDIDATES = { 1, 3, 5, 7, 10, 15 };
+	private static final int[] GRAN_CANDIDATES = { 1 << 10, 1 << 11, 1 << 12,
+			1 << 13, 1 << 14, 1 << 15, 1 << 16 };
+
+	private static final int REPEATS = 5;
+
+	private final HardwareInfo hardware;
+	private final PrintStream log;
+	private final Random random = new Random(0);
+
+	public AutoTuner(HardwareInfo hardware, PrintStream log) {
+		this.hardware = hardware;
+		this.log = log;
+	}
+
+	/**
+	 * @return the tuning stored in profile if it was made on this hardware,
+	 *         otherwise a freshly tuned one, which is also written to
+	 *         profile
+	 */
+	public static SortTuning loadOrTune(Path profile, PrintStream log)
+			throws IOException {
+		HardwareInfo hardware = HardwareInfo.detect();
+		SortTuning tuning = SortTuning.loadForThisMachine(profile, hardware);
+		if (tuning == null) {
+			tuning = new AutoTuner(hardware, log).tune();
+			tuning.store(profile, hardware);
+		}
+		return tuning;
+	}
+
+	public SortTuning tune() {
+		log.println("tuning for " + hardware);
+		SortTuning best = SortTuning.DEFAULTS;
+
+		// about a quarter of L2 worth of ints
+		int leafSize = Math.max(1 << 12, hardware.l2Bytes / 16);
+		int[] uniform = randomArray(leafSize);
+		Integer[] boxed = Arrays.stream(randomArray(leafSize / 4)).boxed()
+				.toArray(Integer[]::new);
+		int[] runs = runArray(leafSize);
+
+		best = search("introSortThreshold", LEAF_CANDIDATES, best,
+				SortTuning::withIntroSortThreshold, t -> time(uniform, t::introSort));
+		best = search("genericIntroSortThreshold", LEAF_CANDIDATES, best,
+				SortTuning::withGenericIntroSortThreshold,
+				t -> time(boxed, t::introSort));
+		best = search("dualPivotThreshold", DUAL_PIVOT_CANDIDATES, best,
+				SortTuning::withDualPivotThreshold,
+				t -> time(uniform, t::dualPivotQuicksort));
+		best = search("mergeSortThreshold", LEAF_CANDIDATES, best,
+				SortTuning::withMergeSortThreshold,
+				t -> time(uniform, t::legacyMergeSort));
+		best = search("minMerge", MIN_MERGE_CANDIDATES, best,
+				SortTuning::withMinMerge, t -> time(uniform, t::timSort));
+		best = search("minGallop", MIN_GALLOP_CANDIDATES, best,
+				SortTuning::withMinGallop, t -> time(runs, t::timSort));
+
+		if (hardware.processors > 1) {
+			int parallelSize = Math.min(1 << 22, Math.max(1 << 20,
+					hardware.l3Bytes));
+			int[] large = randomArray(parallelSize);
+			best = search("minArraySortGran", GRAN_CANDIDATES, best,
+					SortTuning::withMinArraySortGran,
+					t -> time(large, t::parallelDualPivotQuicksort));
+		}
+		log.println("tuned: " + best);
+		return best;
+	}
+
+	private interface With {
+		SortTuning apply(SortTuning tuning, int value);
+	}
+
+	private interface Timing {
+		double seconds(SortTuning tuning);
+	}
+
+	private SortTuning search(String name, int[] candidates, SortTuning start,
+			With with, Timing timing) {
+		SortTuning best = start;
+		double bestTime = Double.MAX_VALUE;
+		for (int candidate : candidates) {
+			SortTuning tuning = with.apply(start, candidate);
+			double seconds = timing.seconds(tuning);
+			log.printf("  %s=%d: %.6f%n", name, candidate, seconds);
+			if (seconds < bestTime) {
+				bestTime = seconds;
+				best = tuning;
+			}
+		}
+		return best;
+	}
+
+	// fastest of REPEATS sorts of a fresh copy of data, after a warm-up
+	private static double time(int[] data, Consumer<int[]> sort) {
+		return time(data, int[]::clone, sort);
+	}
+
+	private static double time(Integer[] data, Consumer<Integer[]> sort) {
+		return time(data, Integer[]::clone, sort);
+	}
+
+	private static <A> double time(A data, UnaryOperator<A> copy,
+			Consumer<A> sort) {
+		sort.accept(copy.apply(data));
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < REPEATS; i++) {
+			A a = copy.apply(data);
+			long start = System.nanoTime();
+			sort.accept(a);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e9;
+	}
+
+	private int[] randomArray(int length) {
+		int[] a = new int[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = random.nextInt(10 * length);
+		}
+		return a;
+	}
+
+	// ascending runs of random length, as TimSort sees in partly sorted data
+	private int[] runArray(int length) {
+		int[] a = randomArray(length);
+		for (int start = 0; start < length;) {
+			int end = Math.min(length, start + 1 + random.nextInt(256));
+			Arrays.sort(a, start, end);
+			start = end;
+		}
+		return a;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path profile = Paths.get(args.length > 0 ? args[0] : DEFAULT_PROFILE);
+		HardwareInfo hardware = HardwareInfo.detect();
+		SortTuning tuning = new AutoTuner(hardware, System.out).tune();
+		tuning.store(profile, hardware);
+		System.out.println("wrote " + profile.toAbsolutePath());
+	}
+}
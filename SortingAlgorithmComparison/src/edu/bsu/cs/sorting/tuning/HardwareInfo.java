@@ -0,0 +1,91 @@
+package edu.bsu.cs.sorting.tuning;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Core count and data cache sizes of the machine we are running on. Cache
+ * sizes are read from Linux sysfs; elsewhere, or if sysfs can't be read,
+ * typical sizes are assumed.
+ */
+public final class HardwareInfo {
+
+	private static final String CACHE_DIR = "/sys/devices/system/cpu/cpu0/cache";
+
+	public static final int DEFAULT_L1D_BYTES = 32 << 10;
+	public static final int DEFAULT_L2_BYTES = 256 << 10;
+	public static final int DEFAULT_L3_BYTES = 8 << 20;
+
+	public final int processors;
+	public final int l1dBytes;
+	public final int l2Bytes;
+	public final int l3Bytes;
+
+	public HardwareInfo(int processors, int l1dBytes, int l2Bytes, int l3Bytes) {
+		this.processors = processors;
+		this.l1dBytes = l1dBytes;
+		this.l2Bytes = l2Bytes;
+		this.l3Bytes = l3Bytes;
+	}
+
+	public static HardwareInfo detect() {
+		int l1d = DEFAULT_L1D_BYTES, l2 = DEFAULT_L2_BYTES, l3 = DEFAULT_L3_BYTES;
+		for (int index = 0; index < 8; index++) {
+			Path dir = Paths.get(CACHE_DIR, "index" + index);
+			if (!Files.isDirectory(dir)) {
+				break;
+			}
+			try {
+				int level = Integer.parseInt(read(dir, "level"));
+				String type = read(dir, "type");
+				int size = parseSize(read(dir, "size"));
+				if (level == 1 && type.equals("Data")) {
+					l1d = size;
+				} else if (level == 2) {
+					l2 = size;
+				} else if (level == 3) {
+					l3 = size;
+				}
+			} catch (IOException | NumberFormatException e) {
+				// keep the defaults for this level
+			}
+		}
+		return new HardwareInfo(Runtime.getRuntime().availableProcessors(),
+				l1d, l2, l3);
+	}
+
+	private static String read(Path dir, String name) throws IOException {
+		return new String(Files.readAllBytes(dir.resolve(name))).trim();
+	}
+
+	// sysfs sizes look like "48K" or "2048K"
+	static int parseSize(String size) {
+		int shift = 0;
+		char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+		if (unit == 'K') {
+			shift = 10;
+		} else if (unit == 'M') {
+			shift = 20;
+		}
+		if (shift != 0) {
+			size = size.substring(0, size.length() - 1);
+		}
+		return Integer.parseInt(size) << shift;
+	}
+
+	/**
+	 * @return a string that identifies this hardware in a tuning profile
+	 */
+	public String signature() {
+		return processors + "cpu-" + (l1dBytes >> 10) + "K-" + (l2Bytes >> 10)
+				+ "K-" + (l3Bytes >> 10) + "K";
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d processors, L1d %,d, L2 %,d, L3 %,d bytes",
+				processors, l1dBytes, l2Bytes, l3Bytes);
+	}
+}
@@ -0,0 +1,230 @@
+package edu.bsu.cs.sorting.tuning;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import edu.bsu.cs.sorting.buis.integer.InsertionSort;
+import edu.bsu.cs.sorting.javautil.integer.DualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.LegacyMergeSort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelDualPivotQuicksort;
+import edu.bsu.cs.sorting.javautil.integer.ParallelTimSort;
+import edu.bsu.cs.sorting.javautil.integer.TimSort;
+
+/**
+ * One set of tuning constants for the sorts, with methods that run each
+ * sort using them. Instances are immutable; the with methods return
+ * copies. DEFAULTS holds the constants the sorts are compiled with.
+ */
+public final class SortTuning {
+
+	public static final SortTuning DEFAULTS = new SortTuning(7, 47, 46, 7, 32,
+			7, 1 << 13);
+
+	// buis.integer.IntroSort INSERTION_SORT_THRESHOLD
+	public final int introSortThreshold;
+	// buis.generic.IntroSort INSERTION_SORT_THRESHOLD
+	public final int genericIntroSortThreshold;
+	// DualPivotQuicksort INSERTION_SORT_THRESHOLD - 1, the longest part
+	// it insertion sorts, as the other leaf thresholds count
+	public final int dualPivotThreshold;
+	// LegacyMergeSort INSERTIONSORT_THRESHOLD
+	public final int mergeSortThreshold;
+	// TimSort MIN_MERGE and MIN_GALLOP
+	public final int minMerge;
+	public final int minGallop;
+	// ParallelDualPivotQuicksort and ParallelTimSort MIN_ARRAY_SORT_GRAN
+	public final int minArraySortGran;
+
+	public SortTuning(int introSortThreshold, int genericIntroSortThreshold,
+			int dualPivotThreshold, int mergeSortThreshold, int minMerge,
+			int minGallop, int minArraySortGran) {
+		if (introSortThreshold < 1 || genericIntroSortThreshold < 1
+				|| minArraySortGran < 1) {
+			throw new IllegalArgumentException("thresholds must be positive");
+		}
+		if (mergeSortThreshold < 2) {
+			throw new IllegalArgumentException("mergeSortThreshold("
+					+ mergeSortThreshold + ") < 2");
+		}
+		if (dualPivotThreshold < DualPivotQuicksort.MIN_LEAF_THRESHOLD) {
+			throw new IllegalArgumentException("dualPivotThreshold("
+					+ dualPivotThreshold + ") < "
+					+ DualPivotQuicksort.MIN_LEAF_THRESHOLD);
+		}
+		if (minMerge < 2 || minGallop < 1) {
+			throw new IllegalArgumentException("minMerge(" + minMerge
+					+ ") < 2 or minGallop(" + minGallop + ") < 1");
+		}
+		this.introSortThreshold = introSortThreshold;
+		this.genericIntroSortThreshold = genericIntroSortThreshold;
+		this.dualPivotThreshold = dualPivotThreshold;
+		this.mergeSortThreshold = mergeSortThreshold;
+		this.minMerge = minMerge;
+		this.minGallop = minGallop;
+		this.minArraySortGran = minArraySortGran;
+	}
+
+	public SortTuning withIntroSortThreshold(int value) {
+		return new SortTuning(value, genericIntroSortThreshold,
+				dualPivotThreshold, mergeSortThreshold, minMerge, minGallop,
+				minArraySortGran);
+	}
+
+	public SortTuning withGenericIntroSortThreshold(int value) {
+		return new SortTuning(introSortThreshold, value, dualPivotThreshold,
+				mergeSortThreshold, minMerge, minGallop, minArraySortGran);
+	}
+
+	public SortTuning withDualPivotThreshold(int value) {
+		return new SortTuning(introSortThreshold, genericIntroSortThreshold,
+				value, mergeSortThreshold, minMerge, minGallop,
+				minArraySortGran);
+	}
+
+	public SortTuning withMergeSortThreshold(int value) {
+		return new SortTuning(introSortThreshold, genericIntroSortThreshold,
+				dualPivotThreshold, value, minMerge, minGallop,
+				minArraySortGran);
+	}
+
+	public SortTuning withMinMerge(int value) {
+		return new SortTuning(introSortThreshold, genericIntroSortThreshold,
+				dualPivotThreshold, mergeSortThreshold, value, minGallop,
+				minArraySortGran);
+	}
+
+	public SortTuning withMinGallop(int value) {
+		return new SortTuning(introSortThreshold, genericIntroSortThreshold,
+				dualPivotThreshold, mergeSortThreshold, minMerge, value,
+				minArraySortGran);
+	}
+
+	public SortTuning withMinArraySortGran(int value) {
+		return new SortTuning(introSortThreshold, genericIntroSortThreshold,
+				dualPivotThreshold, mergeSortThreshold, minMerge, minGallop,
+				value);
+	}
+
+	public void introSort(int[] a) {
+		edu.bsu.cs.sorting.buis.integer.IntroSort.sort(a, introSortThreshold,
+				InsertionSort::sort);
+	}
+
+	public <T extends Comparable<? super T>> void introSort(T[] a) {
+		edu.bsu.cs.sorting.buis.generic.IntroSort.sort(a,
+				genericIntroSortThreshold);
+	}
+
+	public void dualPivotQuicksort(int[] a) {
+		DualPivotQuicksort.sort(a, dualPivotThreshold, null);
+	}
+
+	public void legacyMergeSort(int[] a) {
+		LegacyMergeSort.sort(a, mergeSortThreshold);
+	}
+
+	public void timSort(int[] a) {
+		TimSort.sort(a, 0, a.length, null, 0, 0, minMerge, minGallop);
+	}
+
+	public void parallelDualPivotQuicksort(int[] a) {
+		ParallelDualPivotQuicksort.sort(a, minArraySortGran);
+	}
+
+	public void parallelTimSort(int[] a) {
+		ParallelTimSort.sort(a, minArraySortGran);
+	}
+
+	// keys used in the profile file
+	private static final String HARDWARE = "hardware";
+	private static final String[] KEYS = { "introSortThreshold",
+			"genericIntroSortThreshold", "dualPivotThreshold",
+			"mergeSortThreshold", "minMerge", "minGallop", "minArraySortGran" };
+
+	private int[] values() {
+		return new int[] { introSortThreshold, genericIntroSortThreshold,
+				dualPivotThreshold, mergeSortThreshold, minMerge, minGallop,
+				minArraySortGran };
+	}
+
+	/**
+	 * Writes this tuning to a properties file, recording the hardware it
+	 * was tuned on.
+	 */
+	public void store(Path file, HardwareInfo hardware) throws IOException {
+		Properties props = new Properties();
+		props.setProperty(HARDWARE, hardware.signature());
+		int[] values = values();
+		for (int i = 0; i < KEYS.length; i++) {
+			props.setProperty(KEYS[i], Integer.toString(values[i]));
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			props.store(out, "sort tuning for " + hardware);
+		}
+	}
+
+	/**
+	 * Reads a tuning written by store. Missing keys keep their defaults.
+	 */
+	public static SortTuning load(Path file) throws IOException {
+		return fromProperties(readProperties(file));
+	}
+
+	/**
+	 * @return the tuning stored in file, or null if there is no such file
+	 *         or it was tuned on different hardware
+	 */
+	public static SortTuning loadForThisMachine(Path file,
+			HardwareInfo hardware) throws IOException {
+		if (!Files.isReadable(file)) {
+			return null;
+		}
+		Properties props = readProperties(file);
+		if (!hardware.signature().equals(props.getProperty(HARDWARE))) {
+			return null;
+		}
+		return fromProperties(props);
+	}
+
+	private static Properties readProperties(Path file) throws IOException {
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			props.load(in);
+		}
+		return props;
+	}
+
+	private static SortTuning fromProperties(Properties props)
+			throws IOException {
+		int[] values = DEFAULTS.values();
+		try {
+			for (int i = 0; i < KEYS.length; i++) {
+				String value = props.getProperty(KEYS[i]);
+				if (value != null) {
+					values[i] = Integer.parseInt(value.trim());
+				}
+			}
+			return new SortTuning(values[0], values[1], values[2], values[3],
+					values[4], values[5], values[6]);
+		} catch (IllegalArgumentException e) {
+			// NumberFormatException is an IllegalArgumentException
+			throw new IOException("bad sort tuning profile: " + e.getMessage(),
+					e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		int[] values = values();
+		for (int i = 0; i < KEYS.length; i++) {
+			sb.append(i == 0 ? "" : ", ").append(KEYS[i]).append('=')
+					.append(values[i]);
+		}
+		return sb.toString();
+	}
+}